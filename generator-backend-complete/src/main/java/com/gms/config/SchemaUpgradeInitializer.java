@@ -0,0 +1,130 @@
+package com.gms.config;
+
+import com.gms.service.JobCardImageService;
+import com.gms.service.score.EmployeeScoreService;
+import com.gms.storage.ObjectStore;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.channels.Channels;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Data fix-ups that ddl-auto cannot do on an existing database
+ */
+@Configuration
+@RequiredArgsConstructor
+public class SchemaUpgradeInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaUpgradeInitializer.class);
+
+    private static final int IMAGE_MIGRATION_BATCH = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectStore objectStore;
+    private final EmployeeScoreService employeeScoreService;
+
+    @Bean
+    public CommandLineRunner upgradeSchema() {
+        return args -> {
+            // Tables that used to be IDENTITY keep their rows; move the new sequences past them
+            alignSequence("main_tickets", "main_tickets_seq");
+            alignSequence("sub_tickets", "sub_tickets_seq");
+            alignSequence("job_status_logs", "job_status_logs_seq");
+
+            // Job card photos used to be base64 in mini_job_cards.image
+            migrateInlineImages();
+
+            // Scores used to live only on sub_tickets.score
+            int scores = employeeScoreService.backfillFromSubTickets();
+            if (scores > 0) {
+                log.info("Copied {} approved sub-ticket scores to employee_scores", scores);
+            }
+        };
+    }
+
+    private void alignSequence(String table, String sequence) {
+        Long value = jdbcTemplate.queryForObject(
+            "SELECT setval('" + sequence + "', GREATEST(" +
+                "(SELECT COALESCE(MAX(id), 0) FROM " + table + "), " +
+                "(SELECT last_value FROM " + sequence + ")))",
+            Long.class);
+        log.info("Sequence {} aligned to {}", sequence, value);
+    }
+
+    /**
+     * Copy inline base64 photos into the object store and clear the old column.
+     * Rows are read in small keyset batches so only a few photos are in memory at once;
+     * rows that cannot be decoded are logged and left untouched.
+     */
+    private void migrateInlineImages() {
+        Boolean hasColumn = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM information_schema.columns " +
+                "WHERE table_name = 'mini_job_cards' AND column_name = 'image')",
+            Boolean.class);
+        if (!Boolean.TRUE.equals(hasColumn)) {
+            return;
+        }
+
+        long lastId = 0;
+        int migrated = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, image FROM mini_job_cards WHERE image IS NOT NULL AND id > ? ORDER BY id LIMIT ?",
+                lastId, IMAGE_MIGRATION_BATCH);
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            for (Map<String, Object> row : rows) {
+                lastId = ((Number) row.get("id")).longValue();
+                if (migrateInlineImage(lastId, (String) row.get("image"))) {
+                    migrated++;
+                }
+            }
+        }
+
+        if (migrated > 0) {
+            log.info("Moved {} inline job card images to the object store", migrated);
+        }
+    }
+
+    private boolean migrateInlineImage(long jobCardId, String image) {
+        // Either a data URL (data:image/png;base64,...) or bare base64
+        String contentType = "application/octet-stream";
+        String data = image;
+        if (image.startsWith("data:")) {
+            int comma = image.indexOf(',');
+            int base64Marker = image.indexOf(";base64");
+            if (comma < 0 || base64Marker < 0 || base64Marker > comma) {
+                log.warn("Job card {} image is not base64 data, left in place", jobCardId);
+                return false;
+            }
+            contentType = image.substring("data:".length(), base64Marker);
+            data = image.substring(comma + 1);
+        }
+
+        try {
+            byte[] bytes = Base64.getMimeDecoder().decode(data);
+            String key = JobCardImageService.imageKey(jobCardId);
+            objectStore.put(key, Channels.newChannel(new ByteArrayInputStream(bytes)));
+
+            jdbcTemplate.update(
+                "UPDATE mini_job_cards SET image_key = ?, image_content_type = ?, image_size = ?, image = NULL " +
+                    "WHERE id = ?",
+                key, contentType, (long) bytes.length, jobCardId);
+            return true;
+        } catch (Exception ex) {
+            log.warn("Job card {} image could not be migrated: {}", jobCardId, ex.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gms.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Streamed responses (exports and reports written through StreamingResponseBody) run on
+ * their own small pool, apart from the Tomcat workers that serve interactive requests.
+ *
+ * The pool's queue is bounded. When it is full the export is turned away with 429
+ * (TaskRejectedException) before anything has been written.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor streamingExecutor;
+    private final long timeoutMillis;
+
+    public WebAsyncConfig(@Value("${reports.streaming.threads:4}") int threads,
+                          @Value("${reports.streaming.queue-capacity:8}") int queueCapacity,
+                          @Value("${reports.streaming.timeout-ms:300000}") long timeoutMillis) {
+        // Not a bean: an Executor bean would replace Spring Boot's application task executor
+        this.streamingExecutor = new ThreadPoolTaskExecutor();
+        this.streamingExecutor.setCorePoolSize(threads);
+        this.streamingExecutor.setMaxPoolSize(threads);
+        this.streamingExecutor.setQueueCapacity(queueCapacity);
+        this.streamingExecutor.setThreadNamePrefix("report-stream-");
+        this.streamingExecutor.initialize();
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(streamingExecutor);
+        configurer.setDefaultTimeout(timeoutMillis);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamingExecutor.shutdown();
+    }
+}
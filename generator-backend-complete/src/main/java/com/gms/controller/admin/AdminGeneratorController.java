@@ -1,10 +1,12 @@
 package com.gms.controller.admin;
 
 import com.gms.dto.request.GeneratorRequest;
+import com.gms.dto.response.CursorPage;
 import com.gms.dto.response.GeneratorResponse;
 import com.gms.entity.Generator;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.GeneratorRepository;
+import com.gms.util.CursorPaging;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -14,12 +16,15 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin/generators")
 @RequiredArgsConstructor
 public class AdminGeneratorController {
 
     private final GeneratorRepository generatorRepository;
+    private final CursorPaging cursorPaging;
 
     @GetMapping
     public ResponseEntity<Page<GeneratorResponse>> getAllGenerators(
@@ -34,6 +39,20 @@ public class AdminGeneratorController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keyset-paginated listing: pass the returned nextCursor to get the next page
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<GeneratorResponse>> getGeneratorsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size
+    ) {
+        List<Generator> generators = generatorRepository.findByIdLessThanOrderByIdDesc(
+            cursorPaging.afterId(cursor), cursorPaging.request(size));
+
+        return ResponseEntity.ok(cursorPaging.page(generators, size, Generator::getId, this::toResponse));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GeneratorResponse> getGeneratorById(@PathVariable Long id) {
         Generator generator = generatorRepository.findById(id)
@@ -0,0 +1,81 @@
+package com.gms.controller.admin;
+
+import com.gms.dto.projection.StatusLogRow;
+import com.gms.entity.JobStatusDuration;
+import com.gms.entity.MiniJobCard;
+import com.gms.enums.ImageSize;
+import com.gms.enums.JobStatus;
+import com.gms.exception.ResourceNotFoundException;
+import com.gms.repository.JobStatusDurationRepository;
+import com.gms.repository.JobStatusLogRepository;
+import com.gms.repository.MiniJobCardRepository;
+import com.gms.service.JobCardImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/job-cards")
+@RequiredArgsConstructor
+public class AdminJobCardController {
+
+    private final JobCardImageService jobCardImageService;
+    private final MiniJobCardRepository jobCardRepository;
+    private final JobStatusDurationRepository jobStatusDurationRepository;
+    private final JobStatusLogRepository jobStatusLogRepository;
+
+    /**
+     * Job card photo for work review; defaults to the MEDIUM thumbnail to save bandwidth
+     */
+    @GetMapping("/{id}/image")
+    public void getImage(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "MEDIUM") ImageSize size,
+            @RequestParam(name = "v", required = false) String version,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        jobCardImageService.downloadForReview(id, size, version, request, response);
+    }
+
+    /**
+     * Seconds the card has spent in each tracked status so far, excluding its current one
+     */
+    @GetMapping("/{id}/durations")
+    @Transactional(readOnly = true)
+    public ResponseEntity<Map<JobStatus, Long>> getStatusDurations(@PathVariable Long id) {
+        if (!jobCardRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Job card not found");
+        }
+        
+        Map<JobStatus, Long> durations = new EnumMap<>(JobStatus.class);
+        for (JobStatusDuration duration : jobStatusDurationRepository.findByMiniJobCardId(id)) {
+            durations.put(duration.getStatus(), duration.getTotalSeconds());
+        }
+        return ResponseEntity.ok(durations);
+    }
+
+    /**
+     * Every status change of the card, oldest first
+     */
+    @GetMapping("/{id}/status-history")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<StatusLogRow>> getStatusHistory(@PathVariable Long id) {
+        MiniJobCard jobCard = jobCardRepository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Job card not found"));
+
+        // No change is logged before the card exists; the bounds keep the scan to its months' partitions
+        LocalDateTime from = jobCard.getCreatedAt();
+        LocalDateTime to = LocalDateTime.now().plusDays(1);
+        return ResponseEntity.ok(jobStatusLogRepository.findRowsByMiniJobCardId(id, from, to));
+    }
+}
@@ -0,0 +1,158 @@
+package com.gms.controller.admin;
+
+import com.gms.dto.projection.EmployeeStatusDurationRow;
+import com.gms.dto.projection.PayrollSummaryRow;
+import com.gms.dto.projection.StatusLogRow;
+import com.gms.dto.response.LeaderboardEntry;
+import com.gms.enums.ExportFormat;
+import com.gms.enums.ScorePeriod;
+import com.gms.exception.InvalidDateRangeException;
+import com.gms.repository.EmployeeStatusDurationRepository;
+import com.gms.repository.JobStatusLogRepository;
+import com.gms.repository.PayrollSummaryRepository;
+import com.gms.service.duration.StatusDurationBackfill;
+import com.gms.service.payroll.PayrollBatchJob;
+import com.gms.service.report.ProductivityReport;
+import com.gms.service.score.Leaderboard;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/reports")
+@RequiredArgsConstructor
+public class AdminReportController {
+    
+    private final EmployeeStatusDurationRepository employeeStatusDurationRepository;
+    private final JobStatusLogRepository jobStatusLogRepository;
+    private final StatusDurationBackfill statusDurationBackfill;
+    private final Leaderboard leaderboard;
+    private final PayrollSummaryRepository payrollSummaryRepository;
+    private final PayrollBatchJob payrollBatchJob;
+    private final ProductivityReport productivityReport;
+    
+    @Value("${business.report-max-days:90}")
+    private int reportMaxDays;
+    
+    @Value("${pagination.max-page-size:100}")
+    private int maxPageSize;
+    
+    /**
+     * Seconds spent traveling, working and on hold per employee and day, both dates inclusive
+     */
+    @GetMapping("/status-durations")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<EmployeeStatusDurationRow>> getStatusDurations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long employeeId
+    ) {
+        checkRange(from, to);
+        
+        List<EmployeeStatusDurationRow> rows = employeeId != null
+            ? employeeStatusDurationRepository.findRowsByEmployeeId(employeeId, from, to)
+            : employeeStatusDurationRepository.findRows(from, to);
+        return ResponseEntity.ok(rows);
+    }
+    
+    /**
+     * Status changes made by one employee, both dates inclusive, oldest first
+     */
+    @GetMapping("/status-history")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<StatusLogRow>> getStatusHistory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam Long employeeId
+    ) {
+        checkRange(from, to);
+        
+        return ResponseEntity.ok(jobStatusLogRepository.findRowsByEmployeeId(
+            employeeId, from.atStartOfDay(), to.plusDays(1).atStartOfDay()));
+    }
+    
+    /**
+     * Recompute all status durations from the job status log
+     */
+    @PostMapping("/status-durations/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildStatusDurations() {
+        long rows = statusDurationBackfill.rebuild();
+        return ResponseEntity.ok(Map.of("statusLogRows", rows));
+    }
+    
+    /**
+     * Top employees by approved score for the current day, week or month; served from memory
+     */
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(
+            @RequestParam(defaultValue = "WEEK") ScorePeriod period,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(leaderboard.top(period, Math.max(1, Math.min(limit, maxPageSize))));
+    }
+    
+    /**
+     * Worked and overtime minutes per employee for one month, as of the last payroll batch run
+     */
+    @GetMapping("/payroll")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<PayrollSummaryRow>> getPayroll(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month
+    ) {
+        return ResponseEntity.ok(payrollSummaryRepository.findRows(month.atDay(1)));
+    }
+    
+    /**
+     * Run the payroll batch now instead of waiting for the nightly schedule
+     */
+    @PostMapping("/payroll/run")
+    public ResponseEntity<PayrollBatchJob.Result> runPayrollBatch() {
+        return ResponseEntity.ok(payrollBatchJob.run());
+    }
+    
+    /**
+     * Work minutes, overtime, job cards and approved scores per employee, both dates inclusive.
+     * Streamed as CSV (default) or a JSON array while the query runs.
+     */
+    @GetMapping("/productivity")
+    public ResponseEntity<StreamingResponseBody> getProductivity(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long employeeId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format
+    ) {
+        checkRange(from, to);
+        
+        StreamingResponseBody body = productivityReport.stream(from, to, employeeId, format);
+        if (format == ExportFormat.JSON) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        return ResponseEntity.ok()
+            .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+            .header(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"productivity-" + from + "-to-" + to + ".csv\"")
+            .body(body);
+    }
+    
+    private void checkRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new InvalidDateRangeException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= reportMaxDays) {
+            throw new InvalidDateRangeException("Report range is limited to " + reportMaxDays + " days");
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.gms.controller.admin;
 
+import com.gms.dto.projection.MainTicketRow;
 import com.gms.dto.request.ApprovalRequest;
+import com.gms.dto.request.BulkApprovalRequest;
+import com.gms.dto.request.BulkStatusUpdateRequest;
 import com.gms.dto.request.MainTicketRequest;
+import com.gms.dto.response.BulkApprovalResponse;
+import com.gms.dto.response.CursorPage;
 import com.gms.dto.response.MainTicketResponse;
 import com.gms.dto.response.SubTicketResponse;
 import com.gms.entity.Generator;
@@ -10,29 +15,46 @@ import com.gms.entity.SubTicket;
 import com.gms.entity.User;
 import com.gms.enums.Role;
 import com.gms.enums.TicketStatus;
+import com.gms.exception.InvalidAssignmentException;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.GeneratorRepository;
 import com.gms.repository.MainTicketRepository;
 import com.gms.repository.SubTicketRepository;
 import com.gms.repository.UserRepository;
 import com.gms.security.UserPrincipal;
+import com.gms.service.ConflictRetry;
+import com.gms.service.SubTicketReviewService;
+import com.gms.service.TicketNumberAllocator;
+import com.gms.service.score.ApprovedScore;
+import com.gms.service.score.EmployeeScoreService;
+import com.gms.statemachine.BulkTransition;
+import com.gms.statemachine.StatusTransitions;
+import com.gms.util.CursorPaging;
+import com.gms.util.JsonArrayStreamer;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
@@ -44,8 +66,16 @@ public class AdminTicketController {
     private final SubTicketRepository subTicketRepository;
     private final GeneratorRepository generatorRepository;
     private final UserRepository userRepository;
+    private final TicketNumberAllocator ticketNumberAllocator;
+    private final SubTicketReviewService subTicketReviewService;
+    private final EmployeeScoreService employeeScoreService;
+    private final CursorPaging cursorPaging;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final ConflictRetry conflictRetry;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
 
     @GetMapping
+    @Transactional(readOnly = true)
     public ResponseEntity<Page<MainTicketResponse>> getAllTickets(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
@@ -53,31 +83,84 @@ public class AdminTicketController {
             @RequestParam(required = false) LocalDate scheduledDate
     ) {
         Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
-        Page<MainTicket> tickets;
+        Page<MainTicketRow> tickets;
 
         if (status != null) {
-            tickets = ticketRepository.findByStatus(status, pageable);
+            tickets = ticketRepository.findRowsByStatus(status, pageable);
         } else if (scheduledDate != null) {
-            tickets = ticketRepository.findByScheduledDate(scheduledDate, pageable);
+            tickets = ticketRepository.findRowsByScheduledDate(scheduledDate, pageable);
         } else {
-            tickets = ticketRepository.findAllWithDetails(pageable);
+            tickets = ticketRepository.findAllRows(pageable);
         }
 
-        Page<MainTicketResponse> response = tickets.map(this::toResponse);
+        // Load the sub-tickets of the whole page in one query instead of one per ticket
+        Map<Long, List<SubTicketResponse>> subTicketsByTicket = findSubTicketsByTicket(tickets.getContent());
+
+        Page<MainTicketResponse> response = tickets.map(ticket -> toResponse(
+            ticket, subTicketsByTicket.getOrDefault(ticket.getId(), Collections.emptyList())));
 
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Keyset-paginated listing: pass the returned nextCursor to get the next page
+     */
+    @GetMapping("/cursor")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<MainTicketResponse>> getTicketsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) LocalDate scheduledDate
+    ) {
+        long afterId = cursorPaging.afterId(cursor);
+        Pageable pageable = cursorPaging.request(size);
+        List<MainTicketRow> tickets;
+
+        if (status != null) {
+            tickets = ticketRepository.findRowPageByStatusAfter(status, afterId, pageable);
+        } else if (scheduledDate != null) {
+            tickets = ticketRepository.findRowPageByScheduledDateAfter(scheduledDate, afterId, pageable);
+        } else {
+            tickets = ticketRepository.findRowPageAfter(afterId, pageable);
+        }
+
+        Map<Long, List<SubTicketResponse>> subTicketsByTicket = findSubTicketsByTicket(tickets);
+
+        return ResponseEntity.ok(cursorPaging.page(tickets, size, MainTicketRow::getId, ticket -> toResponse(
+            ticket, subTicketsByTicket.getOrDefault(ticket.getId(), Collections.emptyList()))));
+    }
+
+    private Map<Long, List<SubTicketResponse>> findSubTicketsByTicket(List<MainTicketRow> tickets) {
+        if (tickets.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Long> ticketIds = tickets.stream()
+            .map(MainTicketRow::getId)
+            .collect(Collectors.toList());
+
+        return subTicketRepository.findResponsesByMainTicketIdIn(ticketIds).stream()
+            .collect(Collectors.groupingBy(SubTicketResponse::getMainTicketId));
+    }
+
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<MainTicketResponse> getTicketById(@PathVariable Long id) {
-        MainTicket ticket = ticketRepository.findByIdWithDetails(id)
+        MainTicketRow ticket = ticketRepository.findRowById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
-        return ResponseEntity.ok(toResponse(ticket));
+        return ResponseEntity.ok(toResponse(ticket, subTicketRepository.findResponsesByMainTicketId(id)));
     }
 
     @PostMapping
-    @Transactional
     public ResponseEntity<MainTicketResponse> createTicket(@Valid @RequestBody MainTicketRequest request) {
+        // Auto-generate ticket number, before the create's transaction takes its connection
+        String ticketNumber = ticketNumberAllocator.nextTicketNumber();
+
+        return ResponseEntity.ok(conflictRetry.once("main-ticket.create", () -> createTicket(request, ticketNumber)));
+    }
+
+    private MainTicketResponse createTicket(MainTicketRequest request, String ticketNumber) {
         // Get current authenticated user
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
@@ -89,19 +172,7 @@ public class AdminTicketController {
             .orElseThrow(() -> new ResourceNotFoundException("Generator not found"));
 
         // Validate employees exist and are EMPLOYEE role
-        List<User> employees = new ArrayList<>();
-        for (Long employeeId : request.getEmployeeIds()) {
-            User employee = userRepository.findById(employeeId)
-                .orElseThrow(() -> new ResourceNotFoundException("Employee not found with ID: " + employeeId));
-
-            if (employee.getRole() != Role.EMPLOYEE) {
-                throw new IllegalArgumentException("User with ID " + employeeId + " is not an employee");
-            }
-            employees.add(employee);
-        }
-
-        // Auto-generate ticket number
-        String ticketNumber = generateTicketNumber();
+        List<User> employees = resolveEmployees(request.getEmployeeIds());
 
         // Create main ticket
         MainTicket ticket = MainTicket.builder()
@@ -119,93 +190,99 @@ public class AdminTicketController {
         MainTicket savedTicket = ticketRepository.save(ticket);
 
         // Create sub-tickets for each assigned employee
-        int subTicketCounter = 1;
-        for (User employee : employees) {
-            String subTicketNumber = ticketNumber + "-" + String.format("%02d", subTicketCounter++);
-
-            SubTicket subTicket = SubTicket.builder()
-                .ticketNumber(subTicketNumber)
-                .mainTicket(savedTicket)
-                .employee(employee)
-                .status(TicketStatus.ASSIGNED)
-                .build();
-
-            subTicketRepository.save(subTicket);
-        }
+        subTicketRepository.saveAll(buildSubTickets(savedTicket, employees));
 
-        return ResponseEntity.ok(toResponse(savedTicket));
-    }
-
-    /**
-     * Generate unique ticket number in format: TKT-YYYYMMDD-XXXX
-     */
-    private String generateTicketNumber() {
-        String datePrefix = "TKT-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
-
-        Integer maxNumber = ticketRepository.findMaxTicketNumberForPrefix(datePrefix);
-        int nextNumber = (maxNumber != null ? maxNumber : 0) + 1;
-
-        return datePrefix + String.format("%04d", nextNumber);
+        return toResponse(savedTicket);
     }
 
     @PutMapping("/{id}")
-    @Transactional
     public ResponseEntity<MainTicketResponse> updateTicket(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody MainTicketRequest request) {
-        MainTicket ticket = ticketRepository.findByIdWithDetails(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+        Long expectedVersion = ConflictRetry.expectedVersion(request.getVersion(), ifMatch);
+
+        // A full replacement is made from the version the client read: a changed ticket is a 409, never retried
+        return ResponseEntity.ok(conflictRetry.once("main-ticket.update", () -> {
+            MainTicket ticket = ticketRepository.findByIdWithDetails(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+            conflictRetry.checkVersion("main-ticket.update", expectedVersion, ticket.getVersion());
+
+            // Get generator
+            Generator generator = generatorRepository.findById(request.getGeneratorId())
+                .orElseThrow(() -> new ResourceNotFoundException("Generator not found"));
+
+            // Update basic fields
+            ticket.setGenerator(generator);
+            ticket.setTitle(request.getTitle());
+            ticket.setDescription(request.getDescription());
+            ticket.setWeight(request.getWeight());
+            ticket.setScheduledDate(request.getScheduledDate());
+            ticket.setScheduledTime(request.getScheduledTime());
+
+            // Handle employee reassignments if provided
+            if (request.getEmployeeIds() != null && !request.getEmployeeIds().isEmpty()) {
+                // Validate employees
+                List<User> employees = resolveEmployees(request.getEmployeeIds());
+
+                // Replace existing sub-tickets: one bulk delete, then one batched insert
+                employeeScoreService.removeTicketScores(id);
+                subTicketRepository.deleteByMainTicketId(id);
+                subTicketRepository.saveAll(buildSubTickets(ticket, employees));
+
+                ticket.setStatus(TicketStatus.ASSIGNED);
+            }
 
-        // Get generator
-        Generator generator = generatorRepository.findById(request.getGeneratorId())
-            .orElseThrow(() -> new ResourceNotFoundException("Generator not found"));
+            return toResponse(ticketRepository.saveAndFlush(ticket));
+        }));
+    }
 
-        // Update basic fields
-        ticket.setGenerator(generator);
-        ticket.setTitle(request.getTitle());
-        ticket.setDescription(request.getDescription());
-        ticket.setWeight(request.getWeight());
-        ticket.setScheduledDate(request.getScheduledDate());
-        ticket.setScheduledTime(request.getScheduledTime());
-
-        // Handle employee reassignments if provided
-        if (request.getEmployeeIds() != null && !request.getEmployeeIds().isEmpty()) {
-            // Validate employees
-            List<User> employees = new ArrayList<>();
-            for (Long employeeId : request.getEmployeeIds()) {
-                User employee = userRepository.findById(employeeId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Employee not found with ID: " + employeeId));
-
-                if (employee.getRole() != Role.EMPLOYEE) {
-                    throw new IllegalArgumentException("User with ID " + employeeId + " is not an employee");
-                }
+    /**
+     * Load all requested employees in one query, in request order.
+     * Reports every missing or non-employee ID together instead of failing on the first.
+     */
+    private List<User> resolveEmployees(List<Long> employeeIds) {
+        Map<Long, User> usersById = userRepository.findAllById(employeeIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<User> employees = new ArrayList<>(employeeIds.size());
+        List<Long> missingIds = new ArrayList<>();
+        List<Long> nonEmployeeIds = new ArrayList<>();
+
+        for (Long employeeId : employeeIds) {
+            User employee = usersById.get(employeeId);
+            if (employee == null) {
+                missingIds.add(employeeId);
+            } else if (employee.getRole() != Role.EMPLOYEE) {
+                nonEmployeeIds.add(employeeId);
+            } else {
                 employees.add(employee);
             }
+        }
 
-            // Delete existing sub-tickets
-            List<SubTicket> existingSubTickets = subTicketRepository.findByMainTicketId(id);
-            subTicketRepository.deleteAll(existingSubTickets);
-
-            // Create new sub-tickets
-            int subTicketCounter = 1;
-            for (User employee : employees) {
-                String subTicketNumber = ticket.getTicketNumber() + "-" + String.format("%02d", subTicketCounter++);
-
-                SubTicket subTicket = SubTicket.builder()
-                    .ticketNumber(subTicketNumber)
-                    .mainTicket(ticket)
-                    .employee(employee)
-                    .status(TicketStatus.ASSIGNED)
-                    .build();
+        if (!missingIds.isEmpty() || !nonEmployeeIds.isEmpty()) {
+            throw new InvalidAssignmentException(missingIds, nonEmployeeIds);
+        }
+        return employees;
+    }
 
-                subTicketRepository.save(subTicket);
-            }
+    /**
+     * Build one sub-ticket per employee, numbered TKT-YYYYMMDD-XXXX-NN
+     */
+    private List<SubTicket> buildSubTickets(MainTicket ticket, List<User> employees) {
+        List<SubTicket> subTickets = new ArrayList<>(employees.size());
+        int subTicketCounter = 1;
+        for (User employee : employees) {
+            String subTicketNumber = ticket.getTicketNumber() + "-" + String.format("%02d", subTicketCounter++);
 
-            ticket.setStatus(TicketStatus.ASSIGNED);
+            subTickets.add(SubTicket.builder()
+                .ticketNumber(subTicketNumber)
+                .mainTicket(ticket)
+                .employee(employee)
+                .status(TicketStatus.ASSIGNED)
+                .build());
         }
-
-        MainTicket updatedTicket = ticketRepository.save(ticket);
-        return ResponseEntity.ok(toResponse(updatedTicket));
+        return subTickets;
     }
 
     @DeleteMapping("/{id}")
@@ -214,9 +291,9 @@ public class AdminTicketController {
         MainTicket ticket = ticketRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
-        // Delete associated sub-tickets first
-        List<SubTicket> subTickets = subTicketRepository.findByMainTicketId(id);
-        subTicketRepository.deleteAll(subTickets);
+        // Delete associated scores and sub-tickets first
+        employeeScoreService.removeTicketScores(id);
+        subTicketRepository.deleteByMainTicketId(id);
 
         // Delete main ticket
         ticketRepository.delete(ticket);
@@ -228,24 +305,40 @@ public class AdminTicketController {
     public ResponseEntity<MainTicketResponse> updateTicketStatus(
             @PathVariable Long id,
             @RequestParam TicketStatus status) {
-        MainTicket ticket = ticketRepository.findByIdWithDetails(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+        // Moving to the status the ticket already has changes nothing, so a conflicting write is retried on fresh data
+        return ResponseEntity.ok(conflictRetry.retrying("main-ticket.status", () -> {
+            MainTicket ticket = ticketRepository.findByIdWithDetails(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+
+            // The tables allow no X -> X transition; a repeated request returns the ticket as it is
+            if (ticket.getStatus() == status) {
+                return toResponse(ticket);
+            }
 
-        ticket.setStatus(status);
-        MainTicket updatedTicket = ticketRepository.save(ticket);
+            StatusTransitions.MAIN_TICKET.check(ticket.getStatus(), status);
+            ticket.setStatus(status);
+            return toResponse(ticketRepository.saveAndFlush(ticket));
+        }));
+    }
 
-        return ResponseEntity.ok(toResponse(updatedTicket));
+    /**
+     * Move many tickets to one status in a single statement; tickets whose current status
+     * does not allow the move (or that do not exist) are returned as rejected
+     */
+    @PatchMapping("/status")
+    @Transactional
+    public ResponseEntity<BulkTransition.Result<TicketStatus>> updateTicketStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request) {
+        return ResponseEntity.ok(BulkTransition.apply(StatusTransitions.MAIN_TICKET, request.getIds(),
+            request.getStatus(), BulkTransition.update(jdbcTemplate, "main_tickets")));
     }
 
     private MainTicketResponse toResponse(MainTicket ticket) {
         // Get sub-tickets for this main ticket
-        List<SubTicket> subTickets = subTicketRepository.findByMainTicketId(ticket.getId());
-
-        // Convert to sub-ticket responses
-        List<SubTicketResponse> subTicketResponses = subTickets.stream()
-            .map(this::toSubTicketResponse)
-            .collect(Collectors.toList());
+        return toResponse(MainTicketRow.of(ticket), subTicketRepository.findResponsesByMainTicketId(ticket.getId()));
+    }
 
+    private MainTicketResponse toResponse(MainTicketRow ticket, List<SubTicketResponse> subTickets) {
         // Count completed sub-tickets
         long completedCount = subTickets.stream()
             .filter(st -> st.getStatus() == TicketStatus.COMPLETED || st.getStatus() == TicketStatus.CLOSED)
@@ -254,9 +347,9 @@ public class AdminTicketController {
         return MainTicketResponse.builder()
             .id(ticket.getId())
             .ticketNumber(ticket.getTicketNumber())
-            .generatorId(ticket.getGenerator().getId())
-            .generatorName(ticket.getGenerator().getName())
-            .generatorModel(ticket.getGenerator().getModel())
+            .generatorId(ticket.getGeneratorId())
+            .generatorName(ticket.getGeneratorName())
+            .generatorModel(ticket.getGeneratorModel())
             .title(ticket.getTitle())
             .description(ticket.getDescription())
             .weight(ticket.getWeight())
@@ -264,10 +357,11 @@ public class AdminTicketController {
             .status(ticket.getStatus())
             .scheduledDate(ticket.getScheduledDate())
             .scheduledTime(ticket.getScheduledTime())
-            .createdById(ticket.getCreatedBy().getId())
-            .createdByName(ticket.getCreatedBy().getFullName())
+            .createdById(ticket.getCreatedById())
+            .createdByName(ticket.getCreatedByName())
             .createdAt(ticket.getCreatedAt())
-            .subTickets(subTicketResponses)
+            .version(ticket.getVersion())
+            .subTickets(subTickets)
             .totalAssignments(subTickets.size())
             .completedAssignments((int) completedCount)
             .build();
@@ -299,7 +393,8 @@ public class AdminTicketController {
             .adminReviewNotes(subTicket.getAdminReviewNotes())
             .createdAt(subTicket.getCreatedAt())
             .updatedAt(subTicket.getUpdatedAt())
-            .completedAt(subTicket.getCompletedAt());
+            .completedAt(subTicket.getCompletedAt())
+            .version(subTicket.getVersion());
 
         if (subTicket.getApprovedBy() != null) {
             builder.approvedById(subTicket.getApprovedBy().getId())
@@ -315,68 +410,126 @@ public class AdminTicketController {
      * Approve or reject a sub-ticket and calculate score
      */
     @PostMapping("/sub-tickets/{subTicketId}/approve")
-    @Transactional
     public ResponseEntity<SubTicketResponse> approveSubTicket(
             @PathVariable Long subTicketId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ApprovalRequest request) {
+        Long expectedVersion = ConflictRetry.expectedVersion(request.getVersion(), ifMatch);
+
+        // The decision is about the version the admin reviewed: a changed sub-ticket is a 409, never retried
+        return ResponseEntity.ok(conflictRetry.once("sub-ticket.review", () -> {
+            SubTicket subTicket = subTicketRepository.findByIdWithDetails(subTicketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Sub-ticket not found"));
+            conflictRetry.checkVersion("sub-ticket.review", expectedVersion, subTicket.getVersion());
+
+            // Only completed work can be reviewed
+            StatusTransitions.SUB_TICKET.check(subTicket.getStatus(),
+                request.getApproved() ? TicketStatus.APPROVED : TicketStatus.REJECTED);
+
+            // Get current admin user
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+            User admin = userRepository.findById(userPrincipal.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
+
+            if (request.getApproved()) {
+                // Approve the work
+                subTicket.setStatus(TicketStatus.APPROVED);
+                subTicket.setApproved(true);
+
+                // Set scoring factors (default to 1.0 if not provided)
+                double completionFactor = request.getCompletionFactor() != null ? request.getCompletionFactor() : 1.0;
+                double qualityFactor = request.getQualityFactor() != null ? request.getQualityFactor() : 1.0;
+
+                subTicket.setCompletionFactor(completionFactor);
+                subTicket.setQualityFactor(qualityFactor);
+
+                // Calculate score: weight × completionFactor × qualityFactor
+                Integer weight = subTicket.getMainTicket().getWeight();
+                double score = SubTicketReviewService.score(weight, completionFactor, qualityFactor);
+                subTicket.setScore(score);
+
+            } else {
+                // Reject the work
+                subTicket.setStatus(TicketStatus.REJECTED);
+                subTicket.setApproved(false);
+            }
 
-        SubTicket subTicket = subTicketRepository.findByIdWithDetails(subTicketId)
-            .orElseThrow(() -> new ResourceNotFoundException("Sub-ticket not found"));
-
-        // Verify sub-ticket is completed
-        if (subTicket.getStatus() != TicketStatus.COMPLETED && subTicket.getStatus() != TicketStatus.PENDING_APPROVAL) {
-            throw new IllegalArgumentException("Sub-ticket must be completed before approval");
-        }
-
-        // Get current admin user
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
-        User admin = userRepository.findById(userPrincipal.getId())
-            .orElseThrow(() -> new ResourceNotFoundException("Admin user not found"));
-
-        if (request.getApproved()) {
-            // Approve the work
-            subTicket.setStatus(TicketStatus.APPROVED);
-            subTicket.setApproved(true);
-
-            // Set scoring factors (default to 1.0 if not provided)
-            double completionFactor = request.getCompletionFactor() != null ? request.getCompletionFactor() : 1.0;
-            double qualityFactor = request.getQualityFactor() != null ? request.getQualityFactor() : 1.0;
-
-            subTicket.setCompletionFactor(completionFactor);
-            subTicket.setQualityFactor(qualityFactor);
+            subTicket.setApprovedBy(admin);
+            subTicket.setApprovedAt(LocalDateTime.now());
+            subTicket.setAdminReviewNotes(request.getAdminReviewNotes());
 
-            // Calculate score: weight × completionFactor × qualityFactor
-            Integer weight = subTicket.getMainTicket().getWeight();
-            double score = weight * completionFactor * qualityFactor;
-            subTicket.setScore(score);
+            SubTicket savedSubTicket = subTicketRepository.saveAndFlush(subTicket);
 
-        } else {
-            // Reject the work
-            subTicket.setStatus(TicketStatus.REJECTED);
-            subTicket.setApproved(false);
-        }
+            if (request.getApproved()) {
+                employeeScoreService.recordApprovals(List.of(new ApprovedScore(
+                    subTicket.getEmployee().getId(), subTicket.getEmployee().getFullName(),
+                    subTicket.getMainTicket().getId(), subTicket.getId(), subTicket.getMainTicket().getWeight(),
+                    subTicket.getScore(), admin.getId(), subTicket.getApprovedAt())));
+            }
 
-        subTicket.setApprovedBy(admin);
-        subTicket.setApprovedAt(LocalDateTime.now());
-        subTicket.setAdminReviewNotes(request.getAdminReviewNotes());
+            return toSubTicketResponse(savedSubTicket);
+        }));
+    }
 
-        SubTicket savedSubTicket = subTicketRepository.save(subTicket);
+    /**
+     * Approve or reject many sub-tickets in one call; each item succeeds or fails on its own
+     */
+    @PostMapping("/sub-tickets/approve")
+    public ResponseEntity<BulkApprovalResponse> approveSubTickets(@Valid @RequestBody BulkApprovalRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
-        return ResponseEntity.ok(toSubTicketResponse(savedSubTicket));
+        return ResponseEntity.ok(subTicketReviewService.reviewAll(userPrincipal.getId(), request.getItems()));
     }
 
     /**
      * Get all sub-tickets pending approval
      */
     @GetMapping("/sub-tickets/pending-approval")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<SubTicketResponse>> getPendingApprovals() {
-        List<SubTicket> pendingTickets = subTicketRepository.findByStatus(TicketStatus.COMPLETED);
+        return ResponseEntity.ok(subTicketRepository.findResponsesByStatus(TicketStatus.COMPLETED));
+    }
 
-        List<SubTicketResponse> response = pendingTickets.stream()
-            .map(this::toSubTicketResponse)
-            .collect(Collectors.toList());
+    /**
+     * Keyset-paginated sub-tickets pending approval, optionally filtered by completion date
+     */
+    @GetMapping("/sub-tickets/pending-approval/cursor")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<SubTicketResponse>> getPendingApprovalsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        List<SubTicketResponse> pendingTickets = subTicketRepository.findPageByStatusAfter(
+            TicketStatus.COMPLETED, startOf(from), startOfNextDay(to),
+            cursorPaging.afterId(cursor), cursorPaging.request(size));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok(cursorPaging.page(pendingTickets, size, SubTicketResponse::getId, Function.identity()));
+    }
+
+    /**
+     * Stream every sub-ticket pending approval as one JSON array, for bulk consumers
+     */
+    @GetMapping(value = "/sub-tickets/pending-approval/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamPendingApprovals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(jsonArrayStreamer.stream(
+                () -> subTicketRepository.streamByStatus(TicketStatus.COMPLETED, startOf(from), startOfNextDay(to)),
+                Function.identity()));
+    }
+
+    private LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
+
+    private LocalDateTime startOfNextDay(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
     }
 }
@@ -1,12 +1,17 @@
 package com.gms.controller.admin;
 
 import com.gms.dto.request.UserRequest;
+import com.gms.dto.response.CursorPage;
 import com.gms.entity.User;
 import com.gms.enums.Role;
+import com.gms.event.UserChangedEvent;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.UserRepository;
+import com.gms.security.TokenRevocationService;
+import com.gms.util.CursorPaging;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,13 +20,19 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+import java.util.function.Function;
+
 @RestController
 @RequestMapping("/api/admin/users")
 @RequiredArgsConstructor
 public class AdminUserController {
     
     private final UserRepository userRepository;
+    private final CursorPaging cursorPaging;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     @GetMapping
     public ResponseEntity<Page<User>> getAllUsers(
@@ -41,6 +52,27 @@ public class AdminUserController {
         return ResponseEntity.ok(users);
     }
     
+    /**
+     * Keyset-paginated listing: pass the returned nextCursor to get the next page
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<User>> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) Role role
+    ) {
+        long afterId = cursorPaging.afterId(cursor);
+        List<User> users;
+        
+        if (role != null) {
+            users = userRepository.findByRoleAndIdLessThanOrderByIdDesc(role, afterId, cursorPaging.request(size));
+        } else {
+            users = userRepository.findByIdLessThanOrderByIdDesc(afterId, cursorPaging.request(size));
+        }
+        
+        return ResponseEntity.ok(cursorPaging.page(users, size, User::getId, Function.identity()));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<User> getUserById(@PathVariable Long id) {
         User user = userRepository.findById(id)
@@ -82,9 +114,13 @@ public class AdminUserController {
         
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            tokenRevocationService.revokeTokens(user);
         }
         
-        return ResponseEntity.ok(userRepository.save(user));
+        User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+        
+        return ResponseEntity.ok(updatedUser);
     }
     
     @DeleteMapping("/{id}")
@@ -93,7 +129,9 @@ public class AdminUserController {
             .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         
         user.setActive(false);
+        tokenRevocationService.revokeTokens(user);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
         
         return ResponseEntity.ok().build();
     }
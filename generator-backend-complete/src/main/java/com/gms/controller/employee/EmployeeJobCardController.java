@@ -1,19 +1,28 @@
 package com.gms.controller.employee;
 
 import com.gms.dto.request.StatusUpdateRequest;
+import com.gms.dto.response.CursorPage;
 import com.gms.dto.response.JobCardResponse;
+import com.gms.enums.ImageSize;
 import com.gms.enums.JobStatus;
 import com.gms.security.UserPrincipal;
+import com.gms.service.JobCardImageService;
 import com.gms.service.JobCardService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
 
 @RestController
 @RequestMapping("/api/employee/job-cards")
@@ -21,6 +30,7 @@ import org.springframework.web.bind.annotation.*;
 public class EmployeeJobCardController {
     
     private final JobCardService jobCardService;
+    private final JobCardImageService jobCardImageService;
     
     @GetMapping
     public ResponseEntity<Page<JobCardResponse>> getMyJobCards(
@@ -35,6 +45,21 @@ public class EmployeeJobCardController {
         );
     }
     
+    /**
+     * Keyset-paginated listing: pass the returned nextCursor to get the next page
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<JobCardResponse>> getMyJobCardsByCursor(
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) JobStatus status
+    ) {
+        return ResponseEntity.ok(
+            jobCardService.getEmployeeJobCardsByCursor(userPrincipal.getId(), status, cursor, size)
+        );
+    }
+    
     @PostMapping("/{id}/status")
     public ResponseEntity<JobCardResponse> updateStatus(
             @PathVariable Long id,
@@ -45,4 +70,32 @@ public class EmployeeJobCardController {
             jobCardService.updateStatus(id, userPrincipal.getId(), request)
         );
     }
+    
+    /**
+     * Upload (or replace) the job card photo as multipart field "file"
+     */
+    @PostMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<JobCardResponse> uploadImage(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam("file") MultipartFile file
+    ) throws IOException {
+        jobCardImageService.upload(id, userPrincipal.getId(), file);
+        return ResponseEntity.ok(jobCardService.getEmployeeJobCard(id, userPrincipal.getId()));
+    }
+    
+    /**
+     * Download the job card photo or one of its thumbnails; supports single byte ranges
+     */
+    @GetMapping("/{id}/image")
+    public void downloadImage(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal userPrincipal,
+            @RequestParam(defaultValue = "ORIGINAL") ImageSize size,
+            @RequestParam(name = "v", required = false) String version,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        jobCardImageService.download(id, userPrincipal.getId(), size, version, request, response);
+    }
 }
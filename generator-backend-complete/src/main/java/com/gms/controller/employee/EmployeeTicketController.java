@@ -1,20 +1,31 @@
 package com.gms.controller.employee;
 
+import com.gms.dto.response.CursorPage;
 import com.gms.dto.response.SubTicketResponse;
 import com.gms.entity.SubTicket;
 import com.gms.enums.TicketStatus;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.SubTicketRepository;
 import com.gms.security.UserPrincipal;
+import com.gms.service.ConflictRetry;
+import com.gms.statemachine.StatusTransitions;
+import com.gms.util.CursorPaging;
+import com.gms.util.JsonArrayStreamer;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/employee/tickets")
@@ -22,37 +33,71 @@ import java.util.stream.Collectors;
 public class EmployeeTicketController {
 
     private final SubTicketRepository subTicketRepository;
+    private final CursorPaging cursorPaging;
+    private final JsonArrayStreamer jsonArrayStreamer;
+    private final ConflictRetry conflictRetry;
 
     /**
      * Get all tickets assigned to the current employee
      */
     @GetMapping
+    @Transactional(readOnly = true)
     public ResponseEntity<List<SubTicketResponse>> getMyTickets() {
-        Long employeeId = getCurrentUserId();
-        List<SubTicket> subTickets = subTicketRepository.findByEmployeeId(employeeId);
+        return ResponseEntity.ok(subTicketRepository.findResponsesByEmployeeId(getCurrentUserId()));
+    }
 
-        List<SubTicketResponse> response = subTickets.stream()
-            .map(this::toResponse)
-            .collect(Collectors.toList());
+    /**
+     * Keyset-paginated tickets of the current employee, optionally filtered by status and creation date
+     */
+    @GetMapping("/cursor")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CursorPage<SubTicketResponse>> getMyTicketsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        List<SubTicketResponse> subTickets = subTicketRepository.findPageByEmployeeIdAfter(
+            getCurrentUserId(), status, startOf(from), startOfNextDay(to),
+            cursorPaging.afterId(cursor), cursorPaging.request(size));
+
+        return ResponseEntity.ok(cursorPaging.page(subTickets, size, SubTicketResponse::getId, Function.identity()));
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * Stream all matching tickets of the current employee as one JSON array, without paging
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamMyTickets(
+            @RequestParam(required = false) TicketStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        Long employeeId = getCurrentUserId();
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(jsonArrayStreamer.stream(
+                () -> subTicketRepository.streamByEmployeeId(employeeId, status, startOf(from), startOfNextDay(to)),
+                Function.identity()));
     }
 
     /**
      * Get a specific sub-ticket by ID (only if assigned to current employee)
      */
     @GetMapping("/{id}")
+    @Transactional(readOnly = true)
     public ResponseEntity<SubTicketResponse> getTicketById(@PathVariable Long id) {
         Long employeeId = getCurrentUserId();
-        SubTicket subTicket = subTicketRepository.findByIdWithDetails(id)
+        SubTicketResponse subTicket = subTicketRepository.findResponseById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
         // Verify the ticket is assigned to the current employee
-        if (!subTicket.getEmployee().getId().equals(employeeId)) {
+        if (!subTicket.getEmployeeId().equals(employeeId)) {
             throw new IllegalArgumentException("You are not authorized to view this ticket");
         }
 
-        return ResponseEntity.ok(toResponse(subTicket));
+        return ResponseEntity.ok(subTicket);
     }
 
     /**
@@ -69,52 +114,70 @@ public class EmployeeTicketController {
         }
 
         Long employeeId = getCurrentUserId();
-        SubTicket subTicket = subTicketRepository.findByIdWithDetails(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
-        // Verify the ticket is assigned to the current employee
-        if (!subTicket.getEmployee().getId().equals(employeeId)) {
-            throw new IllegalArgumentException("You are not authorized to update this ticket");
-        }
+        // Setting the status the ticket already has changes nothing, so a conflicting write is retried on fresh data
+        return ResponseEntity.ok(conflictRetry.retrying("sub-ticket.status", () -> {
+            SubTicket subTicket = subTicketRepository.findByIdWithDetails(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
 
-        // Prevent changing status if already approved or rejected
-        if (subTicket.getStatus() == TicketStatus.APPROVED || subTicket.getStatus() == TicketStatus.REJECTED) {
-            throw new IllegalArgumentException("Cannot change status of approved or rejected tickets");
-        }
+            // Verify the ticket is assigned to the current employee
+            if (!subTicket.getEmployee().getId().equals(employeeId)) {
+                throw new IllegalArgumentException("You are not authorized to update this ticket");
+            }
 
-        subTicket.setStatus(status);
+            // A repeated request (e.g. a retried "mark completed") returns the ticket as it is
+            if (subTicket.getStatus() == status) {
+                return toResponse(subTicket);
+            }
 
-        // Set completedAt timestamp when marking as COMPLETED
-        if (status == TicketStatus.COMPLETED) {
-            subTicket.setCompletedAt(LocalDateTime.now());
-        }
+            // Approved and rejected work is final
+            StatusTransitions.SUB_TICKET.check(subTicket.getStatus(), status);
 
-        SubTicket updatedTicket = subTicketRepository.save(subTicket);
+            subTicket.setStatus(status);
 
-        return ResponseEntity.ok(toResponse(updatedTicket));
+            // Set completedAt timestamp when marking as COMPLETED
+            if (status == TicketStatus.COMPLETED) {
+                subTicket.setCompletedAt(LocalDateTime.now());
+            }
+
+            return toResponse(subTicketRepository.saveAndFlush(subTicket));
+        }));
     }
 
     /**
-     * Add or update notes for a sub-ticket
+     * Add or update notes for a sub-ticket; send If-Match with the version the notes were edited from
      */
     @PatchMapping("/{id}/notes")
     public ResponseEntity<SubTicketResponse> updateNotes(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody String notes) {
 
         Long employeeId = getCurrentUserId();
-        SubTicket subTicket = subTicketRepository.findByIdWithDetails(id)
-            .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
-
-        // Verify the ticket is assigned to the current employee
-        if (!subTicket.getEmployee().getId().equals(employeeId)) {
-            throw new IllegalArgumentException("You are not authorized to update this ticket");
-        }
+        Long expectedVersion = ConflictRetry.expectedVersion(null, ifMatch);
+
+        // New notes replace whatever the client read: a changed sub-ticket is a 409, never retried
+        return ResponseEntity.ok(conflictRetry.once("sub-ticket.notes", () -> {
+            SubTicket subTicket = subTicketRepository.findByIdWithDetails(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found"));
+
+            // Verify the ticket is assigned to the current employee
+            if (!subTicket.getEmployee().getId().equals(employeeId)) {
+                throw new IllegalArgumentException("You are not authorized to update this ticket");
+            }
+
+            conflictRetry.checkVersion("sub-ticket.notes", expectedVersion, subTicket.getVersion());
+            subTicket.setNotes(notes);
+            return toResponse(subTicketRepository.saveAndFlush(subTicket));
+        }));
+    }
 
-        subTicket.setNotes(notes);
-        SubTicket updatedTicket = subTicketRepository.save(subTicket);
+    private LocalDateTime startOf(LocalDate date) {
+        return date != null ? date.atStartOfDay() : null;
+    }
 
-        return ResponseEntity.ok(toResponse(updatedTicket));
+    private LocalDateTime startOfNextDay(LocalDate date) {
+        return date != null ? date.plusDays(1).atStartOfDay() : null;
     }
 
     private Long getCurrentUserId() {
@@ -142,7 +205,8 @@ public class EmployeeTicketController {
             .adminReviewNotes(subTicket.getAdminReviewNotes())
             .createdAt(subTicket.getCreatedAt())
             .updatedAt(subTicket.getUpdatedAt())
-            .completedAt(subTicket.getCompletedAt());
+            .completedAt(subTicket.getCompletedAt())
+            .version(subTicket.getVersion());
 
         if (subTicket.getApprovedBy() != null) {
             builder.approvedById(subTicket.getApprovedBy().getId())
@@ -0,0 +1,20 @@
+package com.gms.dto.projection;
+
+import com.gms.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * One employee / day / status total from employee_status_durations
+ */
+@Value
+@AllArgsConstructor
+public class EmployeeStatusDurationRow {
+    Long employeeId;
+    String employeeName;
+    LocalDate dayDate;
+    JobStatus status;
+    Long totalSeconds;
+}
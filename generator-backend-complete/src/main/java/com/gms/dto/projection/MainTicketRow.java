@@ -0,0 +1,56 @@
+package com.gms.dto.projection;
+
+import com.gms.entity.MainTicket;
+import com.gms.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * The main ticket columns a MainTicketResponse needs, selected by JPQL constructor
+ * expression instead of loading MainTicket, Generator and User entities.
+ */
+@Value
+@AllArgsConstructor
+public class MainTicketRow {
+    Long id;
+    String ticketNumber;
+    Long generatorId;
+    String generatorName;
+    String generatorModel;
+    String title;
+    String description;
+    Integer weight;
+    TicketStatus status;
+    LocalDate scheduledDate;
+    LocalTime scheduledTime;
+    Long createdById;
+    String createdByName;
+    LocalDateTime createdAt;
+    Long version;
+
+    /**
+     * Same row taken from an already loaded entity, for the write endpoints
+     */
+    public static MainTicketRow of(MainTicket ticket) {
+        return new MainTicketRow(
+            ticket.getId(),
+            ticket.getTicketNumber(),
+            ticket.getGenerator().getId(),
+            ticket.getGenerator().getName(),
+            ticket.getGenerator().getModel(),
+            ticket.getTitle(),
+            ticket.getDescription(),
+            ticket.getWeight(),
+            ticket.getStatus(),
+            ticket.getScheduledDate(),
+            ticket.getScheduledTime(),
+            ticket.getCreatedBy().getId(),
+            ticket.getCreatedBy().getFullName(),
+            ticket.getCreatedAt(),
+            ticket.getVersion());
+    }
+}
@@ -0,0 +1,22 @@
+package com.gms.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * One employee's month from payroll_summaries, as exported for payroll
+ */
+@Value
+@AllArgsConstructor
+public class PayrollSummaryRow {
+    Long employeeId;
+    String employeeName;
+    LocalDate periodStart;
+    Integer daysWorked;
+    Long totalWorkMinutes;
+    Long morningOtMinutes;
+    Long eveningOtMinutes;
+    Integer autoClosedDays;
+}
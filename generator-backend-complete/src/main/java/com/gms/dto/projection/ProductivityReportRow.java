@@ -0,0 +1,25 @@
+package com.gms.dto.projection;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * One employee's totals over a report range: attendance, overtime, job cards and approved work
+ */
+@Value
+@AllArgsConstructor
+public class ProductivityReportRow {
+    Long employeeId;
+    String employeeName;
+    Integer daysWorked;
+    Long workMinutes;
+    Long morningOtMinutes;
+    Long eveningOtMinutes;
+    Integer jobsAssigned;
+    Integer jobsCompleted;
+    Long jobWorkMinutes;
+    Integer approvedTickets;
+    BigDecimal totalScore;
+}
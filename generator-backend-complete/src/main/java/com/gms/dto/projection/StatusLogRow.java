@@ -0,0 +1,26 @@
+package com.gms.dto.projection;
+
+import com.gms.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One job card status change from job_status_logs
+ */
+@Value
+@AllArgsConstructor
+public class StatusLogRow {
+    Long id;
+    Long jobCardId;
+    String generator;
+    String employeeEmail;
+    JobStatus passStatus;
+    JobStatus newStatus;
+    BigDecimal latitude;
+    BigDecimal longitude;
+    LocalDateTime loggedAt;
+    Long updatedById;
+}
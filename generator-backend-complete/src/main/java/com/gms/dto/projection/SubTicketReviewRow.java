@@ -0,0 +1,21 @@
+package com.gms.dto.projection;
+
+import com.gms.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * What reviewing a sub-ticket needs to know: its current status and version, the ticket weight
+ * for scoring and who the score is recorded for
+ */
+@Value
+@AllArgsConstructor
+public class SubTicketReviewRow {
+    Long id;
+    TicketStatus status;
+    Long version;
+    Long mainTicketId;
+    Integer weight;
+    Long employeeId;
+    String employeeName;
+}
@@ -20,4 +20,7 @@ public class ApprovalRequest {
     private Double qualityFactor; // 0.0 to 1.0
 
     private String adminReviewNotes;
+
+    // Version of the sub-ticket the decision was made on
+    private Long version;
 }
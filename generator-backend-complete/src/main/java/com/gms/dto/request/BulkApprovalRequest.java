@@ -0,0 +1,29 @@
+package com.gms.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+@Data
+public class BulkApprovalRequest {
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 500, message = "At most 500 items per request")
+    private List<@Valid Item> items;
+
+    /**
+     * One sub-ticket decision, with the same fields as a single approval
+     */
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Item extends ApprovalRequest {
+
+        @NotNull(message = "Sub-ticket id is required")
+        private Long subTicketId;
+    }
+}
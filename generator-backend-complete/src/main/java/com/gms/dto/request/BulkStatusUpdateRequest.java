@@ -0,0 +1,19 @@
+package com.gms.dto.request;
+
+import com.gms.enums.TicketStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkStatusUpdateRequest {
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = 1000, message = "At most 1000 ids per request")
+    private List<Long> ids;
+    
+    @NotNull(message = "Status is required")
+    private TicketStatus status;
+}
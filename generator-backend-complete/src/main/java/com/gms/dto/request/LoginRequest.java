@@ -10,4 +10,7 @@ public class LoginRequest {
     
     @NotBlank(message = "Password is required")
     private String password;
+    
+    // Optional; one active refresh token is kept per user and device
+    private String deviceId;
 }
@@ -40,4 +40,7 @@ public class MainTicketRequest {
     @NotNull(message = "At least one employee must be assigned")
     @Size(min = 1, max = 5, message = "Must assign between 1 and 5 employees")
     private List<Long> employeeIds;
+
+    // Version of the ticket the edit was made from; ignored on create
+    private Long version;
 }
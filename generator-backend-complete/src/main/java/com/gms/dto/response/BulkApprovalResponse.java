@@ -0,0 +1,31 @@
+package com.gms.dto.response;
+
+import com.gms.enums.TicketStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+public class BulkApprovalResponse {
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    /**
+     * Outcome for one sub-ticket, in request order; error is set only when it failed
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    public static class ItemResult {
+        private Long subTicketId;
+        private boolean success;
+        private TicketStatus status;
+        private Double score;
+        private String error;
+    }
+}
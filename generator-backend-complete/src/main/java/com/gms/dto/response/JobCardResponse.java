@@ -19,6 +19,7 @@ public class JobCardResponse {
     private LocalDateTime endTime;
     private Integer workMinutes;
     private Boolean approved;
-    private String image;
+    private String imageUrl; // null when the card has no photo
+    private String thumbnailUrl;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,20 @@
+package com.gms.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Also built directly by a JPQL constructor expression in EmployeeScoreAggregateRepository
+ * (rank 0 there; the leaderboard numbers the rows it returns)
+ */
+@Data
+@AllArgsConstructor
+public class LeaderboardEntry {
+    private int rank;
+    private Long employeeId;
+    private String employeeName;
+    private BigDecimal totalScore;
+    private Integer approvedCount;
+}
@@ -27,6 +27,7 @@ public class MainTicketResponse {
     private Long createdById;
     private String createdByName;
     private LocalDateTime createdAt;
+    private Long version; // send back on update to detect edits made since this read
     private List<SubTicketResponse> subTickets;
     private Integer totalAssignments;
     private Integer completedAssignments;
@@ -1,13 +1,21 @@
 package com.gms.dto.response;
 
 import com.gms.enums.TicketStatus;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * Also built directly by JPQL constructor expressions in SubTicketRepository,
+ * so the field order here is the constructor's argument order.
+ */
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class SubTicketResponse {
     private Long id;
     private String ticketNumber;
@@ -36,4 +44,7 @@ public class SubTicketResponse {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private LocalDateTime completedAt;
+
+    // Send back on notes updates and reviews to detect changes made since this read
+    private Long version;
 }
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Table(name = "employee_day_logs",
     uniqueConstraints = @UniqueConstraint(columnNames = {"employee_id", "day_date"}),
     indexes = {
-        @Index(name = "idx_daylog_employee", columnList = "employee_id, day_date")
+        @Index(name = "idx_daylog_employee", columnList = "employee_id, day_date"),
+        @Index(name = "idx_daylog_day", columnList = "day_date, id")
     })
 @Data
 @Builder
@@ -53,6 +54,11 @@ public class EmployeeDayLog {
     @Builder.Default
     private Integer totalWorkMinutes = 0;
     
+    // Set when the payroll batch ended a day the employee left open
+    @Column(name = "auto_closed", nullable = false, columnDefinition = "boolean default false")
+    @Builder.Default
+    private Boolean autoClosed = false;
+    
     @Version
     private Long version;
 }
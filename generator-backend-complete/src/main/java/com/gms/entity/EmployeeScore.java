@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "employee_scores", indexes = {
     @Index(name = "idx_score_employee", columnList = "employee_id"),
-    @Index(name = "idx_score_ticket", columnList = "main_ticket_id")
+    @Index(name = "idx_score_ticket", columnList = "main_ticket_id"),
+    @Index(name = "idx_score_approved_at", columnList = "approved_at")
+}, uniqueConstraints = {
+    // One score per approved sub-ticket; approval is final
+    @UniqueConstraint(name = "uk_score_sub_ticket", columnNames = "sub_ticket_id")
 })
 @Data
 @Builder
@@ -36,6 +40,10 @@ public class EmployeeScore {
     @JoinColumn(name = "main_ticket_id", nullable = false)
     private MainTicket mainTicket;
     
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sub_ticket_id")
+    private SubTicket subTicket;
+    
     @NotNull
     @Column(nullable = false, length = 10)
     private String weight;
@@ -0,0 +1,55 @@
+package com.gms.entity;
+
+import com.gms.enums.ScorePeriod;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Running score total of one employee for one day, week or month.
+ * Bumped in the approval's transaction, so it always matches employee_scores.
+ */
+@Entity
+@Table(name = "employee_score_aggregates", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_score_aggregate", columnNames = {"employee_id", "period", "period_start"})
+}, indexes = {
+    @Index(name = "idx_score_aggregate_period", columnList = "period, period_start")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeScoreAggregate {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private User employee;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private ScorePeriod period;
+    
+    @NotNull
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+    
+    @NotNull
+    @Column(name = "total_score", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalScore;
+    
+    @NotNull
+    @Column(name = "approved_count", nullable = false)
+    private Integer approvedCount;
+}
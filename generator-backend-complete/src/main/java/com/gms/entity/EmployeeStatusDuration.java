@@ -0,0 +1,50 @@
+package com.gms.entity;
+
+import com.gms.enums.JobStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Time an employee's job cards spent in one status on one day.
+ * Intervals crossing midnight are split between the days they cover.
+ */
+@Entity
+@Table(name = "employee_status_durations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_status_duration_employee_day", columnNames = {"employee_id", "day_date", "status"})
+}, indexes = {
+    @Index(name = "idx_status_duration_day", columnList = "day_date")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeStatusDuration {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private User employee;
+    
+    @NotNull
+    @Column(name = "day_date", nullable = false)
+    private LocalDate dayDate;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+    
+    @NotNull
+    @Column(name = "total_seconds", nullable = false)
+    private Long totalSeconds;
+}
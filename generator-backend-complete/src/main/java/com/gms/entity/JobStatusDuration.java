@@ -0,0 +1,41 @@
+package com.gms.entity;
+
+import com.gms.enums.JobStatus;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Total time a job card has spent in one status, summed from its status transitions
+ */
+@Entity
+@Table(name = "job_status_durations", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_status_duration_card", columnNames = {"mini_job_card_id", "status"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobStatusDuration {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "mini_job_card_id", nullable = false)
+    private MiniJobCard miniJobCard;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobStatus status;
+    
+    @NotNull
+    @Column(name = "total_seconds", nullable = false)
+    private Long totalSeconds;
+}
@@ -13,8 +13,9 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+// Range-partitioned by month on logged_at (see StatusLogPartitionManager); the primary key is (id, logged_at)
 @Table(name = "job_status_logs", indexes = {
-    @Index(name = "idx_statuslog_jobcard", columnList = "mini_job_card_id"),
+    @Index(name = "idx_statuslog_jobcard_logged", columnList = "mini_job_card_id, logged_at"),
     @Index(name = "idx_statuslog_logged_at", columnList = "logged_at")
 })
 @Data
@@ -23,8 +24,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class JobStatusLog {
     
+    // Shared with the batch writer, which reserves ids from the same sequence in blocks of this size
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "job_status_log_seq")
+    @SequenceGenerator(name = "job_status_log_seq", sequenceName = "job_status_logs_seq",
+                       allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @NotNull
@@ -25,8 +25,10 @@ import java.time.LocalTime;
 @AllArgsConstructor
 public class MainTicket {
     
+    // Sequence ids (pooled by 50) let Hibernate batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "main_ticket_seq")
+    @SequenceGenerator(name = "main_ticket_seq", sequenceName = "main_tickets_seq", allocationSize = 50)
     private Long id;
 
     // Auto-generated by the system
@@ -71,4 +73,9 @@ public class MainTicket {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+    
+    // Optimistic lock; the column default gives rows created before it a starting value
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
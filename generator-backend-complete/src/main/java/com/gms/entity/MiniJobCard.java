@@ -49,6 +49,10 @@ public class MiniJobCard {
     @Column(name = "end_time")
     private LocalDateTime endTime;
     
+    // When the card entered its current status; start of the interval the next transition closes
+    @Column(name = "status_changed_at")
+    private LocalDateTime statusChangedAt;
+    
     @Column(nullable = false)
     @Builder.Default
     private Boolean approved = false;
@@ -57,8 +61,15 @@ public class MiniJobCard {
     @Builder.Default
     private Integer workMinutes = 0;
     
-    @Column(columnDefinition = "TEXT")
-    private String image;
+    // Photo bytes live in the ObjectStore; the row only keeps the reference
+    @Column(name = "image_key", length = 255)
+    private String imageKey;
+    
+    @Column(name = "image_content_type", length = 100)
+    private String imageContentType;
+    
+    @Column(name = "image_size")
+    private Long imageSize;
     
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -0,0 +1,65 @@
+package com.gms.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Worked and overtime minutes of one employee for one month.
+ * Added to by the payroll batch as it closes each day, so an export reads one row per employee.
+ */
+@Entity
+@Table(name = "payroll_summaries", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_payroll_summary", columnNames = {"employee_id", "period_start"})
+}, indexes = {
+    @Index(name = "idx_payroll_summary_period", columnList = "period_start")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "employee_id", nullable = false)
+    private User employee;
+    
+    // First day of the month
+    @NotNull
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+    
+    @NotNull
+    @Column(name = "days_worked", nullable = false)
+    private Integer daysWorked;
+    
+    @NotNull
+    @Column(name = "total_work_minutes", nullable = false)
+    private Long totalWorkMinutes;
+    
+    @NotNull
+    @Column(name = "morning_ot_minutes", nullable = false)
+    private Long morningOtMinutes;
+    
+    @NotNull
+    @Column(name = "evening_ot_minutes", nullable = false)
+    private Long eveningOtMinutes;
+    
+    @NotNull
+    @Column(name = "auto_closed_days", nullable = false)
+    private Integer autoClosedDays;
+    
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
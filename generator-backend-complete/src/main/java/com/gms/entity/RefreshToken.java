@@ -0,0 +1,83 @@
+package com.gms.entity;
+
+import com.gms.enums.Role;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * One issued refresh token. Only the SHA-256 hash of the token is stored.
+ *
+ * Rows are append-only apart from revokedAt: refreshing revokes the presented
+ * token and appends its successor with the same familyId and parentId pointing
+ * back, so presenting an already rotated token revokes the whole family.
+ * The user fields are a snapshot taken at login, so refreshing never reads users;
+ * tokenVersion ties the snapshot to the user's revocation counter.
+ */
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+    @Index(name = "idx_refresh_token_hash", columnList = "token_hash", unique = true),
+    @Index(name = "idx_refresh_token_user", columnList = "user_id"),
+    @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+    @Index(name = "idx_refresh_token_expires", columnList = "expires_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @NotNull
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(length = 50)
+    private String username;
+
+    @Column(name = "full_name", length = 100)
+    private String fullName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private Role role;
+
+    @Column(name = "token_version")
+    private Integer tokenVersion;
+
+    @NotNull
+    @Column(name = "device_id", nullable = false, length = 100)
+    private String deviceId;
+
+    // Rotation lineage
+    @NotNull
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
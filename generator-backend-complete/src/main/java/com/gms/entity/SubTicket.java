@@ -16,8 +16,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "sub_tickets", indexes = {
     @Index(name = "idx_sub_ticket_main", columnList = "main_ticket_id"),
-    @Index(name = "idx_sub_ticket_employee", columnList = "employee_id"),
-    @Index(name = "idx_sub_ticket_status", columnList = "status")
+    @Index(name = "idx_sub_ticket_employee_status", columnList = "employee_id, status, id"),
+    @Index(name = "idx_sub_ticket_status_id", columnList = "status, id")
 })
 @Data
 @Builder
@@ -25,8 +25,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class SubTicket {
 
+    // Sequence ids (pooled by 50) let Hibernate batch the inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sub_ticket_seq")
+    @SequenceGenerator(name = "sub_ticket_seq", sequenceName = "sub_tickets_seq", allocationSize = 50)
     private Long id;
 
     // Auto-generated by the system
@@ -87,4 +89,9 @@ public class SubTicket {
 
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
+
+    // Optimistic lock, also checked by the bulk review update in SubTicketReviewService
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 }
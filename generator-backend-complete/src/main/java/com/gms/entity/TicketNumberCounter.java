@@ -0,0 +1,27 @@
+package com.gms.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Highest ticket sequence number handed out for one day (TKT-YYYYMMDD-XXXX)
+ */
+@Entity
+@Table(name = "ticket_number_counters")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketNumberCounter {
+
+    // Day part of the ticket number, e.g. 20240115
+    @Id
+    @Column(name = "day_key", length = 8)
+    private String dayKey;
+
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+}
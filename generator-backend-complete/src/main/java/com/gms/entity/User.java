@@ -60,6 +60,8 @@ public class User {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
-    @Column(name = "refresh_token", length = 500)
-    private String refreshToken;
+    // Bumped to revoke every access token issued before the change
+    @Column(name = "token_version")
+    @Builder.Default
+    private Integer tokenVersion = 0;
 }
@@ -0,0 +1,6 @@
+package com.gms.enums;
+
+public enum ExportFormat {
+    CSV,
+    JSON
+}
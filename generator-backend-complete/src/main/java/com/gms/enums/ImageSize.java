@@ -0,0 +1,20 @@
+package com.gms.enums;
+
+public enum ImageSize {
+    ORIGINAL(0),
+    SMALL(160),   // list previews
+    MEDIUM(640);  // approval screen
+
+    private final int maxEdge;
+
+    ImageSize(int maxEdge) {
+        this.maxEdge = maxEdge;
+    }
+
+    /**
+     * Longest edge of the thumbnail in pixels; 0 for the original
+     */
+    public int getMaxEdge() {
+        return maxEdge;
+    }
+}
@@ -1,7 +1,8 @@
 package com.gms.enums;
 
-import java.util.Arrays;
-import java.util.List;
+import com.gms.statemachine.StatusTransitions;
+
+import java.util.Set;
 
 public enum JobStatus {
     PENDING,
@@ -11,17 +12,11 @@ public enum JobStatus {
     COMPLETED,
     CANCEL;
     
-    public List<JobStatus> getAllowedTransitions() {
-        return switch (this) {
-            case PENDING -> Arrays.asList(TRAVELING, CANCEL);
-            case TRAVELING -> Arrays.asList(STARTED, ON_HOLD, CANCEL);
-            case STARTED -> Arrays.asList(ON_HOLD, COMPLETED, CANCEL);
-            case ON_HOLD -> Arrays.asList(STARTED, CANCEL);
-            case COMPLETED, CANCEL -> List.of();
-        };
+    public Set<JobStatus> getAllowedTransitions() {
+        return StatusTransitions.JOB_CARD.targetsOf(this);
     }
     
     public boolean canTransitionTo(JobStatus newStatus) {
-        return getAllowedTransitions().contains(newStatus);
+        return StatusTransitions.JOB_CARD.canTransition(this, newStatus);
     }
 }
@@ -0,0 +1,11 @@
+package com.gms.enums;
+
+/**
+ * How the payroll batch closes a work day that was started but never ended
+ */
+public enum OpenDayPolicy {
+    // End the day at the configured work end time (or at its start, if it started later)
+    CLOSE_AT_WORK_END,
+    // End the day when it started: no paid time until an admin corrects it
+    CLOSE_AT_START
+}
@@ -0,0 +1,22 @@
+package com.gms.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Leaderboard periods; weeks start on Monday, like Postgres date_trunc('week')
+ */
+public enum ScorePeriod {
+    DAY,
+    WEEK,
+    MONTH;
+    
+    public LocalDate startOf(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.gms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Published when an employee starts or ends a work day,
+ * so the day status cache sees the change once it is committed
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeDayChangedEvent {
+    private final Long employeeId;
+    private final LocalDate dayDate;
+    private final LocalDateTime dayStartTime;
+    private final LocalDateTime dayEndTime;
+
+    public boolean isEnded() {
+        return dayEndTime != null;
+    }
+}
@@ -0,0 +1,17 @@
+package com.gms.event;
+
+import com.gms.service.score.ApprovedScore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when approvals add employee scores, so the in-memory leaderboard
+ * can apply them once they are committed
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeScoresRecordedEvent {
+    private final List<ApprovedScore> scores;
+}
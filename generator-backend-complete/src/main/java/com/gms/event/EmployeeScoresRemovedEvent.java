@@ -0,0 +1,17 @@
+package com.gms.event;
+
+import com.gms.service.score.ApprovedScore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published when a ticket's scores are deleted with its sub-tickets, so the in-memory
+ * leaderboard can take them off once the delete is committed
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeScoresRemovedEvent {
+    private final List<ApprovedScore> scores;
+}
@@ -0,0 +1,15 @@
+package com.gms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published after a user's credentials, status or token version change,
+ * so caches holding that user can drop it
+ */
+@Getter
+@AllArgsConstructor
+public class UserChangedEvent {
+    private final Long userId;
+    private final String username;
+}
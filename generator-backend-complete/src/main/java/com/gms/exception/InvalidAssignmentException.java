@@ -0,0 +1,18 @@
+package com.gms.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InvalidAssignmentException extends RuntimeException {
+
+    private final List<Long> missingIds;
+    private final List<Long> nonEmployeeIds;
+
+    public InvalidAssignmentException(List<Long> missingIds, List<Long> nonEmployeeIds) {
+        super("Invalid employee assignment");
+        this.missingIds = missingIds;
+        this.nonEmployeeIds = nonEmployeeIds;
+    }
+}
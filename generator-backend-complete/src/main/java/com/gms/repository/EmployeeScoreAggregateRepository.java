@@ -0,0 +1,23 @@
+package com.gms.repository;
+
+import com.gms.dto.response.LeaderboardEntry;
+import com.gms.entity.EmployeeScoreAggregate;
+import com.gms.enums.ScorePeriod;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rows are bumped by EmployeeScoreService; this repository only reads them
+ */
+public interface EmployeeScoreAggregateRepository extends JpaRepository<EmployeeScoreAggregate, Long> {
+
+    @Query("SELECT new com.gms.dto.response.LeaderboardEntry(0, u.id, u.fullName, a.totalScore, a.approvedCount) " +
+           "FROM EmployeeScoreAggregate a JOIN a.employee u " +
+           "WHERE a.period = :period AND a.periodStart = :periodStart")
+    List<LeaderboardEntry> findEntries(@Param("period") ScorePeriod period,
+                                       @Param("periodStart") LocalDate periodStart);
+}
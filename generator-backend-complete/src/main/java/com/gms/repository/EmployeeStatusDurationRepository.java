@@ -0,0 +1,28 @@
+package com.gms.repository;
+
+import com.gms.dto.projection.EmployeeStatusDurationRow;
+import com.gms.entity.EmployeeStatusDuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rows are added to by StatusDurationService; this repository only reads them
+ */
+public interface EmployeeStatusDurationRepository extends JpaRepository<EmployeeStatusDuration, Long> {
+
+    String ROW = "SELECT new com.gms.dto.projection.EmployeeStatusDurationRow(" +
+                 "u.id, u.fullName, d.dayDate, d.status, d.totalSeconds) " +
+                 "FROM EmployeeStatusDuration d JOIN d.employee u ";
+
+    @Query(ROW + "WHERE d.dayDate BETWEEN :from AND :to ORDER BY d.dayDate, u.id, d.status")
+    List<EmployeeStatusDurationRow> findRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query(ROW + "WHERE u.id = :employeeId AND d.dayDate BETWEEN :from AND :to ORDER BY d.dayDate, d.status")
+    List<EmployeeStatusDurationRow> findRowsByEmployeeId(@Param("employeeId") Long employeeId,
+                                                         @Param("from") LocalDate from,
+                                                         @Param("to") LocalDate to);
+}
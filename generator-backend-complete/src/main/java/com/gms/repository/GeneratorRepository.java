@@ -1,6 +1,10 @@
 package com.gms.repository;
 import com.gms.entity.Generator;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
 
 public interface GeneratorRepository extends JpaRepository<Generator, Long> {
+    // Keyset pages (id DESC)
+    List<Generator> findByIdLessThanOrderByIdDesc(Long afterId, Pageable pageable);
 }
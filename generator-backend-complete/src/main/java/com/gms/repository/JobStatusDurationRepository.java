@@ -0,0 +1,13 @@
+package com.gms.repository;
+
+import com.gms.entity.JobStatusDuration;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+/**
+ * Rows are added to by StatusDurationService; this repository only reads them
+ */
+public interface JobStatusDurationRepository extends JpaRepository<JobStatusDuration, Long> {
+    List<JobStatusDuration> findByMiniJobCardId(Long miniJobCardId);
+}
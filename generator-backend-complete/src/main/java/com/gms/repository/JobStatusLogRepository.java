@@ -1,8 +1,31 @@
 package com.gms.repository;
+import com.gms.dto.projection.StatusLogRow;
 import com.gms.entity.JobStatusLog;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface JobStatusLogRepository extends JpaRepository<JobStatusLog, Long> {
-    List<JobStatusLog> findByMiniJobCardIdOrderByLoggedAtAsc(Long miniJobCardId);
+
+    // job_status_logs is partitioned by month on logged_at: always bound the time range
+    // so Postgres only scans the partitions that can hold matching rows
+
+    String ROW = "SELECT new com.gms.dto.projection.StatusLogRow(" +
+                 "l.id, l.miniJobCard.id, l.generator, l.employeeEmail, l.passStatus, l.newStatus, " +
+                 "l.latitude, l.longitude, l.loggedAt, l.updatedBy.id) " +
+                 "FROM JobStatusLog l ";
+
+    @Query(ROW + "WHERE l.miniJobCard.id = :miniJobCardId AND l.loggedAt >= :from AND l.loggedAt < :to " +
+           "ORDER BY l.loggedAt ASC")
+    List<StatusLogRow> findRowsByMiniJobCardId(@Param("miniJobCardId") Long miniJobCardId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Query(ROW + "WHERE l.updatedBy.id = :employeeId AND l.loggedAt >= :from AND l.loggedAt < :to " +
+           "ORDER BY l.loggedAt ASC")
+    List<StatusLogRow> findRowsByEmployeeId(@Param("employeeId") Long employeeId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
 }
@@ -1,4 +1,5 @@
 package com.gms.repository;
+import com.gms.dto.projection.MainTicketRow;
 import com.gms.entity.MainTicket;
 import com.gms.enums.TicketStatus;
 import org.springframework.data.domain.Page;
@@ -7,6 +8,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 public interface MainTicketRepository extends JpaRepository<MainTicket, Long> {
@@ -17,25 +19,39 @@ public interface MainTicketRepository extends JpaRepository<MainTicket, Long> {
            "WHERE t.id = :id")
     Optional<MainTicket> findByIdWithDetails(@Param("id") Long id);
 
-    @Query("SELECT t FROM MainTicket t " +
-           "LEFT JOIN FETCH t.generator " +
-           "LEFT JOIN FETCH t.createdBy " +
-           "WHERE t.status = :status")
-    Page<MainTicket> findByStatus(@Param("status") TicketStatus status, Pageable pageable);
+    // Listing reads select only the columns of MainTicketResponse (see MainTicketRow)
 
-    @Query("SELECT t FROM MainTicket t " +
-           "LEFT JOIN FETCH t.generator " +
-           "LEFT JOIN FETCH t.createdBy " +
-           "WHERE t.scheduledDate = :date")
-    Page<MainTicket> findByScheduledDate(@Param("date") LocalDate date, Pageable pageable);
+    String ROW = "SELECT new com.gms.dto.projection.MainTicketRow(" +
+                 "t.id, t.ticketNumber, g.id, g.name, g.model, t.title, t.description, t.weight, " +
+                 "t.status, t.scheduledDate, t.scheduledTime, u.id, u.fullName, t.createdAt, t.version) " +
+                 "FROM MainTicket t JOIN t.generator g JOIN t.createdBy u ";
 
-    @Query("SELECT t FROM MainTicket t " +
-           "LEFT JOIN FETCH t.generator " +
-           "LEFT JOIN FETCH t.createdBy")
-    Page<MainTicket> findAllWithDetails(Pageable pageable);
+    @Query(value = ROW + "WHERE t.status = :status",
+           countQuery = "SELECT COUNT(t) FROM MainTicket t WHERE t.status = :status")
+    Page<MainTicketRow> findRowsByStatus(@Param("status") TicketStatus status, Pageable pageable);
 
-    boolean existsByTicketNumber(String ticketNumber);
+    @Query(value = ROW + "WHERE t.scheduledDate = :date",
+           countQuery = "SELECT COUNT(t) FROM MainTicket t WHERE t.scheduledDate = :date")
+    Page<MainTicketRow> findRowsByScheduledDate(@Param("date") LocalDate date, Pageable pageable);
+
+    @Query(value = ROW, countQuery = "SELECT COUNT(t) FROM MainTicket t")
+    Page<MainTicketRow> findAllRows(Pageable pageable);
+
+    // Keyset pages (id DESC): rows below afterId, page size taken from the Pageable
+
+    @Query(ROW + "WHERE t.id < :afterId ORDER BY t.id DESC")
+    List<MainTicketRow> findRowPageAfter(@Param("afterId") Long afterId, Pageable pageable);
 
-    @Query("SELECT COALESCE(MAX(CAST(SUBSTRING(t.ticketNumber, 13) AS int)), 0) FROM MainTicket t WHERE t.ticketNumber LIKE :prefix%")
-    Integer findMaxTicketNumberForPrefix(@Param("prefix") String prefix);
+    @Query(ROW + "WHERE t.status = :status AND t.id < :afterId ORDER BY t.id DESC")
+    List<MainTicketRow> findRowPageByStatusAfter(@Param("status") TicketStatus status,
+                                                 @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(ROW + "WHERE t.scheduledDate = :date AND t.id < :afterId ORDER BY t.id DESC")
+    List<MainTicketRow> findRowPageByScheduledDateAfter(@Param("date") LocalDate date,
+                                                        @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(ROW + "WHERE t.id = :id")
+    Optional<MainTicketRow> findRowById(@Param("id") Long id);
+
+    boolean existsByTicketNumber(String ticketNumber);
 }
@@ -4,12 +4,63 @@ import com.gms.enums.JobStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface MiniJobCardRepository extends JpaRepository<MiniJobCard, Long> {
     Page<MiniJobCard> findByEmployeeId(Long employeeId, Pageable pageable);
     Page<MiniJobCard> findByEmployeeIdAndStatus(Long employeeId, JobStatus status, Pageable pageable);
     List<MiniJobCard> findByMainTicketId(Long mainTicketId);
+    Optional<MiniJobCard> findByIdAndEmployeeId(Long id, Long employeeId);
     List<MiniJobCard> findByEmployeeIdAndCreatedAtBetween(Long employeeId, LocalDateTime start, LocalDateTime end);
+
+    // Keyset pages (id DESC) for an employee, with the ticket and generator the response needs
+
+    @Query("SELECT jc FROM MiniJobCard jc " +
+           "JOIN FETCH jc.mainTicket mt " +
+           "JOIN FETCH mt.generator " +
+           "WHERE jc.employee.id = :employeeId AND jc.id < :afterId ORDER BY jc.id DESC")
+    List<MiniJobCard> findPageByEmployeeIdAfter(@Param("employeeId") Long employeeId,
+                                                @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT jc FROM MiniJobCard jc " +
+           "JOIN FETCH jc.mainTicket mt " +
+           "JOIN FETCH mt.generator " +
+           "WHERE jc.employee.id = :employeeId AND jc.status = :status AND jc.id < :afterId ORDER BY jc.id DESC")
+    List<MiniJobCard> findPageByEmployeeIdAndStatusAfter(@Param("employeeId") Long employeeId,
+                                                         @Param("status") JobStatus status,
+                                                         @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT jc FROM MiniJobCard jc " +
+           "JOIN FETCH jc.mainTicket mt " +
+           "JOIN FETCH mt.generator " +
+           "WHERE jc.id = :id AND jc.employee.id = :employeeId")
+    Optional<MiniJobCard> findByIdAndEmployeeIdWithDetails(@Param("id") Long id, @Param("employeeId") Long employeeId);
+
+    /**
+     * The card with everything a status update reads, only if it belongs to the employee
+     */
+    @Query("SELECT jc FROM MiniJobCard jc " +
+           "JOIN FETCH jc.mainTicket mt " +
+           "JOIN FETCH mt.generator " +
+           "JOIN FETCH jc.employee " +
+           "WHERE jc.id = :id AND jc.employee.id = :employeeId")
+    Optional<MiniJobCard> findForStatusUpdate(@Param("id") Long id, @Param("employeeId") Long employeeId);
+
+    /**
+     * Point the card at a new image; the version bump keeps optimistic locking honest
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE MiniJobCard jc SET jc.imageKey = :imageKey, jc.imageContentType = :contentType, " +
+           "jc.imageSize = :size, jc.version = jc.version + 1 WHERE jc.id = :id")
+    int updateImage(@Param("id") Long id,
+                    @Param("imageKey") String imageKey,
+                    @Param("contentType") String contentType,
+                    @Param("size") Long size);
 }
@@ -0,0 +1,22 @@
+package com.gms.repository;
+
+import com.gms.dto.projection.PayrollSummaryRow;
+import com.gms.entity.PayrollSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Rows are added to by PayrollBatchJob; this repository only reads them
+ */
+public interface PayrollSummaryRepository extends JpaRepository<PayrollSummary, Long> {
+
+    @Query("SELECT new com.gms.dto.projection.PayrollSummaryRow(u.id, u.fullName, p.periodStart, p.daysWorked, " +
+           "p.totalWorkMinutes, p.morningOtMinutes, p.eveningOtMinutes, p.autoClosedDays) " +
+           "FROM PayrollSummary p JOIN p.employee u " +
+           "WHERE p.periodStart = :periodStart ORDER BY u.fullName, u.id")
+    List<PayrollSummaryRow> findRows(@Param("periodStart") LocalDate periodStart);
+}
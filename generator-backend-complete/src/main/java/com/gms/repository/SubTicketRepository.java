@@ -1,28 +1,55 @@
 package com.gms.repository;
 
+import com.gms.dto.projection.SubTicketReviewRow;
+import com.gms.dto.response.SubTicketResponse;
 import com.gms.entity.SubTicket;
 import com.gms.enums.TicketStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface SubTicketRepository extends JpaRepository<SubTicket, Long> {
 
-    @Query("SELECT st FROM SubTicket st " +
-           "LEFT JOIN FETCH st.mainTicket " +
-           "LEFT JOIN FETCH st.employee " +
-           "WHERE st.mainTicket.id = :mainTicketId")
-    List<SubTicket> findByMainTicketId(@Param("mainTicketId") Long mainTicketId);
+    // Read endpoints select straight into SubTicketResponse, so no SubTicket, MainTicket
+    // or User entities (with their password hashes) enter the persistence context
 
-    @Query("SELECT st FROM SubTicket st " +
-           "LEFT JOIN FETCH st.mainTicket mt " +
-           "LEFT JOIN FETCH mt.generator " +
-           "LEFT JOIN FETCH st.employee " +
-           "WHERE st.employee.id = :employeeId")
-    List<SubTicket> findByEmployeeId(@Param("employeeId") Long employeeId);
+    String RESPONSE = "SELECT new com.gms.dto.response.SubTicketResponse(" +
+                      "st.id, st.ticketNumber, mt.id, mt.ticketNumber, mt.weight, " +
+                      "e.id, e.fullName, e.email, st.status, st.notes, " +
+                      "st.completionFactor, st.qualityFactor, st.score, " +
+                      "st.approved, ab.id, ab.fullName, st.approvedAt, st.adminReviewNotes, " +
+                      "st.createdAt, st.updatedAt, st.completedAt, st.version) " +
+                      "FROM SubTicket st JOIN st.mainTicket mt JOIN st.employee e LEFT JOIN st.approvedBy ab ";
+
+    @Query(RESPONSE + "WHERE mt.id = :mainTicketId ORDER BY st.id")
+    List<SubTicketResponse> findResponsesByMainTicketId(@Param("mainTicketId") Long mainTicketId);
+
+    /**
+     * Load the sub-tickets of a whole page of main tickets in a single query
+     */
+    @Query(RESPONSE + "WHERE mt.id IN :mainTicketIds ORDER BY mt.id, st.id")
+    List<SubTicketResponse> findResponsesByMainTicketIdIn(@Param("mainTicketIds") Collection<Long> mainTicketIds);
+
+    @Query(RESPONSE + "WHERE e.id = :employeeId")
+    List<SubTicketResponse> findResponsesByEmployeeId(@Param("employeeId") Long employeeId);
+
+    @Query(RESPONSE + "WHERE st.id = :id")
+    Optional<SubTicketResponse> findResponseById(@Param("id") Long id);
+
+    @Query(RESPONSE + "WHERE st.status = :status")
+    List<SubTicketResponse> findResponsesByStatus(@Param("status") TicketStatus status);
 
     @Query("SELECT st FROM SubTicket st " +
            "LEFT JOIN FETCH st.mainTicket " +
@@ -30,17 +57,69 @@ public interface SubTicketRepository extends JpaRepository<SubTicket, Long> {
            "WHERE st.id = :id")
     Optional<SubTicket> findByIdWithDetails(@Param("id") Long id);
 
+    @Query("SELECT new com.gms.dto.projection.SubTicketReviewRow(" +
+           "st.id, st.status, st.version, mt.id, mt.weight, e.id, e.fullName) " +
+           "FROM SubTicket st JOIN st.mainTicket mt JOIN st.employee e WHERE st.id IN :ids")
+    List<SubTicketReviewRow> findReviewRowsByIdIn(@Param("ids") Collection<Long> ids);
+
     boolean existsByTicketNumber(String ticketNumber);
 
+    @Modifying
+    @Query("DELETE FROM SubTicket st WHERE st.mainTicket.id = :mainTicketId")
+    int deleteByMainTicketId(@Param("mainTicketId") Long mainTicketId);
+
     List<SubTicket> findByMainTicketIdAndStatus(Long mainTicketId, TicketStatus status);
 
     @Query("SELECT COUNT(st) FROM SubTicket st WHERE st.mainTicket.id = :mainTicketId AND st.status = :status")
     long countByMainTicketIdAndStatus(@Param("mainTicketId") Long mainTicketId, @Param("status") TicketStatus status);
 
-    @Query("SELECT st FROM SubTicket st " +
-           "LEFT JOIN FETCH st.mainTicket mt " +
-           "LEFT JOIN FETCH mt.generator " +
-           "LEFT JOIN FETCH st.employee " +
-           "WHERE st.status = :status")
-    List<SubTicket> findByStatus(@Param("status") TicketStatus status);
+    // Keyset pages (id DESC) with optional filters; backed by (employee_id, status, id) and (status, id)
+
+    @Query(RESPONSE +
+           "WHERE e.id = :employeeId AND st.id < :afterId " +
+           "AND (:status IS NULL OR st.status = :status) " +
+           "AND (:from IS NULL OR st.createdAt >= :from) " +
+           "AND (:to IS NULL OR st.createdAt < :to) " +
+           "ORDER BY st.id DESC")
+    List<SubTicketResponse> findPageByEmployeeIdAfter(@Param("employeeId") Long employeeId,
+                                                      @Param("status") TicketStatus status,
+                                                      @Param("from") LocalDateTime from,
+                                                      @Param("to") LocalDateTime to,
+                                                      @Param("afterId") Long afterId,
+                                                      Pageable pageable);
+
+    @Query(RESPONSE +
+           "WHERE st.status = :status AND st.id < :afterId " +
+           "AND (:from IS NULL OR st.completedAt >= :from) " +
+           "AND (:to IS NULL OR st.completedAt < :to) " +
+           "ORDER BY st.id DESC")
+    List<SubTicketResponse> findPageByStatusAfter(@Param("status") TicketStatus status,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to,
+                                                  @Param("afterId") Long afterId,
+                                                  Pageable pageable);
+
+    // Streams for bulk export; consume inside a read-only transaction
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE +
+           "WHERE e.id = :employeeId " +
+           "AND (:status IS NULL OR st.status = :status) " +
+           "AND (:from IS NULL OR st.createdAt >= :from) " +
+           "AND (:to IS NULL OR st.createdAt < :to) " +
+           "ORDER BY st.id DESC")
+    Stream<SubTicketResponse> streamByEmployeeId(@Param("employeeId") Long employeeId,
+                                                 @Param("status") TicketStatus status,
+                                                 @Param("from") LocalDateTime from,
+                                                 @Param("to") LocalDateTime to);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query(RESPONSE +
+           "WHERE st.status = :status " +
+           "AND (:from IS NULL OR st.completedAt >= :from) " +
+           "AND (:to IS NULL OR st.completedAt < :to) " +
+           "ORDER BY st.id DESC")
+    Stream<SubTicketResponse> streamByStatus(@Param("status") TicketStatus status,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
 }
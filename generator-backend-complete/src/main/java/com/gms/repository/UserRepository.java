@@ -4,6 +4,11 @@ import com.gms.enums.Role;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -12,4 +17,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     Page<User> findByRole(Role role, Pageable pageable);
+    
+    // Keyset pages (id DESC)
+    List<User> findByIdLessThanOrderByIdDesc(Long afterId, Pageable pageable);
+    List<User> findByRoleAndIdLessThanOrderByIdDesc(Role role, Long afterId, Pageable pageable);
+    
+    @Query("SELECT COALESCE(u.tokenVersion, 0) FROM User u WHERE u.id = :id AND u.active = true")
+    Optional<Integer> findActiveTokenVersion(@Param("id") Long id);
+    
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
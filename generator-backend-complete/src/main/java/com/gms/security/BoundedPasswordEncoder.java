@@ -0,0 +1,101 @@
+package com.gms.security;
+
+import com.gms.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs the (deliberately slow) password checks of a delegate encoder on a bounded pool.
+ *
+ * At most one check per pool thread is computed at a time, so a login burst cannot
+ * take every core away from the web workers. When the pool's queue is full, or a
+ * check waits longer than the timeout, the call fails fast with
+ * {@link TooManyRequestsException} (HTTP 429) instead of queueing without bound.
+ *
+ * Only matches() is bounded. encode() runs on the caller's thread: user creation,
+ * password resets and the occasional rehash on login are rare, and must not fail
+ * because a login burst filled the pool.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+    
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolExecutor executor,
+                                  long timeoutMillis, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+        this.verifyTimer = Timer.builder("auth.password.verify")
+            .description("Password verification latency, including time queued")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.rejected")
+            .description("Password checks shed because the pool was saturated")
+            .register(meterRegistry);
+        Gauge.builder("auth.password.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password checks waiting for a thread")
+            .register(meterRegistry);
+    }
+    
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+    
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Timer.Sample sample = Timer.start();
+        try {
+            return execute(() -> delegate.matches(rawPassword, encodedPassword));
+        } finally {
+            sample.stop(verifyTimer);
+        }
+    }
+    
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+    
+    private <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Too many logins in progress, please try again shortly");
+        }
+        
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new TooManyRequestsException("Too many logins in progress, please try again shortly");
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password check failed", ex.getCause());
+        }
+    }
+}
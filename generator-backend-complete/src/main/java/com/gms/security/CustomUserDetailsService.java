@@ -1,29 +1,94 @@
 package com.gms.security;
 
 import com.gms.entity.User;
+import com.gms.event.UserChangedEvent;
 import com.gms.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+
+/**
+ * Principals are cached by id and by username (size and TTL bounded).
+ * User writes publish {@link UserChangedEvent}, which evicts both entries once committed.
+ */
 @Service
-@RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
     
     private final UserRepository userRepository;
+    private final Cache<Long, UserPrincipal> principalsById;
+    private final Cache<String, UserPrincipal> principalsByUsername;
+    
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.user-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.principalsById = buildCache(maxSize, ttlSeconds);
+        this.principalsByUsername = buildCache(maxSize, ttlSeconds);
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, principalsById, "userPrincipalsById");
+        CaffeineCacheMetrics.monitor(meterRegistry, principalsByUsername, "userPrincipalsByUsername");
+    }
+    
+    private static <K> Cache<K, UserPrincipal> buildCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+    }
     
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return UserPrincipal.create(user);
+        return principalsByUsername.get(username, key -> {
+            User user = userRepository.findByUsername(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + key));
+            return UserPrincipal.create(user);
+        });
     }
     
     public UserDetails loadUserById(Long id) {
-        User user = userRepository.findById(id)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
-        return UserPrincipal.create(user);
+        return principalsById.get(id, key -> {
+            User user = userRepository.findById(key)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + key));
+            return UserPrincipal.create(user);
+        });
+    }
+    
+    /**
+     * Store a rehashed password after a successful login (see SecurityConfig)
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserPrincipal principal = (UserPrincipal) user;
+        userRepository.updatePassword(principal.getId(), newPassword);
+        
+        principalsById.invalidate(principal.getId());
+        principalsByUsername.invalidate(principal.getUsername());
+        
+        return new UserPrincipal(
+            principal.getId(),
+            principal.getUsername(),
+            newPassword,
+            principal.getRole(),
+            principal.isActive(),
+            principal.getTokenVersion()
+        );
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        principalsById.invalidate(event.getUserId());
+        principalsByUsername.invalidate(event.getUsername());
     }
 }
@@ -0,0 +1,66 @@
+package com.gms.security;
+
+import com.gms.entity.User;
+import com.gms.event.UserChangedEvent;
+import com.gms.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Revocation check for stateless principals.
+ *
+ * Access tokens carry the user's token version ("ver" claim). Deactivating a user
+ * or changing their password bumps the version, which invalidates every token
+ * issued before. Current versions are held in a bounded cache so the check is a
+ * memory read; the TTL bounds how long another node can keep a stale version.
+ */
+@Service
+public class TokenRevocationService {
+    
+    // Cached for users that are missing or inactive
+    private static final int REVOKED = -1;
+    
+    private final UserRepository userRepository;
+    private final Cache<Long, Integer> tokenVersions;
+    
+    public TokenRevocationService(UserRepository userRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${jwt.token-version-cache.max-size:10000}") long maxSize,
+                                  @Value("${jwt.token-version-cache.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.tokenVersions = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, tokenVersions, "tokenVersions");
+    }
+    
+    public boolean isCurrent(UserPrincipal principal) {
+        Integer currentVersion = tokenVersions.get(principal.getId(), id ->
+            userRepository.findActiveTokenVersion(id).orElse(REVOKED));
+        return currentVersion == principal.getTokenVersion();
+    }
+    
+    /**
+     * Invalidate all tokens issued to the user so far.
+     * The caller saves the user and then publishes a {@link UserChangedEvent}.
+     */
+    public void revokeTokens(User user) {
+        int currentVersion = user.getTokenVersion() != null ? user.getTokenVersion() : 0;
+        user.setTokenVersion(currentVersion + 1);
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        tokenVersions.invalidate(event.getUserId());
+    }
+}
@@ -1,6 +1,7 @@
 package com.gms.security;
 
 import com.gms.entity.User;
+import io.jsonwebtoken.Claims;
 import com.gms.enums.Role;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -20,6 +21,7 @@ public class UserPrincipal implements UserDetails {
     private String password;
     private Role role;
     private boolean active;
+    private int tokenVersion;
     
     public static UserPrincipal create(User user) {
         return new UserPrincipal(
@@ -27,7 +29,30 @@ public class UserPrincipal implements UserDetails {
             user.getUsername(),
             user.getPassword(),
             user.getRole(),
-            user.getActive()
+            user.getActive(),
+            user.getTokenVersion() != null ? user.getTokenVersion() : 0
+        );
+    }
+    
+    /**
+     * Rebuild the principal from access token claims, without a database lookup.
+     * Returns null for tokens that are not access tokens (no username/role claims).
+     */
+    public static UserPrincipal fromClaims(Claims claims) {
+        String username = claims.get("username", String.class);
+        String role = claims.get("role", String.class);
+        if (username == null || role == null) {
+            return null;
+        }
+        
+        Number tokenVersion = claims.get("ver", Number.class);
+        return new UserPrincipal(
+            Long.parseLong(claims.getSubject()),
+            username,
+            null,
+            Role.valueOf(role),
+            true,
+            tokenVersion != null ? tokenVersion.intValue() : 0
         );
     }
     
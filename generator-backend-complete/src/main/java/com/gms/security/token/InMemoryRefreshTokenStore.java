@@ -0,0 +1,100 @@
+package com.gms.security.token;
+
+import com.gms.entity.RefreshToken;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Single-node store for tests and local runs; tokens do not survive a restart
+ */
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token-store", havingValue = "memory")
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private final Map<String, RefreshToken> tokensByHash = new ConcurrentHashMap<>();
+    private final AtomicLong idSequence = new AtomicLong();
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        if (token.getId() == null) {
+            token.setId(idSequence.incrementAndGet());
+            token.setCreatedAt(LocalDateTime.now());
+        }
+        tokensByHash.put(token.getTokenHash(), token);
+        return token;
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        return Optional.ofNullable(tokensByHash.get(tokenHash));
+    }
+
+    @Override
+    public boolean revokeIfActive(RefreshToken token, LocalDateTime now) {
+        RefreshToken stored = tokensByHash.get(token.getTokenHash());
+        if (stored == null) {
+            return false;
+        }
+        synchronized (stored) {
+            if (stored.getRevokedAt() != null) {
+                return false;
+            }
+            stored.setRevokedAt(now);
+            return true;
+        }
+    }
+
+    @Override
+    public boolean hasSuccessorSince(RefreshToken token, LocalDateTime since) {
+        return tokensByHash.values().stream().anyMatch(candidate ->
+            token.getId().equals(candidate.getParentId()) && !candidate.getCreatedAt().isBefore(since));
+    }
+
+    @Override
+    public void revokeFamily(String familyId, LocalDateTime now) {
+        revokeWhere(token -> familyId.equals(token.getFamilyId()), now);
+    }
+
+    @Override
+    public void revokeDevice(Long userId, String deviceId, LocalDateTime now) {
+        revokeWhere(token -> userId.equals(token.getUserId()) && deviceId.equals(token.getDeviceId()), now);
+    }
+
+    @Override
+    public void revokeAllForUser(Long userId, LocalDateTime now) {
+        revokeWhere(token -> userId.equals(token.getUserId()), now);
+    }
+
+    @Override
+    public int purgeExpired(LocalDateTime now, int batchSize) {
+        int deleted = 0;
+        Iterator<RefreshToken> iterator = tokensByHash.values().iterator();
+        while (iterator.hasNext() && deleted < batchSize) {
+            if (iterator.next().getExpiresAt().isBefore(now)) {
+                iterator.remove();
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private void revokeWhere(Predicate<RefreshToken> filter, LocalDateTime now) {
+        for (RefreshToken token : tokensByHash.values()) {
+            if (filter.test(token)) {
+                synchronized (token) {
+                    if (token.getRevokedAt() == null) {
+                        token.setRevokedAt(now);
+                    }
+                }
+            }
+        }
+    }
+}
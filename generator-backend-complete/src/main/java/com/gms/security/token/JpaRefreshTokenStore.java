@@ -0,0 +1,59 @@
+package com.gms.security.token;
+
+import com.gms.entity.RefreshToken;
+import com.gms.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "auth.refresh-token-store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Override
+    public RefreshToken save(RefreshToken token) {
+        return refreshTokenRepository.save(token);
+    }
+
+    @Override
+    public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+        return refreshTokenRepository.findByTokenHash(tokenHash);
+    }
+
+    @Override
+    public boolean revokeIfActive(RefreshToken token, LocalDateTime now) {
+        return refreshTokenRepository.revokeIfActive(token.getId(), now) == 1;
+    }
+
+    @Override
+    public boolean hasSuccessorSince(RefreshToken token, LocalDateTime since) {
+        return refreshTokenRepository.existsByFamilyIdAndParentIdAndCreatedAtGreaterThanEqual(
+            token.getFamilyId(), token.getId(), since);
+    }
+
+    @Override
+    public void revokeFamily(String familyId, LocalDateTime now) {
+        refreshTokenRepository.revokeFamily(familyId, now);
+    }
+
+    @Override
+    public void revokeDevice(Long userId, String deviceId, LocalDateTime now) {
+        refreshTokenRepository.revokeDevice(userId, deviceId, now);
+    }
+
+    @Override
+    public void revokeAllForUser(Long userId, LocalDateTime now) {
+        refreshTokenRepository.revokeAllForUser(userId, now);
+    }
+
+    @Override
+    public int purgeExpired(LocalDateTime now, int batchSize) {
+        return refreshTokenRepository.deleteExpiredBatch(now, batchSize);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gms.security.token;
+
+import com.gms.entity.RefreshToken;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Storage for issued refresh tokens, looked up by token hash.
+ * Selected with auth.refresh-token-store: jpa (default) or memory.
+ */
+public interface RefreshTokenStore {
+
+    RefreshToken save(RefreshToken token);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Revoke the token if it is still active; false if it was already revoked
+     */
+    boolean revokeIfActive(RefreshToken token, LocalDateTime now);
+
+    /**
+     * Whether a successor was issued from the token at or after the given time
+     */
+    boolean hasSuccessorSince(RefreshToken token, LocalDateTime since);
+
+    void revokeFamily(String familyId, LocalDateTime now);
+
+    void revokeDevice(Long userId, String deviceId, LocalDateTime now);
+
+    void revokeAllForUser(Long userId, LocalDateTime now);
+
+    /**
+     * Delete at most batchSize tokens that expired before now; returns the number deleted
+     */
+    int purgeExpired(LocalDateTime now, int batchSize);
+}
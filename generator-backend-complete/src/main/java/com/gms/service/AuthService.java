@@ -13,7 +13,6 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
@@ -22,8 +21,9 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final JwtTokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
     
-    @Transactional
+    // Not transactional: no connection is held while the password is verified
     public AuthResponse login(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
             new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
@@ -33,12 +33,10 @@ public class AuthService {
         
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         String accessToken = tokenProvider.generateAccessToken(authentication);
-        String refreshToken = tokenProvider.generateRefreshToken(userPrincipal.getId());
         
         User user = userRepository.findById(userPrincipal.getId())
             .orElseThrow(() -> new UnauthorizedException("User not found"));
-        user.setRefreshToken(refreshToken);
-        userRepository.save(user);
+        String refreshToken = refreshTokenService.issue(userPrincipal, user.getFullName(), request.getDeviceId());
         
         return AuthResponse.builder()
             .accessToken(accessToken)
@@ -51,21 +49,13 @@ public class AuthService {
             .build();
     }
     
-    @Transactional
+    /**
+     * Rotate the refresh token and issue a new access token, without reading the users table
+     */
     public AuthResponse refreshToken(String refreshToken) {
-        if (!tokenProvider.validateToken(refreshToken)) {
-            throw new UnauthorizedException("Invalid refresh token");
-        }
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        UserPrincipal userPrincipal = rotation.getPrincipal();
         
-        Long userId = tokenProvider.getUserIdFromJWT(refreshToken);
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UnauthorizedException("User not found"));
-        
-        if (!refreshToken.equals(user.getRefreshToken())) {
-            throw new UnauthorizedException("Refresh token does not match");
-        }
-        
-        UserPrincipal userPrincipal = UserPrincipal.create(user);
         Authentication authentication = new UsernamePasswordAuthenticationToken(
             userPrincipal, null, userPrincipal.getAuthorities()
         );
@@ -74,20 +64,16 @@ public class AuthService {
         
         return AuthResponse.builder()
             .accessToken(newAccessToken)
-            .refreshToken(refreshToken)
+            .refreshToken(rotation.getRefreshToken())
             .tokenType("Bearer")
-            .userId(user.getId())
-            .username(user.getUsername())
-            .fullName(user.getFullName())
-            .role(user.getRole())
+            .userId(userPrincipal.getId())
+            .username(userPrincipal.getUsername())
+            .fullName(rotation.getFullName())
+            .role(userPrincipal.getRole())
             .build();
     }
     
-    @Transactional
     public void logout(Long userId) {
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new UnauthorizedException("User not found"));
-        user.setRefreshToken(null);
-        userRepository.save(user);
+        refreshTokenService.revokeAll(userId);
     }
 }
@@ -0,0 +1,130 @@
+package com.gms.service;
+
+import com.gms.exception.ConcurrentUpdateException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write in its own transaction and retries it when an optimistic lock check fails.
+ *
+ * Only idempotent operations should be retried: each attempt reloads the row and runs the
+ * action again from the start. Writes made from what the client read (edits, notes, reviews)
+ * run once and are checked against the version the client sent back (checkVersion).
+ * Callers must not already be in a transaction, or the retry would join it and see the
+ * same stale row. Every conflict is counted in tickets.optimistic-lock.conflicts, tagged
+ * with the operation and its outcome.
+ */
+@Component
+public class ConflictRetry {
+
+    private static final String CONFLICTS_METRIC = "tickets.optimistic-lock.conflicts";
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public ConflictRetry(PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         @Value("${tickets.conflict-retry.max-attempts:3}") int maxAttempts,
+                         @Value("${tickets.conflict-retry.backoff-ms:20}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    /**
+     * Run an idempotent write, retrying up to the configured number of attempts
+     */
+    public <T> T retrying(String operation, Supplier<T> action) {
+        return execute(operation, maxAttempts, action);
+    }
+
+    /**
+     * Run a write once; a conflict is counted and reported to the caller as a 409
+     */
+    public <T> T once(String operation, Supplier<T> action) {
+        return execute(operation, 1, action);
+    }
+
+    /**
+     * Count conflicts detected without an exception, e.g. conditional updates that matched no row
+     */
+    public void recordConflicts(String operation, int count) {
+        if (count > 0) {
+            meterRegistry.counter(CONFLICTS_METRIC, "operation", operation, "outcome", "skipped").increment(count);
+        }
+    }
+
+    /**
+     * The version the client last read: the request's version field, else an If-Match header
+     * ("3" or W/"3"). Null when the client sent neither or If-Match: *, i.e. no check.
+     */
+    public static Long expectedVersion(Long requestVersion, String ifMatch) {
+        if (requestVersion != null) {
+            return requestVersion;
+        }
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match must hold the version of the record, e.g. \"3\"");
+        }
+    }
+
+    /**
+     * Throw ConcurrentUpdateException (409) if the row is no longer at the version the client read
+     */
+    public void checkVersion(String operation, Long expected, Long actual) {
+        if (expected != null && !expected.equals(actual)) {
+            meterRegistry.counter(CONFLICTS_METRIC, "operation", operation, "outcome", "stale").increment();
+            throw new ConcurrentUpdateException(
+                "The record was changed by another request; reload it and try again");
+        }
+    }
+
+    private <T> T execute(String operation, int attempts, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                boolean last = attempt >= attempts;
+                meterRegistry.counter(CONFLICTS_METRIC, "operation", operation,
+                    "outcome", last ? "failed" : "retried").increment();
+                if (last) {
+                    throw new ConcurrentUpdateException(
+                        "The record was changed by another request; reload it and try again");
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    // Linear backoff with jitter so that two colliding requests do not collide again
+    private void backoff(int attempt) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrentUpdateException("Interrupted while retrying a conflicting update");
+        }
+    }
+}
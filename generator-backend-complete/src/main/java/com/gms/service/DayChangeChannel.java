@@ -0,0 +1,173 @@
+package com.gms.service;
+
+import com.gms.event.EmployeeDayChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Tells the other nodes' day status caches that a work day changed, over Postgres LISTEN/NOTIFY.
+ *
+ * The notification is sent inside the start / end day transaction, and Postgres only delivers
+ * it once that commits. Each node listens on its own connection outside the pool, on a daemon
+ * thread, and reconnects after an error.
+ */
+@Component
+public class DayChangeChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(DayChangeChannel.class);
+
+    private static final String CHANNEL = "employee_day_changed";
+
+    private final DayStatusCache dayStatusCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final int pollMillis;
+    private final long reconnectMillis;
+    // Lets a node skip its own notifications, which it has already written through
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private volatile Connection connection;
+    private Thread listener;
+
+    public DayChangeChannel(DayStatusCache dayStatusCache,
+                            JdbcTemplate jdbcTemplate,
+                            DataSourceProperties dataSourceProperties,
+                            @Value("${business.day-status-cache.listen:true}") boolean enabled,
+                            @Value("${business.day-status-cache.listen-poll-ms:10000}") int pollMillis,
+                            @Value("${business.day-status-cache.reconnect-ms:5000}") long reconnectMillis) {
+        this.dayStatusCache = dayStatusCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.pollMillis = pollMillis;
+        this.reconnectMillis = reconnectMillis;
+    }
+
+    /**
+     * Runs in the publishing transaction, so the NOTIFY goes out with its commit or not at all
+     */
+    @EventListener
+    public void onDayChanged(EmployeeDayChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String payload = nodeId + "|" + event.getEmployeeId() + "|" + event.getDayDate();
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, payload);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "day-change-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        closeConnection();
+    }
+
+    /**
+     * Whether changes made on other nodes currently reach this node's cache
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void listen() {
+        while (running) {
+            try {
+                connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                dayStatusCache.setCrossNodeInvalidation(true);
+                listening = true;
+                log.info("Listening for work day changes on other nodes");
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (running) {
+                    log.warn("Work day change listener lost its connection; retrying in {} ms", reconnectMillis, ex);
+                }
+            } finally {
+                listening = false;
+                dayStatusCache.setCrossNodeInvalidation(false);
+                closeConnection();
+            }
+            pause();
+        }
+    }
+
+    private void apply(String payload) {
+        String[] parts = payload.split("\\|");
+        if (parts.length != 3 || parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            dayStatusCache.invalidate(Long.valueOf(parts[1]), LocalDate.parse(parts[2]));
+        } catch (RuntimeException ex) {
+            log.warn("Ignoring malformed work day change notification '{}'", payload);
+        }
+    }
+
+    private void pause() {
+        if (!running) {
+            return;
+        }
+        try {
+            Thread.sleep(reconnectMillis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private void closeConnection() {
+        Connection current = connection;
+        connection = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (SQLException ex) {
+                log.debug("Closing the work day change listener connection failed", ex);
+            }
+        }
+    }
+}
@@ -3,16 +3,17 @@ package com.gms.service;
 import com.gms.dto.response.DayStatusResponse;
 import com.gms.entity.EmployeeDayLog;
 import com.gms.entity.User;
+import com.gms.event.EmployeeDayChangedEvent;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.EmployeeDayLogRepository;
 import com.gms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 
 @Service
 @RequiredArgsConstructor
@@ -20,14 +21,25 @@ public class DayManagementService {
     
     private final EmployeeDayLogRepository dayLogRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DayStatusCache dayStatusCache;
+    private final WorkHours workHours;
     
     @Transactional
     public DayStatusResponse startDay(Long employeeId) {
+        LocalDate today = dayStatusCache.today();
+        
+        // A started day never goes back, so the cache can turn away repeats without a query;
+        // neither can a new day start while yesterday's shift is still running
+        LocalDate currentDay = dayStatusCache.currentDay(employeeId);
+        if (!currentDay.equals(today)
+                || dayStatusCache.getState(employeeId, today) != DayStatusCache.DayState.NOT_STARTED) {
+            throw new IllegalStateException("Day already started");
+        }
+        
         User employee = userRepository.findById(employeeId)
             .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
         
-        LocalDate today = LocalDate.now();
-        
         EmployeeDayLog dayLog = dayLogRepository
             .findByEmployeeIdAndDayDate(employeeId, today)
             .orElse(EmployeeDayLog.builder()
@@ -43,13 +55,10 @@ public class DayManagementService {
         dayLog.setDayStartTime(now);
         
         // Calculate morning OT
-        LocalTime workStart = LocalTime.of(8, 30);
-        if (now.toLocalTime().isBefore(workStart)) {
-            long morningMinutes = java.time.Duration.between(now.toLocalTime(), workStart).toMinutes();
-            dayLog.setMorningOtMinutes((int) morningMinutes);
-        }
+        dayLog.setMorningOtMinutes(workHours.morningOtMinutes(now));
         
         dayLogRepository.save(dayLog);
+        eventPublisher.publishEvent(new EmployeeDayChangedEvent(employeeId, today, now, null));
         
         return DayStatusResponse.builder()
             .dayStarted(true)
@@ -60,10 +69,15 @@ public class DayManagementService {
     
     @Transactional
     public DayStatusResponse endDay(Long employeeId) {
-        LocalDate today = LocalDate.now();
+        // Yesterday's, for a shift that ran past midnight
+        LocalDate day = dayStatusCache.currentDay(employeeId);
+        
+        if (dayStatusCache.getState(employeeId, day) == DayStatusCache.DayState.ENDED) {
+            throw new IllegalStateException("Day already ended");
+        }
         
         EmployeeDayLog dayLog = dayLogRepository
-            .findByEmployeeIdAndDayDate(employeeId, today)
+            .findByEmployeeIdAndDayDate(employeeId, day)
             .orElseThrow(() -> new ResourceNotFoundException("Day not started"));
         
         if (dayLog.getDayEndTime() != null) {
@@ -74,17 +88,13 @@ public class DayManagementService {
         dayLog.setDayEndTime(now);
         
         // Calculate evening OT
-        LocalTime workEnd = LocalTime.of(17, 30);
-        if (now.toLocalTime().isAfter(workEnd)) {
-            long eveningMinutes = java.time.Duration.between(workEnd, now.toLocalTime()).toMinutes();
-            dayLog.setEveningOtMinutes((int) eveningMinutes);
-        }
+        dayLog.setEveningOtMinutes(workHours.eveningOtMinutes(dayLog.getDayStartTime(), now));
         
         // Calculate total work minutes
-        long totalMinutes = java.time.Duration.between(dayLog.getDayStartTime(), now).toMinutes();
-        dayLog.setTotalWorkMinutes((int) totalMinutes);
+        dayLog.setTotalWorkMinutes(workHours.totalWorkMinutes(dayLog.getDayStartTime(), now));
         
         dayLogRepository.save(dayLog);
+        eventPublisher.publishEvent(new EmployeeDayChangedEvent(employeeId, day, dayLog.getDayStartTime(), now));
         
         return DayStatusResponse.builder()
             .dayStarted(true)
@@ -94,19 +104,17 @@ public class DayManagementService {
             .build();
     }
     
+    /**
+     * Polled constantly by the field app; served from the day status cache
+     */
     public DayStatusResponse getDayStatus(Long employeeId) {
-        LocalDate today = LocalDate.now();
-        
-        return dayLogRepository.findByEmployeeIdAndDayDate(employeeId, today)
-            .map(log -> DayStatusResponse.builder()
-                .dayStarted(log.getDayStartTime() != null)
-                .dayEnded(log.getDayEndTime() != null)
-                .dayStartTime(log.getDayStartTime())
-                .dayEndTime(log.getDayEndTime())
-                .build())
-            .orElse(DayStatusResponse.builder()
-                .dayStarted(false)
-                .dayEnded(false)
-                .build());
+        DayStatusCache.Day day = dayStatusCache.getDay(employeeId, dayStatusCache.currentDay(employeeId));
+        
+        return DayStatusResponse.builder()
+            .dayStarted(day.getState() != DayStatusCache.DayState.NOT_STARTED)
+            .dayEnded(day.getState() == DayStatusCache.DayState.ENDED)
+            .dayStartTime(day.getStartTime())
+            .dayEndTime(day.getEndTime())
+            .build();
     }
 }
@@ -0,0 +1,174 @@
+package com.gms.service;
+
+import com.gms.entity.EmployeeDayLog;
+import com.gms.event.EmployeeDayChangedEvent;
+import com.gms.repository.EmployeeDayLogRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Each employee's work day (started / ended and when), so the day status poll and job card
+ * status updates do not read employee_day_logs every time.
+ *
+ * DayManagementService publishes every start and end, and this node writes it through after
+ * commit. Other nodes hear about it through DayChangeChannel and drop their copy. While that
+ * channel is down, "not started" is not cached, so a day started elsewhere is seen on the next
+ * call; the TTL bounds how long another node's end of day can go unnoticed.
+ *
+ * A shift may run past midnight: until the employee ends it, or business.max-shift-hours pass,
+ * it is still the employee's current day (currentDay).
+ */
+@Service
+public class DayStatusCache {
+
+    public enum DayState {
+        NOT_STARTED,
+        STARTED,
+        ENDED
+    }
+
+    private static final Day NOT_STARTED = new Day(DayState.NOT_STARTED, null, null);
+
+    private final EmployeeDayLogRepository dayLogRepository;
+    private final Clock clock;
+    private final Duration maxShift;
+    private final Cache<DayKey, Day> days;
+    private volatile boolean notStartedCacheable;
+
+    @Autowired
+    public DayStatusCache(EmployeeDayLogRepository dayLogRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${app.timezone:Asia/Colombo}") String timezone,
+                          @Value("${business.day-status-cache.max-size:10000}") long maxSize,
+                          @Value("${business.day-status-cache.ttl-seconds:60}") long ttlSeconds,
+                          @Value("${business.max-shift-hours:16}") long maxShiftHours) {
+        this(dayLogRepository, meterRegistry, Clock.system(ZoneId.of(timezone)), maxSize, ttlSeconds,
+            Duration.ofHours(maxShiftHours));
+    }
+
+    DayStatusCache(EmployeeDayLogRepository dayLogRepository, MeterRegistry meterRegistry, Clock clock,
+                   long maxSize, long ttlSeconds, Duration maxShift) {
+        this.dayLogRepository = dayLogRepository;
+        this.clock = clock;
+        this.maxShift = maxShift;
+        this.days = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .recordStats()
+            .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "employeeDays");
+    }
+
+    /**
+     * The work day that is current in the configured timezone
+     */
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    /**
+     * The day the employee is working on: today, or yesterday while a shift started then is still running
+     */
+    public LocalDate currentDay(Long employeeId) {
+        LocalDate today = today();
+        if (getState(employeeId, today) != DayState.NOT_STARTED) {
+            return today;
+        }
+        LocalDate yesterday = today.minusDays(1);
+        Day day = getDay(employeeId, yesterday);
+        if (day.getState() == DayState.STARTED
+                && day.getStartTime().plus(maxShift).isAfter(LocalDateTime.now(clock))) {
+            return yesterday;
+        }
+        return today;
+    }
+
+    public Day getDay(Long employeeId, LocalDate date) {
+        Day day = days.get(new DayKey(employeeId, date), key ->
+            dayLogRepository.findByEmployeeIdAndDayDate(employeeId, date)
+                .map(this::dayOf)
+                .orElse(notStartedCacheable ? NOT_STARTED : null));
+        return day != null ? day : NOT_STARTED;
+    }
+
+    public DayState getState(Long employeeId, LocalDate date) {
+        return getDay(employeeId, date).getState();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDayChanged(EmployeeDayChangedEvent event) {
+        days.put(new DayKey(event.getEmployeeId(), event.getDayDate()),
+            new Day(event.isEnded() ? DayState.ENDED : DayState.STARTED,
+                event.getDayStartTime(), event.getDayEndTime()));
+    }
+
+    /**
+     * Another node changed this day
+     */
+    public void invalidate(Long employeeId, LocalDate date) {
+        days.invalidate(new DayKey(employeeId, date));
+    }
+
+    /**
+     * Called by DayChangeChannel when it starts or stops hearing other nodes. Either way
+     * notifications may have been missed, so everything cached so far is dropped.
+     */
+    void setCrossNodeInvalidation(boolean active) {
+        notStartedCacheable = active;
+        days.invalidateAll();
+    }
+
+    /**
+     * Only today and yesterday (for shifts past midnight) are asked for; free older days as the date rolls over
+     */
+    @Scheduled(cron = "0 0 0 * * *", zone = "${app.timezone:Asia/Colombo}")
+    public void evictPastDays() {
+        LocalDate yesterday = today().minusDays(1);
+        days.asMap().keySet().removeIf(key -> key.date.isBefore(yesterday));
+    }
+
+    /**
+     * Null for a day that has not started, which is only cached while other nodes can invalidate it
+     */
+    private Day dayOf(EmployeeDayLog dayLog) {
+        if (dayLog.getDayEndTime() != null) {
+            return new Day(DayState.ENDED, dayLog.getDayStartTime(), dayLog.getDayEndTime());
+        }
+        if (dayLog.getDayStartTime() != null) {
+            return new Day(DayState.STARTED, dayLog.getDayStartTime(), null);
+        }
+        return notStartedCacheable ? NOT_STARTED : null;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Day {
+        private final DayState state;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+    }
+
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    private static class DayKey {
+        private final Long employeeId;
+        private final LocalDate date;
+    }
+}
@@ -0,0 +1,218 @@
+package com.gms.service;
+
+import com.gms.entity.MiniJobCard;
+import com.gms.enums.ImageSize;
+import com.gms.exception.InvalidImageException;
+import com.gms.exception.ResourceNotFoundException;
+import com.gms.repository.MiniJobCardRepository;
+import com.gms.storage.ObjectDownloadWriter;
+import com.gms.storage.ObjectStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Job card photos: bytes go to the ObjectStore, the card row only keeps key, type and size
+ */
+@Service
+@RequiredArgsConstructor
+public class JobCardImageService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobCardImageService.class);
+
+    private static final String THUMBNAIL_CONTENT_TYPE = "image/jpeg";
+    private static final String WEBP_CONTENT_TYPE = "image/webp";
+    private static final Set<String> SERVED_CONTENT_TYPES =
+        Set.of(MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, WEBP_CONTENT_TYPE);
+
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] RIFF_MAGIC = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_MAGIC = {'W', 'E', 'B', 'P'};
+    // Image URLs carry the object version (?v=), so a matching request can be cached for good
+    private static final String CACHE_IMMUTABLE = "private, max-age=31536000, immutable";
+    private static final String CACHE_REVALIDATE = "private, no-cache";
+
+    private final MiniJobCardRepository jobCardRepository;
+    private final ObjectStore objectStore;
+    private final ObjectDownloadWriter downloadWriter;
+    private final ThumbnailService thumbnailService;
+
+    /**
+     * Stream the uploaded part into the store, then point the card at it.
+     * No transaction is held while the bytes are copied.
+     */
+    public void upload(Long jobCardId, Long employeeId, MultipartFile file) throws IOException {
+        MiniJobCard jobCard = findOwnedJobCard(jobCardId, employeeId);
+        String contentType = validateImage(file);
+
+        // A fresh key per upload, so a stored object never changes once written
+        String key = imageKey(jobCardId);
+        long size;
+        try (InputStream in = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(in)) {
+            size = objectStore.put(key, source);
+        }
+
+        try {
+            jobCardRepository.updateImage(jobCardId, key, contentType, size);
+        } catch (RuntimeException ex) {
+            deleteQuietly(key);
+            throw ex;
+        }
+
+        thumbnailService.generateAsync(key);
+
+        if (jobCard.getImageKey() != null) {
+            deleteQuietly(jobCard.getImageKey());
+        }
+    }
+
+    /**
+     * Serve the photo of one of the employee's own cards
+     */
+    public void download(Long jobCardId, Long employeeId, ImageSize size, String version,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(findOwnedJobCard(jobCardId, employeeId), size, version, request, response);
+    }
+
+    /**
+     * Serve the photo of any card, for admins reviewing work
+     */
+    public void downloadForReview(Long jobCardId, ImageSize size, String version,
+                                  HttpServletRequest request, HttpServletResponse response) throws IOException {
+        MiniJobCard jobCard = jobCardRepository.findById(jobCardId)
+            .orElseThrow(() -> new ResourceNotFoundException("Job card not found"));
+        serve(jobCard, size, version, request, response);
+    }
+
+    private void serve(MiniJobCard jobCard, ImageSize size, String version,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String imageKey = jobCard.getImageKey();
+        if (imageKey == null) {
+            throw new ResourceNotFoundException("Job card has no image");
+        }
+
+        String key = imageKey;
+        String contentType = jobCard.getImageContentType();
+        Long objectSize = jobCard.getImageSize();
+        ImageSize served = ImageSize.ORIGINAL;
+
+        if (size != ImageSize.ORIGINAL) {
+            // Falls back to the original while the thumbnail cannot be built
+            Optional<String> thumbnail = thumbnailService.findThumbnail(imageKey, size);
+            if (thumbnail.isPresent()) {
+                key = thumbnail.get();
+                contentType = THUMBNAIL_CONTENT_TYPE;
+                objectSize = null;
+                served = size;
+            }
+        }
+
+        // Keys never change once written, so the key's version plus the size is a strong ETag
+        String imageVersion = imageVersion(imageKey);
+        String etag = "\"" + imageVersion + "-" + served.name().toLowerCase() + "\"";
+        boolean immutable = served == size && imageVersion.equals(version);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable ? CACHE_IMMUTABLE : CACHE_REVALIDATE);
+        response.setHeader("X-Content-Type-Options", "nosniff");
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        if (objectSize == null) {
+            objectSize = objectStore.size(key);
+        }
+        // Rows stored before uploads were sniffed may carry any client-sent type
+        if (contentType == null || !SERVED_CONTENT_TYPES.contains(contentType)) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+        downloadWriter.write(objectStore, key, contentType, objectSize, request, response);
+    }
+
+    /**
+     * Key for a new image of the given card
+     */
+    public static String imageKey(Long jobCardId) {
+        return "job-cards/" + jobCardId + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Version token of an image key (its random last segment), used in image URLs and ETags
+     */
+    public static String imageVersion(String imageKey) {
+        return imageKey.substring(imageKey.lastIndexOf('/') + 1);
+    }
+
+    private MiniJobCard findOwnedJobCard(Long jobCardId, Long employeeId) {
+        return jobCardRepository.findByIdAndEmployeeId(jobCardId, employeeId)
+            .orElseThrow(() -> new ResourceNotFoundException("Job card not found"));
+    }
+
+    /**
+     * The content type comes from the file's leading bytes, not from what the client sent,
+     * so only JPEG, PNG and WebP are stored (no SVG or HTML served as an "image")
+     */
+    private String validateImage(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new InvalidImageException("Image file is empty");
+        }
+
+        byte[] header = new byte[12];
+        int read;
+        try (InputStream in = file.getInputStream()) {
+            read = in.readNBytes(header, 0, header.length);
+        }
+
+        return sniffImageType(header, read)
+            .orElseThrow(() -> new InvalidImageException("Only JPEG, PNG or WebP images can be uploaded"));
+    }
+
+    private static Optional<String> sniffImageType(byte[] header, int length) {
+        if (startsWith(header, length, 0, JPEG_MAGIC)) {
+            return Optional.of(MediaType.IMAGE_JPEG_VALUE);
+        }
+        if (startsWith(header, length, 0, PNG_MAGIC)) {
+            return Optional.of(MediaType.IMAGE_PNG_VALUE);
+        }
+        if (startsWith(header, length, 0, RIFF_MAGIC) && startsWith(header, length, 8, WEBP_MAGIC)) {
+            return Optional.of(WEBP_CONTENT_TYPE);
+        }
+        return Optional.empty();
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] magic) {
+        if (length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[offset + i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            objectStore.delete(key);
+            thumbnailService.deleteThumbnails(key);
+        } catch (IOException ex) {
+            log.warn("Could not delete stored object {}: {}", key, ex.getMessage());
+        }
+    }
+}
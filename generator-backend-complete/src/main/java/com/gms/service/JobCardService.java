@@ -1,30 +1,38 @@
 package com.gms.service;
 
 import com.gms.dto.request.StatusUpdateRequest;
+import com.gms.dto.response.CursorPage;
 import com.gms.dto.response.GeneratorResponse;
 import com.gms.dto.response.JobCardResponse;
 import com.gms.entity.*;
+import com.gms.enums.ImageSize;
 import com.gms.enums.JobStatus;
 import com.gms.exception.DayNotStartedException;
-import com.gms.exception.InvalidStatusTransitionException;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.*;
+import com.gms.service.duration.StatusDurationService;
+import com.gms.service.statuslog.StatusLogEntry;
+import com.gms.service.statuslog.StatusLogWriter;
+import com.gms.statemachine.StatusTransitions;
+import com.gms.util.CursorPaging;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class JobCardService {
     
     private final MiniJobCardRepository jobCardRepository;
-    private final JobStatusLogRepository statusLogRepository;
-    private final EmployeeDayLogRepository dayLogRepository;
-    private final UserRepository userRepository;
+    private final StatusLogWriter statusLogWriter;
+    private final StatusDurationService statusDurationService;
+    private final DayStatusCache dayStatusCache;
+    private final CursorPaging cursorPaging;
     
     public Page<JobCardResponse> getEmployeeJobCards(Long employeeId, JobStatus status, Pageable pageable) {
         Page<MiniJobCard> jobCards;
@@ -38,51 +46,70 @@ public class JobCardService {
         return jobCards.map(this::mapToResponse);
     }
     
+    public CursorPage<JobCardResponse> getEmployeeJobCardsByCursor(Long employeeId, JobStatus status,
+                                                                   String cursor, int size) {
+        long afterId = cursorPaging.afterId(cursor);
+        List<MiniJobCard> jobCards;
+        
+        if (status != null) {
+            jobCards = jobCardRepository.findPageByEmployeeIdAndStatusAfter(
+                employeeId, status, afterId, cursorPaging.request(size));
+        } else {
+            jobCards = jobCardRepository.findPageByEmployeeIdAfter(employeeId, afterId, cursorPaging.request(size));
+        }
+        
+        return cursorPaging.page(jobCards, size, MiniJobCard::getId, this::mapToResponse);
+    }
+    
+    @Transactional(readOnly = true)
+    public JobCardResponse getEmployeeJobCard(Long jobCardId, Long employeeId) {
+        return jobCardRepository.findByIdAndEmployeeIdWithDetails(jobCardId, employeeId)
+            .map(this::mapToResponse)
+            .orElseThrow(() -> new ResourceNotFoundException("Job card not found"));
+    }
+    
     @Transactional
     public JobCardResponse updateStatus(Long jobCardId, Long employeeId, StatusUpdateRequest request) {
-        // Check day started
-        LocalDate today = LocalDate.now();
-        EmployeeDayLog dayLog = dayLogRepository.findByEmployeeIdAndDayDate(employeeId, today)
-            .orElseThrow(() -> new DayNotStartedException("Please start your day first"));
+        // Check day started (cached, no query once the day is known to be running)
+        DayStatusCache.DayState dayState = dayStatusCache.getState(employeeId, dayStatusCache.currentDay(employeeId));
         
-        if (dayLog.getDayStartTime() == null) {
+        if (dayState == DayStatusCache.DayState.NOT_STARTED) {
             throw new DayNotStartedException("Please start your day first");
         }
         
-        if (dayLog.getDayEndTime() != null) {
+        if (dayState == DayStatusCache.DayState.ENDED) {
             throw new IllegalStateException("Day already ended. Cannot update status");
         }
         
-        // Get job card
-        MiniJobCard jobCard = jobCardRepository.findById(jobCardId)
+        // Card, ticket, generator and employee in one query; someone else's card is not found
+        MiniJobCard jobCard = jobCardRepository.findForStatusUpdate(jobCardId, employeeId)
             .orElseThrow(() -> new ResourceNotFoundException("Job card not found"));
         
         // Validate transition
-        if (!jobCard.getStatus().canTransitionTo(request.getNewStatus())) {
-            throw new InvalidStatusTransitionException(
-                String.format("Cannot transition from %s to %s", jobCard.getStatus(), request.getNewStatus())
-            );
-        }
+        StatusTransitions.JOB_CARD.check(jobCard.getStatus(), request.getNewStatus());
         
         // Create status log
-        User employee = userRepository.findById(employeeId)
-            .orElseThrow(() -> new ResourceNotFoundException("Employee not found"));
+        User employee = jobCard.getEmployee();
         
-        JobStatusLog log = JobStatusLog.builder()
-            .miniJobCard(jobCard)
+        statusLogWriter.append(StatusLogEntry.builder()
+            .jobCardId(jobCard.getId())
             .generator(jobCard.getMainTicket().getGenerator().getName())
             .employeeEmail(employee.getEmail())
             .passStatus(jobCard.getStatus())
             .newStatus(request.getNewStatus())
             .latitude(request.getLatitude())
             .longitude(request.getLongitude())
-            .updatedBy(employee)
-            .build();
+            .updatedById(employee.getId())
+            .build());
         
-        statusLogRepository.save(log);
+        // Close the interval spent in the old status
+        LocalDateTime now = LocalDateTime.now();
+        statusDurationService.recordTransition(jobCard.getId(), employee.getId(),
+            jobCard.getStatus(), jobCard.getStatusChangedAt(), now);
         
         // Update job card
         jobCard.setStatus(request.getNewStatus());
+        jobCard.setStatusChangedAt(now);
         
         if (request.getNewStatus() == JobStatus.STARTED && jobCard.getStartTime() == null) {
             jobCard.setStartTime(java.time.LocalDateTime.now());
@@ -102,6 +129,17 @@ public class JobCardService {
         return mapToResponse(jobCard);
     }
     
+    /**
+     * Versioned image URL, so clients may cache it forever; null when the card has no photo
+     */
+    private String imageUrl(MiniJobCard jobCard, ImageSize size) {
+        if (jobCard.getImageKey() == null) {
+            return null;
+        }
+        return "/api/employee/job-cards/" + jobCard.getId() + "/image?size=" + size.name()
+            + "&v=" + JobCardImageService.imageVersion(jobCard.getImageKey());
+    }
+    
     private JobCardResponse mapToResponse(MiniJobCard jobCard) {
         Generator gen = jobCard.getMainTicket().getGenerator();
         
@@ -127,7 +165,8 @@ public class JobCardService {
             .endTime(jobCard.getEndTime())
             .workMinutes(jobCard.getWorkMinutes())
             .approved(jobCard.getApproved())
-            .image(jobCard.getImage())
+            .imageUrl(imageUrl(jobCard, ImageSize.ORIGINAL))
+            .thumbnailUrl(imageUrl(jobCard, ImageSize.SMALL))
             .createdAt(jobCard.getCreatedAt())
             .build();
     }
@@ -0,0 +1,239 @@
+package com.gms.service;
+
+import com.gms.entity.RefreshToken;
+import com.gms.exception.UnauthorizedException;
+import com.gms.security.JwtTokenProvider;
+import com.gms.security.TokenRevocationService;
+import com.gms.security.UserPrincipal;
+import com.gms.security.token.RefreshTokenStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and revokes refresh tokens held in the {@link RefreshTokenStore}
+ *
+ * A token presented again within auth.refresh-token-reuse.grace-seconds of its rotation,
+ * e.g. by a second tab refreshing at the same moment, gets the successor it was rotated
+ * to instead of counting as reuse. Successors are remembered on the node that issued them.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final String DEFAULT_DEVICE_ID = "default";
+
+    private final RefreshTokenStore refreshTokenStore;
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRevocationService tokenRevocationService;
+    private final Duration reuseGrace;
+    private final int purgeBatchSize;
+
+    // Presented token hash -> the rotation it got, for the grace window
+    private final Cache<String, Rotation> recentRotations;
+
+    public RefreshTokenService(RefreshTokenStore refreshTokenStore,
+                               JwtTokenProvider tokenProvider,
+                               TokenRevocationService tokenRevocationService,
+                               @Value("${auth.refresh-token-reuse.grace-seconds:10}") long graceSeconds,
+                               @Value("${auth.refresh-token-reuse.max-size:10000}") long maxSize,
+                               @Value("${auth.refresh-token-purge.batch-size:1000}") int purgeBatchSize) {
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.reuseGrace = Duration.ofSeconds(graceSeconds);
+        this.purgeBatchSize = purgeBatchSize;
+        this.recentRotations = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(reuseGrace)
+            .build();
+    }
+
+    /**
+     * Issue a refresh token for a fresh login; replaces any active token of the same device
+     */
+    public String issue(UserPrincipal principal, String fullName, String deviceId) {
+        String device = deviceId != null && !deviceId.isBlank() ? deviceId : DEFAULT_DEVICE_ID;
+        LocalDateTime now = LocalDateTime.now();
+
+        refreshTokenStore.revokeDevice(principal.getId(), device, now);
+
+        String token = tokenProvider.generateRefreshToken(principal.getId());
+        refreshTokenStore.save(RefreshToken.builder()
+            .tokenHash(hash(token))
+            .userId(principal.getId())
+            .username(principal.getUsername())
+            .fullName(fullName)
+            .role(principal.getRole())
+            .tokenVersion(principal.getTokenVersion())
+            .deviceId(device)
+            .familyId(UUID.randomUUID().toString())
+            .expiresAt(expiryOf(token))
+            .build());
+        return token;
+    }
+
+    /**
+     * Exchange a refresh token for its successor. Presenting a token that was already
+     * rotated or revoked, outside the grace window, revokes every token descended from
+     * the same login. The revoke and the successor commit together; family revocations
+     * commit even though the call fails.
+     */
+    @Transactional(noRollbackFor = UnauthorizedException.class)
+    public Rotation rotate(String presentedToken) {
+        if (!tokenProvider.validateToken(presentedToken)) {
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        String presentedHash = hash(presentedToken);
+        RefreshToken current = refreshTokenStore.findByTokenHash(presentedHash)
+            .orElseThrow(() -> new UnauthorizedException("Invalid refresh token"));
+
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new UnauthorizedException("Refresh token expired");
+        }
+
+        if (!refreshTokenStore.revokeIfActive(current, now)) {
+            return rotated(current, presentedHash, now);
+        }
+
+        UserPrincipal principal = new UserPrincipal(
+            current.getUserId(),
+            current.getUsername(),
+            null,
+            current.getRole(),
+            true,
+            current.getTokenVersion() != null ? current.getTokenVersion() : 0
+        );
+
+        // Deactivation or a password change since login invalidates the whole family
+        if (!tokenRevocationService.isCurrent(principal)) {
+            refreshTokenStore.revokeFamily(current.getFamilyId(), now);
+            throw new UnauthorizedException("Refresh token has been revoked");
+        }
+
+        String token = tokenProvider.generateRefreshToken(current.getUserId());
+        refreshTokenStore.save(RefreshToken.builder()
+            .tokenHash(hash(token))
+            .userId(current.getUserId())
+            .username(current.getUsername())
+            .fullName(current.getFullName())
+            .role(current.getRole())
+            .tokenVersion(current.getTokenVersion())
+            .deviceId(current.getDeviceId())
+            .familyId(current.getFamilyId())
+            .parentId(current.getId())
+            .expiresAt(expiryOf(token))
+            .build());
+
+        Rotation rotation = new Rotation(principal, current.getFullName(), token);
+        rememberAfterCommit(presentedHash, rotation);
+        return rotation;
+    }
+
+    /**
+     * The token was already revoked: a concurrent refresh of it within the grace window,
+     * or a replay of a stolen token
+     */
+    private Rotation rotated(RefreshToken current, String presentedHash, LocalDateTime now) {
+        // Asks the store: a refresh that waited on the rotating one's row lock still holds the old row
+        if (refreshTokenStore.hasSuccessorSince(current, now.minus(reuseGrace))) {
+            Rotation rotation = recentRotations.getIfPresent(presentedHash);
+            if (rotation != null && isActive(rotation.getRefreshToken(), now)
+                    && tokenRevocationService.isCurrent(rotation.getPrincipal())) {
+                return rotation;
+            }
+            // Rotated moments ago on another node (or since logged out): refuse without ending the session
+            throw new UnauthorizedException("Refresh token was just rotated");
+        }
+
+        log.warn("Reuse of rotated refresh token detected for user {}; revoking token family", current.getUserId());
+        refreshTokenStore.revokeFamily(current.getFamilyId(), now);
+        throw new UnauthorizedException("Refresh token has been revoked");
+    }
+
+    private boolean isActive(String token, LocalDateTime now) {
+        return refreshTokenStore.findByTokenHash(hash(token))
+            .filter(stored -> stored.getRevokedAt() == null && stored.getExpiresAt().isAfter(now))
+            .isPresent();
+    }
+
+    // Only a committed successor may be handed out again
+    private void rememberAfterCommit(String presentedHash, Rotation rotation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recentRotations.put(presentedHash, rotation);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentRotations.put(presentedHash, rotation);
+            }
+        });
+    }
+
+    public void revokeAll(Long userId) {
+        refreshTokenStore.revokeAllForUser(userId, LocalDateTime.now());
+    }
+
+    /**
+     * Delete expired tokens in batches so no single statement locks the table for long
+     */
+    @Scheduled(fixedDelayString = "${auth.refresh-token-purge.interval-ms:3600000}")
+    public void purgeExpiredTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenStore.purgeExpired(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+    }
+
+    private LocalDateTime expiryOf(String token) {
+        Claims claims = tokenProvider.validateAndGetClaims(token)
+            .orElseThrow(() -> new IllegalStateException("Issued refresh token failed validation"));
+        return LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault());
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final UserPrincipal principal;
+        private final String fullName;
+        private final String refreshToken;
+    }
+}
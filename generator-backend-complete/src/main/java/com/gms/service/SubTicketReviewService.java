@@ -0,0 +1,163 @@
+package com.gms.service;
+
+import com.gms.dto.projection.SubTicketReviewRow;
+import com.gms.dto.request.BulkApprovalRequest;
+import com.gms.dto.response.BulkApprovalResponse;
+import com.gms.enums.TicketStatus;
+import com.gms.repository.SubTicketRepository;
+import com.gms.service.score.ApprovedScore;
+import com.gms.service.score.EmployeeScoreService;
+import com.gms.statemachine.StatusTransitions;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approves or rejects many sub-tickets at once.
+ *
+ * Every sub-ticket is checked with one query, scores are computed in memory and all
+ * decisions go out as one JDBC batch. Each update is conditional on the version the admin
+ * reviewed (the item's version, or the one read here if the client sent none), so a
+ * sub-ticket changed since fails on its own instead of being overwritten.
+ */
+@Service
+@RequiredArgsConstructor
+public class SubTicketReviewService {
+
+    private static final String REVIEW_UPDATE =
+        "UPDATE sub_tickets SET status = ?, approved = ?, " +
+            "completion_factor = COALESCE(?, completion_factor), quality_factor = COALESCE(?, quality_factor), " +
+            "score = COALESCE(?, score), approved_by = ?, approved_at = ?, admin_review_notes = ?, updated_at = ?, " +
+            "version = version + 1 WHERE id = ? AND version = ?";
+
+    private static final String CHANGED = "Sub-ticket was changed by another request; reload it and review again";
+
+    private final SubTicketRepository subTicketRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EmployeeScoreService employeeScoreService;
+    private final ConflictRetry conflictRetry;
+
+    /**
+     * Score for approved work: weight × completionFactor × qualityFactor
+     */
+    public static double score(Integer weight, double completionFactor, double qualityFactor) {
+        return weight * completionFactor * qualityFactor;
+    }
+
+    @Transactional
+    public BulkApprovalResponse reviewAll(Long adminId, List<BulkApprovalRequest.Item> items) {
+        Set<Long> ids = items.stream().map(BulkApprovalRequest.Item::getSubTicketId).collect(Collectors.toSet());
+        Map<Long, SubTicketReviewRow> rows = subTicketRepository.findReviewRowsByIdIn(ids).stream()
+            .collect(Collectors.toMap(SubTicketReviewRow::getId, Function.identity()));
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp reviewedAt = Timestamp.valueOf(now);
+
+        BulkApprovalResponse.ItemResult[] results = new BulkApprovalResponse.ItemResult[items.size()];
+        List<Integer> batched = new ArrayList<>();
+        List<Object[]> batchArgs = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        int stale = 0;
+
+        for (int i = 0; i < items.size(); i++) {
+            BulkApprovalRequest.Item item = items.get(i);
+            Long id = item.getSubTicketId();
+            SubTicketReviewRow row = rows.get(id);
+            TicketStatus target = item.getApproved() ? TicketStatus.APPROVED : TicketStatus.REJECTED;
+
+            if (!seen.add(id)) {
+                results[i] = failure(id, "Sub-ticket appears more than once in the request");
+                continue;
+            }
+            if (row == null) {
+                results[i] = failure(id, "Sub-ticket not found");
+                continue;
+            }
+            // Compared here as well as in the UPDATE, so a stale item is not scored or counted as a transition error
+            Long expectedVersion = item.getVersion() != null ? item.getVersion() : row.getVersion();
+            if (!expectedVersion.equals(row.getVersion())) {
+                results[i] = failure(id, CHANGED);
+                stale++;
+                continue;
+            }
+            if (!StatusTransitions.SUB_TICKET.canTransition(row.getStatus(), target)) {
+                results[i] = failure(id, String.format("Cannot transition from %s to %s", row.getStatus(), target));
+                continue;
+            }
+
+            Double completionFactor = null;
+            Double qualityFactor = null;
+            Double score = null;
+            if (item.getApproved()) {
+                // Factors default to 1.0 if not provided, as for a single approval
+                completionFactor = item.getCompletionFactor() != null ? item.getCompletionFactor() : 1.0;
+                qualityFactor = item.getQualityFactor() != null ? item.getQualityFactor() : 1.0;
+                score = score(row.getWeight(), completionFactor, qualityFactor);
+            }
+
+            results[i] = BulkApprovalResponse.ItemResult.builder()
+                .subTicketId(id)
+                .success(true)
+                .status(target)
+                .score(score)
+                .build();
+            batched.add(i);
+            batchArgs.add(new Object[]{target.name(), item.getApproved(), completionFactor, qualityFactor, score,
+                adminId, reviewedAt, item.getAdminReviewNotes(), reviewedAt, id, expectedVersion});
+        }
+
+        if (!batchArgs.isEmpty()) {
+            int[] types = {Types.VARCHAR, Types.BOOLEAN, Types.DOUBLE, Types.DOUBLE, Types.DOUBLE,
+                Types.BIGINT, Types.TIMESTAMP, Types.VARCHAR, Types.TIMESTAMP, Types.BIGINT, Types.BIGINT};
+            int[] counts = jdbcTemplate.batchUpdate(REVIEW_UPDATE, batchArgs, types);
+            for (int j = 0; j < counts.length; j++) {
+                if (counts[j] == 0) {
+                    int i = batched.get(j);
+                    results[i] = failure(results[i].getSubTicketId(), CHANGED);
+                    stale++;
+                }
+            }
+        }
+        conflictRetry.recordConflicts("sub-ticket.bulk-review", stale);
+
+        // Approvals that went through add to the employees' scores
+        List<ApprovedScore> approvedScores = new ArrayList<>();
+        for (int i : batched) {
+            BulkApprovalResponse.ItemResult result = results[i];
+            if (result.isSuccess() && result.getStatus() == TicketStatus.APPROVED) {
+                SubTicketReviewRow row = rows.get(result.getSubTicketId());
+                approvedScores.add(new ApprovedScore(row.getEmployeeId(), row.getEmployeeName(), row.getMainTicketId(),
+                    row.getId(), row.getWeight(), result.getScore(), adminId, now));
+            }
+        }
+        employeeScoreService.recordApprovals(approvedScores);
+
+        List<BulkApprovalResponse.ItemResult> resultList = List.of(results);
+        int succeeded = (int) resultList.stream().filter(BulkApprovalResponse.ItemResult::isSuccess).count();
+        return BulkApprovalResponse.builder()
+            .succeeded(succeeded)
+            .failed(resultList.size() - succeeded)
+            .results(resultList)
+            .build();
+    }
+
+    private BulkApprovalResponse.ItemResult failure(Long subTicketId, String error) {
+        return BulkApprovalResponse.ItemResult.builder()
+            .subTicketId(subTicketId)
+            .success(false)
+            .error(error)
+            .build();
+    }
+}
@@ -0,0 +1,255 @@
+package com.gms.service;
+
+import com.gms.enums.ImageSize;
+import com.gms.storage.ObjectStore;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds JPEG thumbnails of stored photos with plain javax.imageio, on a small bounded pool.
+ *
+ * Thumbnails are stored next to the original (same key plus a size suffix) and are
+ * normally created right after upload. When the queue is full the upload is not held
+ * up; the thumbnail is then built on first request instead.
+ *
+ * A photo that could not be thumbnailed is remembered for a while, so requests for its
+ * thumbnails go straight to the original instead of decoding it again.
+ */
+@Service
+public class ThumbnailService {
+
+    private static final Logger log = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final ImageSize[] THUMBNAIL_SIZES = {ImageSize.MEDIUM, ImageSize.SMALL};
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final ObjectStore objectStore;
+    private final ThreadPoolExecutor executor;
+    private final long waitMillis;
+    private final Map<String, Future<?>> inFlight = new ConcurrentHashMap<>();
+    // Original keys whose thumbnails failed; keys never change, so only transient errors expire usefully
+    private final Cache<String, Boolean> failed;
+    private final Timer generateTimer;
+    private final Counter rejectedCounter;
+    private final Counter failedCounter;
+
+    public ThumbnailService(ObjectStore objectStore,
+                            MeterRegistry meterRegistry,
+                            @Value("${storage.thumbnails.threads:2}") int threads,
+                            @Value("${storage.thumbnails.queue-capacity:100}") int queueCapacity,
+                            @Value("${storage.thumbnails.wait-ms:5000}") long waitMillis,
+                            @Value("${storage.thumbnails.failure-cache.max-size:10000}") long failureCacheSize,
+                            @Value("${storage.thumbnails.failure-cache.ttl-seconds:3600}") long failureTtlSeconds) {
+        this.objectStore = objectStore;
+        this.waitMillis = waitMillis;
+        this.failed = Caffeine.newBuilder()
+            .maximumSize(failureCacheSize)
+            .expireAfterWrite(Duration.ofSeconds(failureTtlSeconds))
+            .build();
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "thumbnail-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.generateTimer = Timer.builder("jobcard.thumbnail.generate")
+            .description("Time to decode a photo and write all its thumbnails")
+            .publishPercentileHistogram()
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("jobcard.thumbnail.rejected")
+            .description("Thumbnail jobs dropped because the queue was full")
+            .register(meterRegistry);
+        this.failedCounter = Counter.builder("jobcard.thumbnail.failed")
+            .description("Photos that could not be decoded or thumbnailed")
+            .register(meterRegistry);
+        Gauge.builder("jobcard.thumbnail.queue.depth", executor, e -> e.getQueue().size())
+            .description("Thumbnail jobs waiting for a worker")
+            .register(meterRegistry);
+    }
+
+    public static String thumbnailKey(String originalKey, ImageSize size) {
+        return originalKey + "-" + size.name().toLowerCase() + ".jpg";
+    }
+
+    /**
+     * Queue thumbnail generation for a freshly stored photo; never blocks the caller
+     */
+    public void generateAsync(String originalKey) {
+        try {
+            submit(originalKey);
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            log.debug("Thumbnail queue full, {} will be thumbnailed on demand", originalKey);
+        }
+    }
+
+    /**
+     * Key of the requested thumbnail, building it first if needed.
+     * Empty when it cannot be produced (in time), so the caller can fall back to the original.
+     */
+    public Optional<String> findThumbnail(String originalKey, ImageSize size) {
+        if (failed.getIfPresent(originalKey) != null) {
+            return Optional.empty();
+        }
+
+        String key = thumbnailKey(originalKey, size);
+        try {
+            if (objectStore.exists(key)) {
+                return Optional.of(key);
+            }
+
+            submit(originalKey).get(waitMillis, TimeUnit.MILLISECONDS);
+            return objectStore.exists(key) ? Optional.of(key) : Optional.empty();
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            return Optional.empty();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (IOException | ExecutionException | TimeoutException ex) {
+            return Optional.empty();
+        }
+    }
+
+    public void deleteThumbnails(String originalKey) throws IOException {
+        failed.invalidate(originalKey);
+        for (ImageSize size : THUMBNAIL_SIZES) {
+            objectStore.delete(thumbnailKey(originalKey, size));
+        }
+    }
+
+    private Future<?> submit(String originalKey) {
+        // One job per photo, shared by the upload and any request that arrives meanwhile
+        return inFlight.computeIfAbsent(originalKey, key -> executor.submit(() -> {
+            try {
+                generateTimer.record(() -> generate(key));
+            } finally {
+                inFlight.remove(key);
+            }
+        }));
+    }
+
+    private void generate(String originalKey) {
+        try (SeekableByteChannel channel = objectStore.open(originalKey);
+             ImageInputStream in = ImageIO.createImageInputStream(Channels.newInputStream(channel))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+
+                // Decode once, subsampled to about twice the largest thumbnail,
+                // so the full-resolution bitmap is never held in memory
+                int longestEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, longestEdge / (THUMBNAIL_SIZES[0].getMaxEdge() * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage source = reader.read(0, param);
+
+                // Largest first; each smaller size is scaled from the previous one
+                for (ImageSize size : THUMBNAIL_SIZES) {
+                    source = scale(source, size.getMaxEdge());
+                    store(thumbnailKey(originalKey, size), source);
+                }
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException ex) {
+            failed.put(originalKey, Boolean.TRUE);
+            failedCounter.increment();
+            log.warn("Could not thumbnail {}: {}", originalKey, ex.getMessage());
+        }
+    }
+
+    private BufferedImage scale(BufferedImage source, int maxEdge) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        // JPEG has no alpha: paint transparent areas white
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private void store(String key, BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+
+        // Thumbnails are a few KB, so buffering them before the atomic put is fine
+        objectStore.put(key, Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,96 @@
+package com.gms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Allocates ticket numbers in format: TKT-YYYYMMDD-XXXX
+ *
+ * Each node reserves a block of numbers from the per-day counter row in one short
+ * transaction of its own and hands them out from memory, so concurrent creates on any
+ * node neither scan main_tickets nor wait on each other's counter row lock. Numbers left
+ * in a block when the node stops, the day rolls over or a create fails are skipped.
+ *
+ * Must be called before the create's transaction starts: the reservation needs its own
+ * connection, and taking a second one while holding the first can exhaust the pool.
+ */
+@Service
+public class TicketNumberAllocator {
+
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final String RESERVE =
+        "UPDATE ticket_number_counters SET last_value = last_value + ? WHERE day_key = ? RETURNING last_value";
+
+    // Seeded from tickets already numbered that day, e.g. by a version without the counter table
+    private static final String CREATE_IF_ABSENT =
+        "INSERT INTO ticket_number_counters (day_key, last_value) " +
+            "SELECT ?, COALESCE(MAX(CAST(SUBSTRING(ticket_number FROM 14) AS INTEGER)), 0) " +
+            "FROM main_tickets WHERE ticket_number LIKE ? " +
+            "ON CONFLICT (day_key) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+    private final int blockSize;
+
+    private String currentDay;
+    private long nextValue;
+    private long blockEnd;
+
+    public TicketNumberAllocator(JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${app.timezone:Asia/Colombo}") String timezone,
+                                 @Value("${business.ticket-number-block-size:10}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.zone = ZoneId.of(timezone);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    @Transactional(propagation = Propagation.NEVER)
+    public synchronized String nextTicketNumber() {
+        String day = LocalDate.now(zone).format(DAY_FORMAT);
+
+        if (!day.equals(currentDay) || nextValue > blockEnd) {
+            reserveBlock(day);
+        }
+
+        return "TKT-" + day + "-" + String.format("%04d", nextValue++);
+    }
+
+    private void reserveBlock(String day) {
+        // Commits before any ticket is written, so the counter row is locked for one statement only
+        long end = transactionTemplate.execute(status -> {
+            Long value = reserve(day);
+            if (value == null) {
+                // First block of the day; a concurrent create of the same row waits for ours, then does nothing
+                jdbcTemplate.update(CREATE_IF_ABSENT, day, "TKT-" + day + "-%");
+                value = reserve(day);
+            }
+            if (value == null) {
+                throw new IllegalStateException("Could not reserve ticket numbers for " + day);
+            }
+            return value;
+        });
+
+        currentDay = day;
+        nextValue = end - blockSize + 1;
+        blockEnd = end;
+    }
+
+    private Long reserve(String day) {
+        List<Long> values = jdbcTemplate.queryForList(RESERVE, Long.class, blockSize, day);
+        return values.isEmpty() ? null : values.get(0);
+    }
+}
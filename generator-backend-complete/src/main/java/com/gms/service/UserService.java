@@ -3,9 +3,12 @@ package com.gms.service;
 import com.gms.dto.request.UserRequest;
 import com.gms.entity.User;
 import com.gms.enums.Role;
+import com.gms.event.UserChangedEvent;
 import com.gms.exception.ResourceNotFoundException;
 import com.gms.repository.UserRepository;
+import com.gms.security.TokenRevocationService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -18,6 +21,8 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final ApplicationEventPublisher eventPublisher;
     
     public Page<User> getAllUsers(Role role, Pageable pageable) {
         if (role != null) {
@@ -64,15 +69,20 @@ public class UserService {
         
         if (request.getPassword() != null && !request.getPassword().isEmpty()) {
             user.setPassword(passwordEncoder.encode(request.getPassword()));
+            tokenRevocationService.revokeTokens(user);
         }
         
-        return userRepository.save(user);
+        User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+        return updatedUser;
     }
     
     @Transactional
     public void deleteUser(Long id) {
         User user = getUserById(id);
         user.setActive(false);
+        tokenRevocationService.revokeTokens(user);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
     }
 }
@@ -0,0 +1,61 @@
+package com.gms.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Working hours from business.work-start-time / work-end-time and the overtime they imply.
+ * Time before the start and after the end of the working day is overtime.
+ */
+@Component
+public class WorkHours {
+
+    private final LocalTime workStart;
+    private final LocalTime workEnd;
+
+    public WorkHours(@Value("${business.work-start-time:08:30:00}") String workStart,
+                     @Value("${business.work-end-time:17:30:00}") String workEnd) {
+        this.workStart = LocalTime.parse(workStart);
+        this.workEnd = LocalTime.parse(workEnd);
+    }
+
+    public LocalDateTime workEndOf(LocalDate date) {
+        return date.atTime(workEnd);
+    }
+
+    /**
+     * Morning overtime as known when the day starts
+     */
+    public int morningOtMinutes(LocalDateTime dayStart) {
+        return minutesBetween(dayStart, dayStart.toLocalDate().atTime(workStart));
+    }
+
+    /**
+     * Morning overtime of a finished day: only the part of it worked before the start time
+     */
+    public int morningOtMinutes(LocalDateTime dayStart, LocalDateTime dayEnd) {
+        LocalDateTime start = dayStart.toLocalDate().atTime(workStart);
+        return minutesBetween(dayStart, dayEnd.isBefore(start) ? dayEnd : start);
+    }
+
+    /**
+     * Time worked after the end of the working day the shift started on, so a shift past midnight counts in full
+     */
+    public int eveningOtMinutes(LocalDateTime dayStart, LocalDateTime dayEnd) {
+        LocalDateTime end = workEndOf(dayStart.toLocalDate());
+        return minutesBetween(dayStart.isAfter(end) ? dayStart : end, dayEnd);
+    }
+
+    public int totalWorkMinutes(LocalDateTime dayStart, LocalDateTime dayEnd) {
+        return (int) Duration.between(dayStart, dayEnd).toMinutes();
+    }
+
+    private int minutesBetween(LocalDateTime from, LocalDateTime to) {
+        return to.isAfter(from) ? (int) Duration.between(from, to).toMinutes() : 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.gms.service.duration;
+
+import com.gms.enums.JobStatus;
+import lombok.Value;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Seconds to add to the duration tables, merged per row key.
+ * Merging matters: one batched upsert may not touch the same row twice.
+ */
+class DurationIncrements {
+
+    private final Map<CardKey, Long> cardSeconds = new LinkedHashMap<>();
+    private final Map<EmployeeDayKey, Long> employeeDaySeconds = new LinkedHashMap<>();
+
+    /**
+     * Add the time a card spent in a status, splitting it across the days it covers
+     */
+    void add(Long jobCardId, Long employeeId, JobStatus status, LocalDateTime from, LocalDateTime to) {
+        // Whole seconds on both ends, so the per-day parts add up to the card total
+        LocalDateTime start = from.truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime stop = to.truncatedTo(ChronoUnit.SECONDS);
+        if (!stop.isAfter(start)) {
+            return;
+        }
+        cardSeconds.merge(new CardKey(jobCardId, status), ChronoUnit.SECONDS.between(start, stop), Long::sum);
+
+        while (start.isBefore(stop)) {
+            LocalDate day = start.toLocalDate();
+            LocalDateTime nextDay = day.plusDays(1).atStartOfDay();
+            LocalDateTime end = stop.isBefore(nextDay) ? stop : nextDay;
+            employeeDaySeconds.merge(new EmployeeDayKey(employeeId, day, status),
+                ChronoUnit.SECONDS.between(start, end), Long::sum);
+            start = end;
+        }
+    }
+
+    int size() {
+        return cardSeconds.size() + employeeDaySeconds.size();
+    }
+
+    boolean isEmpty() {
+        return cardSeconds.isEmpty() && employeeDaySeconds.isEmpty();
+    }
+
+    List<Object[]> cardRows() {
+        List<Object[]> rows = new ArrayList<>(cardSeconds.size());
+        cardSeconds.forEach((key, seconds) ->
+            rows.add(new Object[]{key.getJobCardId(), key.getStatus().name(), seconds}));
+        return rows;
+    }
+
+    List<Object[]> employeeDayRows() {
+        List<Object[]> rows = new ArrayList<>(employeeDaySeconds.size());
+        employeeDaySeconds.forEach((key, seconds) ->
+            rows.add(new Object[]{key.getEmployeeId(), Date.valueOf(key.getDay()), key.getStatus().name(), seconds}));
+        return rows;
+    }
+
+    void clear() {
+        cardSeconds.clear();
+        employeeDaySeconds.clear();
+    }
+
+    @Value
+    private static class CardKey {
+        Long jobCardId;
+        JobStatus status;
+    }
+
+    @Value
+    private static class EmployeeDayKey {
+        Long employeeId;
+        LocalDate day;
+        JobStatus status;
+    }
+}
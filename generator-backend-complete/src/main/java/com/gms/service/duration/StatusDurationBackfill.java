@@ -0,0 +1,229 @@
+package com.gms.service.duration;
+
+import com.gms.enums.JobStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rebuilds the duration tables from the whole of job_status_logs.
+ *
+ * The log is streamed through a server-side cursor ordered by card and logged_at, so only
+ * the previous row of the current card and one batch of increments are held in memory.
+ *
+ * The replay never locks the live tables. It runs in one repeatable-read snapshot and
+ * writes, into unlogged staging tables, the difference between the replayed totals and
+ * the live totals of that same snapshot. That difference is then added to the live rows
+ * with ordinary upserts, so status updates committed during the replay keep their
+ * seconds and reports keep reading while it runs. One rebuild at a time.
+ */
+@Component
+public class StatusDurationBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusDurationBackfill.class);
+
+    private static final String CARD_STAGING = "job_status_durations_rebuild";
+    private static final String EMPLOYEE_DAY_STAGING = "employee_status_durations_rebuild";
+    private static final String TRANSITION_STAGING = "status_changed_at_rebuild";
+
+    private static final String LOG_STREAM =
+        "SELECT l.mini_job_card_id, c.employee_id, l.new_status, l.logged_at " +
+            "FROM job_status_logs l JOIN mini_job_cards c ON c.id = l.mini_job_card_id " +
+            "ORDER BY l.mini_job_card_id, l.logged_at, l.id";
+
+    private static final String ADD_CARD_SECONDS =
+        "INSERT INTO %1$s (mini_job_card_id, status, total_seconds) %2$s " +
+            "ON CONFLICT (mini_job_card_id, status) " +
+            "DO UPDATE SET total_seconds = %1$s.total_seconds + EXCLUDED.total_seconds";
+
+    private static final String ADD_EMPLOYEE_DAY_SECONDS =
+        "INSERT INTO %1$s (employee_id, day_date, status, total_seconds) %2$s " +
+            "ON CONFLICT (employee_id, day_date, status) " +
+            "DO UPDATE SET total_seconds = %1$s.total_seconds + EXCLUDED.total_seconds";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate snapshotTransaction;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public StatusDurationBackfill(JdbcTemplate jdbcTemplate,
+                                  DataSource dataSource,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${reports.status-durations.backfill-fetch-size:1000}") int fetchSize,
+                                  @Value("${reports.status-durations.backfill-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The Postgres driver only streams with a fetch size inside a transaction
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * First start after the upgrade: the tables are new but the log already has history
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            Boolean needed = jdbcTemplate.queryForObject(
+                "SELECT NOT EXISTS (SELECT 1 FROM job_status_durations) " +
+                    "AND EXISTS (SELECT 1 FROM job_status_logs)",
+                Boolean.class);
+            if (Boolean.TRUE.equals(needed)) {
+                rebuild();
+            }
+        } catch (DataAccessException ex) {
+            log.error("Status duration backfill failed; run it again from the admin reports API", ex);
+        }
+    }
+
+    /**
+     * Replace all duration rows with totals recomputed from the log; returns the log rows read
+     */
+    public synchronized long rebuild() {
+        createStaging();
+        try {
+            Long rows = snapshotTransaction.execute(status -> {
+                Replay replay = new Replay();
+                streamingJdbcTemplate.query(LOG_STREAM, replay::accept);
+                replay.finish();
+
+                // Staging now holds replayed minus live totals, as of the same snapshot
+                jdbcTemplate.update(String.format(ADD_CARD_SECONDS, CARD_STAGING,
+                    "SELECT mini_job_card_id, status, -total_seconds FROM job_status_durations"));
+                jdbcTemplate.update(String.format(ADD_EMPLOYEE_DAY_SECONDS, EMPLOYEE_DAY_STAGING,
+                    "SELECT employee_id, day_date, status, -total_seconds FROM employee_status_durations"));
+                return replay.rows;
+            });
+
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(String.format(ADD_CARD_SECONDS, "job_status_durations",
+                    "SELECT mini_job_card_id, status, total_seconds FROM " + CARD_STAGING + " WHERE total_seconds <> 0"));
+                jdbcTemplate.update(String.format(ADD_EMPLOYEE_DAY_SECONDS, "employee_status_durations",
+                    "SELECT employee_id, day_date, status, total_seconds FROM " + EMPLOYEE_DAY_STAGING +
+                        " WHERE total_seconds <> 0"));
+                // Rows only the old totals had; live updates never add zero seconds
+                jdbcTemplate.update("DELETE FROM job_status_durations WHERE total_seconds = 0");
+                jdbcTemplate.update("DELETE FROM employee_status_durations WHERE total_seconds = 0");
+            });
+
+            // Separately, so card rows are never locked while duration rows are held
+            jdbcTemplate.update(
+                "UPDATE mini_job_cards c SET status_changed_at = t.changed_at FROM " + TRANSITION_STAGING + " t " +
+                    "WHERE c.id = t.mini_job_card_id AND c.status_changed_at IS NULL");
+
+            log.info("Rebuilt status durations from {} status log rows", rows);
+            return rows;
+        } finally {
+            dropStaging();
+        }
+    }
+
+    private void createStaging() {
+        dropStaging();
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE " + CARD_STAGING + " (" +
+            "mini_job_card_id BIGINT NOT NULL, status VARCHAR(20) NOT NULL, total_seconds BIGINT NOT NULL, " +
+            "PRIMARY KEY (mini_job_card_id, status))");
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE " + EMPLOYEE_DAY_STAGING + " (" +
+            "employee_id BIGINT NOT NULL, day_date DATE NOT NULL, status VARCHAR(20) NOT NULL, " +
+            "total_seconds BIGINT NOT NULL, PRIMARY KEY (employee_id, day_date, status))");
+        jdbcTemplate.execute("CREATE UNLOGGED TABLE " + TRANSITION_STAGING + " (" +
+            "mini_job_card_id BIGINT PRIMARY KEY, changed_at TIMESTAMP NOT NULL)");
+    }
+
+    private void dropStaging() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + CARD_STAGING + ", " + EMPLOYEE_DAY_STAGING + ", " +
+            TRANSITION_STAGING);
+    }
+
+    private void writeStaging(DurationIncrements increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(String.format(ADD_CARD_SECONDS, CARD_STAGING, "VALUES (?, ?, ?)"),
+            increments.cardRows());
+        jdbcTemplate.batchUpdate(String.format(ADD_EMPLOYEE_DAY_SECONDS, EMPLOYEE_DAY_STAGING, "VALUES (?, ?, ?, ?)"),
+            increments.employeeDayRows());
+        increments.clear();
+    }
+
+    /**
+     * Walks the ordered log; each row closes the interval opened by the card's previous row
+     */
+    private class Replay {
+
+        private final DurationIncrements increments = new DurationIncrements();
+        // Cards whose status_changed_at is unknown, with the time of their last transition
+        private final List<Object[]> lastTransitions = new ArrayList<>();
+
+        private long rows;
+        private Long jobCardId;
+        private Long employeeId;
+        private JobStatus status;
+        private LocalDateTime since;
+
+        void accept(ResultSet rs) throws SQLException {
+            long cardId = rs.getLong("mini_job_card_id");
+            JobStatus newStatus = JobStatus.valueOf(rs.getString("new_status"));
+            LocalDateTime loggedAt = rs.getTimestamp("logged_at").toLocalDateTime();
+            rows++;
+
+            if (jobCardId == null || jobCardId != cardId) {
+                endCard();
+                jobCardId = cardId;
+                employeeId = rs.getLong("employee_id");
+            } else if (StatusDurationService.TRACKED.contains(status)) {
+                increments.add(jobCardId, employeeId, status, since, loggedAt);
+            }
+            status = newStatus;
+            since = loggedAt;
+
+            if (increments.size() >= batchSize) {
+                writeStaging(increments);
+            }
+        }
+
+        void finish() {
+            endCard();
+            writeStaging(increments);
+            flushLastTransitions();
+        }
+
+        private void endCard() {
+            if (jobCardId == null) {
+                return;
+            }
+            lastTransitions.add(new Object[]{Timestamp.valueOf(since), jobCardId});
+            if (lastTransitions.size() >= batchSize) {
+                flushLastTransitions();
+            }
+        }
+
+        private void flushLastTransitions() {
+            // Lets the next live transition of cards changed before this release add its interval
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO " + TRANSITION_STAGING + " (changed_at, mini_job_card_id) VALUES (?, ?)",
+                lastTransitions);
+            lastTransitions.clear();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.gms.service.duration;
+
+import com.gms.enums.JobStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Keeps job_status_durations (per card) and employee_status_durations (per employee and day)
+ * up to date, so reports read the totals instead of replaying job_status_logs.
+ */
+@Service
+@RequiredArgsConstructor
+public class StatusDurationService {
+
+    // Statuses whose time is worth reporting; PENDING is queue time, COMPLETED / CANCEL are final
+    static final Set<JobStatus> TRACKED = EnumSet.of(JobStatus.TRAVELING, JobStatus.STARTED, JobStatus.ON_HOLD);
+
+    private static final String ADD_CARD_SECONDS =
+        "INSERT INTO job_status_durations (mini_job_card_id, status, total_seconds) VALUES (?, ?, ?) " +
+            "ON CONFLICT (mini_job_card_id, status) " +
+            "DO UPDATE SET total_seconds = job_status_durations.total_seconds + EXCLUDED.total_seconds";
+
+    private static final String ADD_EMPLOYEE_DAY_SECONDS =
+        "INSERT INTO employee_status_durations (employee_id, day_date, status, total_seconds) VALUES (?, ?, ?, ?) " +
+            "ON CONFLICT (employee_id, day_date, status) " +
+            "DO UPDATE SET total_seconds = employee_status_durations.total_seconds + EXCLUDED.total_seconds";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add the interval a card just left a status after, in the caller's transaction.
+     * Untracked statuses and cards with no known start of the interval are ignored.
+     */
+    public void recordTransition(Long jobCardId, Long employeeId, JobStatus leftStatus,
+                                 LocalDateTime enteredAt, LocalDateTime leftAt) {
+        if (enteredAt == null || !TRACKED.contains(leftStatus)) {
+            return;
+        }
+
+        DurationIncrements increments = new DurationIncrements();
+        increments.add(jobCardId, employeeId, leftStatus, enteredAt, leftAt);
+        write(increments);
+    }
+
+    private void write(DurationIncrements increments) {
+        if (increments.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_CARD_SECONDS, increments.cardRows());
+        jdbcTemplate.batchUpdate(ADD_EMPLOYEE_DAY_SECONDS, increments.employeeDayRows());
+    }
+}
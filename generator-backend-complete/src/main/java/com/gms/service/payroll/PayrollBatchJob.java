@@ -0,0 +1,234 @@
+package com.gms.service.payroll;
+
+import com.gms.enums.OpenDayPolicy;
+import com.gms.service.WorkHours;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nightly close of past work days and the monthly payroll totals built from them.
+ *
+ * Days are processed in date order, in chunks of employee_day_logs rows by id, up to the last day
+ * none of whose shifts can still be running: every shift of a day started before its midnight,
+ * so the day is done business.max-shift-hours after that. With the default 16 hours the run at
+ * 00:30 stops at the day before yesterday, and a shift running past midnight is left to end.
+ * Each chunk is one transaction that closes days left open (by business.payroll.open-day-policy),
+ * recomputes their overtime from the configured working hours, adds them to payroll_summaries
+ * and advances the checkpoint. A job that stops halfway carries on from the next row, and the
+ * checkpoint row is locked per chunk so two nodes never process the same rows.
+ */
+@Component
+public class PayrollBatchJob {
+
+    private static final Logger log = LoggerFactory.getLogger(PayrollBatchJob.class);
+
+    private static final String JOB_NAME = "payroll";
+
+    private static final String CLOSE_DAY =
+        "UPDATE employee_day_logs SET day_end_time = ?, auto_closed = ?, morning_ot_minutes = ?, " +
+            "evening_ot_minutes = ?, total_work_minutes = ?, version = version + 1 WHERE id = ?";
+
+    private static final String ADD_TO_SUMMARY =
+        "INSERT INTO payroll_summaries (employee_id, period_start, days_worked, total_work_minutes, " +
+            "morning_ot_minutes, evening_ot_minutes, auto_closed_days, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (employee_id, period_start) DO UPDATE SET " +
+            "days_worked = payroll_summaries.days_worked + EXCLUDED.days_worked, " +
+            "total_work_minutes = payroll_summaries.total_work_minutes + EXCLUDED.total_work_minutes, " +
+            "morning_ot_minutes = payroll_summaries.morning_ot_minutes + EXCLUDED.morning_ot_minutes, " +
+            "evening_ot_minutes = payroll_summaries.evening_ot_minutes + EXCLUDED.evening_ot_minutes, " +
+            "auto_closed_days = payroll_summaries.auto_closed_days + EXCLUDED.auto_closed_days, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkHours workHours;
+    private final Clock clock;
+    private final OpenDayPolicy openDayPolicy;
+    private final int chunkSize;
+    private final Duration maxShift;
+
+    @Autowired
+    public PayrollBatchJob(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           WorkHours workHours,
+                           @Value("${app.timezone:Asia/Colombo}") String timezone,
+                           @Value("${business.payroll.open-day-policy:CLOSE_AT_WORK_END}") OpenDayPolicy openDayPolicy,
+                           @Value("${business.payroll.chunk-size:500}") int chunkSize,
+                           @Value("${business.max-shift-hours:16}") long maxShiftHours) {
+        this(jdbcTemplate, transactionManager, workHours, Clock.system(ZoneId.of(timezone)), openDayPolicy, chunkSize,
+            Duration.ofHours(maxShiftHours));
+    }
+
+    PayrollBatchJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, WorkHours workHours,
+                    Clock clock, OpenDayPolicy openDayPolicy, int chunkSize, Duration maxShift) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.workHours = workHours;
+        this.clock = clock;
+        this.openDayPolicy = openDayPolicy;
+        this.chunkSize = chunkSize;
+        this.maxShift = maxShift;
+    }
+
+    @Scheduled(cron = "${business.payroll.cron:0 30 0 * * *}", zone = "${app.timezone:Asia/Colombo}")
+    public void runNightly() {
+        try {
+            run();
+        } catch (RuntimeException ex) {
+            log.error("Payroll batch failed; it resumes from its checkpoint on the next run", ex);
+        }
+    }
+
+    /**
+     * Process every finished day that has not been processed yet
+     */
+    public Result run() {
+        LocalDate lastDay = LocalDateTime.now(clock).minus(maxShift).toLocalDate().minusDays(1);
+        jdbcTemplate.update(
+            "INSERT INTO batch_checkpoints (job_name, next_date, last_id, updated_at) " +
+                "SELECT ?, COALESCE(MIN(day_date), ?), 0, now() FROM employee_day_logs " +
+                "ON CONFLICT (job_name) DO NOTHING",
+            JOB_NAME, Date.valueOf(lastDay.plusDays(1)));
+
+        long rows = 0;
+        long autoClosed = 0;
+        Chunk chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> processChunk(lastDay));
+            rows += chunk.rows;
+            autoClosed += chunk.autoClosed;
+        } while (!chunk.last);
+
+        if (rows > 0) {
+            log.info("Payroll batch processed {} day logs, {} closed automatically", rows, autoClosed);
+        }
+        return new Result(rows, autoClosed);
+    }
+
+    private Chunk processChunk(LocalDate lastDay) {
+        Map<String, Object> checkpoint = jdbcTemplate.queryForMap(
+            "SELECT next_date, last_id FROM batch_checkpoints WHERE job_name = ? FOR UPDATE", JOB_NAME);
+        LocalDate day = ((Date) checkpoint.get("next_date")).toLocalDate();
+        long lastId = ((Number) checkpoint.get("last_id")).longValue();
+
+        if (day.isAfter(lastDay)) {
+            return new Chunk(0, 0, true);
+        }
+
+        List<DayRow> rows = jdbcTemplate.query(
+            "SELECT id, employee_id, day_start_time, day_end_time FROM employee_day_logs " +
+                "WHERE day_date = ? AND id > ? ORDER BY id LIMIT ?",
+            (rs, i) -> new DayRow(rs.getLong("id"), rs.getLong("employee_id"),
+                toLocalDateTime(rs.getTimestamp("day_start_time")), toLocalDateTime(rs.getTimestamp("day_end_time"))),
+            Date.valueOf(day), lastId, chunkSize);
+
+        if (rows.isEmpty()) {
+            // Day done: skip straight to the next day that has logs
+            LocalDate next = jdbcTemplate.queryForObject(
+                "SELECT MIN(day_date) FROM employee_day_logs WHERE day_date > ?", LocalDate.class, Date.valueOf(day));
+            saveCheckpoint(next != null ? next : lastDay.plusDays(1), 0);
+            return new Chunk(0, 0, false);
+        }
+
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        // Merged per employee: one batched upsert may not touch the same row twice
+        Map<Long, long[]> totals = new LinkedHashMap<>();
+        int autoClosed = 0;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now(clock));
+
+        for (DayRow row : rows) {
+            if (row.start == null) {
+                continue;
+            }
+            boolean closing = row.end == null;
+            LocalDateTime end = closing ? closingTime(row.start) : row.end;
+            int morning = workHours.morningOtMinutes(row.start, end);
+            int evening = workHours.eveningOtMinutes(row.start, end);
+            int worked = workHours.totalWorkMinutes(row.start, end);
+
+            updates.add(new Object[]{Timestamp.valueOf(end), closing, morning, evening, worked, row.id});
+            long[] sums = totals.computeIfAbsent(row.employeeId, id -> new long[5]);
+            sums[0]++;
+            sums[1] += worked;
+            sums[2] += morning;
+            sums[3] += evening;
+            sums[4] += closing ? 1 : 0;
+            autoClosed += closing ? 1 : 0;
+        }
+
+        Date periodStart = Date.valueOf(day.withDayOfMonth(1));
+        List<Object[]> summaryRows = new ArrayList<>(totals.size());
+        totals.forEach((employeeId, sums) -> summaryRows.add(new Object[]{
+            employeeId, periodStart, (int) sums[0], sums[1], sums[2], sums[3], (int) sums[4], now}));
+
+        jdbcTemplate.batchUpdate(CLOSE_DAY, updates);
+        jdbcTemplate.batchUpdate(ADD_TO_SUMMARY, summaryRows);
+        saveCheckpoint(day, rows.get(rows.size() - 1).id);
+
+        return new Chunk(rows.size(), autoClosed, false);
+    }
+
+    private LocalDateTime closingTime(LocalDateTime start) {
+        if (openDayPolicy == OpenDayPolicy.CLOSE_AT_START) {
+            return start;
+        }
+        LocalDateTime workEnd = workHours.workEndOf(start.toLocalDate());
+        return workEnd.isAfter(start) ? workEnd : start;
+    }
+
+    private void saveCheckpoint(LocalDate nextDate, long lastId) {
+        jdbcTemplate.update("UPDATE batch_checkpoints SET next_date = ?, last_id = ?, updated_at = now() WHERE job_name = ?",
+            Date.valueOf(nextDate), lastId, JOB_NAME);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @AllArgsConstructor
+    private static class DayRow {
+        private final long id;
+        private final long employeeId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+
+    @AllArgsConstructor
+    private static class Chunk {
+        private final int rows;
+        private final int autoClosed;
+        // Nothing left up to the last finished day
+        private final boolean last;
+    }
+
+    /**
+     * Day logs processed by one run, and how many of them were closed automatically
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final long rows;
+        private final long autoClosed;
+    }
+}
@@ -0,0 +1,191 @@
+package com.gms.service.report;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gms.dto.projection.ProductivityReportRow;
+import com.gms.enums.ExportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * Per-employee attendance, overtime, job card and approval totals over a date range.
+ *
+ * Everything is grouped in one SQL statement and read through a server-side cursor, and
+ * each row is written out as soon as it is read, so memory use does not depend on the
+ * number of employees. Runs on the streaming executor (see WebAsyncConfig).
+ */
+@Component
+public class ProductivityReport {
+
+    private static final String CSV_HEADER =
+        "employee_id,employee_name,days_worked,work_minutes,morning_ot_minutes,evening_ot_minutes," +
+            "jobs_assigned,jobs_completed,job_work_minutes,approved_tickets,total_score";
+
+    // Scores come from employee_scores, the per-approval copy of sub_tickets.score indexed by approved_at
+    private static final String REPORT =
+        "WITH days AS (" +
+            "SELECT employee_id, COUNT(day_start_time) AS days_worked, SUM(total_work_minutes) AS work_minutes, " +
+            "SUM(morning_ot_minutes) AS morning_ot, SUM(evening_ot_minutes) AS evening_ot " +
+            "FROM employee_day_logs WHERE day_date BETWEEN :fromDate AND :toDate GROUP BY employee_id" +
+        "), jobs AS (" +
+            "SELECT employee_id, " +
+            "COUNT(*) FILTER (WHERE created_at >= :fromTime AND created_at < :toTime) AS assigned, " +
+            "COUNT(*) FILTER (WHERE status = 'COMPLETED' AND end_time >= :fromTime AND end_time < :toTime) AS completed, " +
+            "SUM(work_minutes) FILTER (WHERE status = 'COMPLETED' AND end_time >= :fromTime AND end_time < :toTime) AS job_minutes " +
+            "FROM mini_job_cards " +
+            "WHERE (created_at >= :fromTime AND created_at < :toTime) OR (end_time >= :fromTime AND end_time < :toTime) " +
+            "GROUP BY employee_id" +
+        "), scores AS (" +
+            "SELECT employee_id, COUNT(*) AS approved, SUM(score) AS total_score FROM employee_scores " +
+            "WHERE approved_at >= :fromTime AND approved_at < :toTime GROUP BY employee_id" +
+        ") " +
+        "SELECT u.id, u.full_name, COALESCE(d.days_worked, 0) AS days_worked, COALESCE(d.work_minutes, 0) AS work_minutes, " +
+            "COALESCE(d.morning_ot, 0) AS morning_ot, COALESCE(d.evening_ot, 0) AS evening_ot, " +
+            "COALESCE(j.assigned, 0) AS assigned, COALESCE(j.completed, 0) AS completed, " +
+            "COALESCE(j.job_minutes, 0) AS job_minutes, COALESCE(s.approved, 0) AS approved, " +
+            "COALESCE(s.total_score, 0) AS total_score " +
+        "FROM users u " +
+        "LEFT JOIN days d ON d.employee_id = u.id " +
+        "LEFT JOIN jobs j ON j.employee_id = u.id " +
+        "LEFT JOIN scores s ON s.employee_id = u.id " +
+        "WHERE u.role = 'EMPLOYEE' AND (CAST(:employeeId AS bigint) IS NULL OR u.id = :employeeId) " +
+        "ORDER BY u.full_name, u.id";
+
+    private static final int FLUSH_INTERVAL = 200;
+
+    private final NamedParameterJdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public ProductivityReport(DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${reports.productivity.fetch-size:500}") int fetchSize) {
+        // The Postgres driver only streams with a fetch size inside a transaction
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(fetchSize);
+        this.streamingJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Both dates inclusive; employeeId limits the report to one employee
+     */
+    public StreamingResponseBody stream(LocalDate from, LocalDate to, Long employeeId, ExportFormat format) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("fromDate", Date.valueOf(from))
+            .addValue("toDate", Date.valueOf(to))
+            .addValue("fromTime", Timestamp.valueOf(from.atStartOfDay()))
+            .addValue("toTime", Timestamp.valueOf(to.plusDays(1).atStartOfDay()))
+            .addValue("employeeId", employeeId);
+
+        return outputStream -> readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                if (format == ExportFormat.CSV) {
+                    writeCsv(params, outputStream);
+                } else {
+                    writeJson(params, outputStream);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private void writeCsv(MapSqlParameterSource params, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+
+        int[] written = {0};
+        streamingJdbcTemplate.query(REPORT, params, rs -> {
+            ProductivityReportRow row = toRow(rs);
+            try {
+                writer.write(row.getEmployeeId() + "," + csv(row.getEmployeeName()) + "," + row.getDaysWorked() + "," +
+                    row.getWorkMinutes() + "," + row.getMorningOtMinutes() + "," + row.getEveningOtMinutes() + "," +
+                    row.getJobsAssigned() + "," + row.getJobsCompleted() + "," + row.getJobWorkMinutes() + "," +
+                    row.getApprovedTickets() + "," + row.getTotalScore().toPlainString() + "\r\n");
+                if (++written[0] % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+    }
+
+    private void writeJson(MapSqlParameterSource params, OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+            generator.writeStartArray();
+
+            int[] written = {0};
+            streamingJdbcTemplate.query(REPORT, params, rs -> {
+                try {
+                    generator.writeObject(toRow(rs));
+                    if (++written[0] % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+
+            generator.writeEndArray();
+        }
+    }
+
+    private ProductivityReportRow toRow(ResultSet rs) throws SQLException {
+        return new ProductivityReportRow(
+            rs.getLong("id"),
+            rs.getString("full_name"),
+            rs.getInt("days_worked"),
+            rs.getLong("work_minutes"),
+            rs.getLong("morning_ot"),
+            rs.getLong("evening_ot"),
+            rs.getInt("assigned"),
+            rs.getInt("completed"),
+            rs.getLong("job_minutes"),
+            rs.getInt("approved"),
+            rs.getBigDecimal("total_score"));
+    }
+
+    /**
+     * Quote a text field when it holds a separator, quote or line break (RFC 4180). A field a
+     * spreadsheet would read as a formula (=, +, - or @ first) is prefixed with ' to keep it text.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+}
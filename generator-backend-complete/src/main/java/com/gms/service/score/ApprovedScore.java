@@ -0,0 +1,22 @@
+package com.gms.service.score;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * One approved sub-ticket's score, as recorded in employee_scores
+ */
+@Value
+@AllArgsConstructor
+public class ApprovedScore {
+    Long employeeId;
+    String employeeName;
+    Long mainTicketId;
+    Long subTicketId;
+    Integer weight;
+    double score;
+    Long approvedById;
+    LocalDateTime approvedAt;
+}
@@ -0,0 +1,159 @@
+package com.gms.service.score;
+
+import com.gms.enums.ScorePeriod;
+import com.gms.event.EmployeeScoresRecordedEvent;
+import com.gms.event.EmployeeScoresRemovedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Appends employee_scores rows for approved sub-tickets and bumps the matching
+ * day / week / month totals in employee_score_aggregates, in the approval's transaction.
+ * Scores of a deleted or reassigned ticket are removed and taken off the totals again.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeScoreService {
+
+    private static final String INSERT_SCORE =
+        "INSERT INTO employee_scores (employee_id, main_ticket_id, sub_ticket_id, weight, score, approved_by, approved_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String BUMP_AGGREGATE =
+        "INSERT INTO employee_score_aggregates (employee_id, period, period_start, total_score, approved_count) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (employee_id, period, period_start) DO UPDATE SET " +
+            "total_score = employee_score_aggregates.total_score + EXCLUDED.total_score, " +
+            "approved_count = employee_score_aggregates.approved_count + EXCLUDED.approved_count";
+
+    private static final String DELETE_TICKET_SCORES =
+        "DELETE FROM employee_scores WHERE main_ticket_id = ? " +
+            "RETURNING employee_id, main_ticket_id, sub_ticket_id, weight, score, approved_by, approved_at";
+
+    private static final String DROP_EMPTY_AGGREGATE =
+        "DELETE FROM employee_score_aggregates " +
+            "WHERE employee_id = ? AND period = ? AND period_start = ? AND approved_count <= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public void recordApprovals(List<ApprovedScore> approvals) {
+        if (approvals.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> scoreRows = new ArrayList<>(approvals.size());
+        for (ApprovedScore approval : approvals) {
+            scoreRows.add(new Object[]{approval.getEmployeeId(), approval.getMainTicketId(), approval.getSubTicketId(),
+                String.valueOf(approval.getWeight()), rounded(approval.getScore()), approval.getApprovedById(),
+                Timestamp.valueOf(approval.getApprovedAt())});
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SCORE, scoreRows);
+        jdbcTemplate.batchUpdate(BUMP_AGGREGATE, aggregateRows(approvals, BigDecimal.ONE));
+
+        eventPublisher.publishEvent(new EmployeeScoresRecordedEvent(approvals));
+    }
+
+    /**
+     * Delete the scores of a ticket's sub-tickets before they are deleted or replaced, and take
+     * them off the aggregates and, once committed, the leaderboard. Returns the number removed.
+     */
+    public int removeTicketScores(Long mainTicketId) {
+        List<ApprovedScore> removed = jdbcTemplate.query(DELETE_TICKET_SCORES, (rs, rowNum) -> new ApprovedScore(
+            rs.getLong("employee_id"), null, rs.getLong("main_ticket_id"), rs.getLong("sub_ticket_id"),
+            Integer.valueOf(rs.getString("weight")), rs.getBigDecimal("score").doubleValue(),
+            rs.getLong("approved_by"), rs.getTimestamp("approved_at").toLocalDateTime()), mainTicketId);
+        if (removed.isEmpty()) {
+            return 0;
+        }
+
+        List<Object[]> bumpRows = aggregateRows(removed, BigDecimal.ONE.negate());
+        jdbcTemplate.batchUpdate(BUMP_AGGREGATE, bumpRows);
+        List<Object[]> keys = new ArrayList<>(bumpRows.size());
+        for (Object[] row : bumpRows) {
+            keys.add(new Object[]{row[0], row[1], row[2]});
+        }
+        jdbcTemplate.batchUpdate(DROP_EMPTY_AGGREGATE, keys);
+
+        eventPublisher.publishEvent(new EmployeeScoresRemovedEvent(removed));
+        return removed.size();
+    }
+
+    /**
+     * Aggregate upsert rows for the scores, added (sign 1) or subtracted (sign -1).
+     * Merged per aggregate row: one batched upsert may not touch the same row twice.
+     */
+    private static List<Object[]> aggregateRows(List<ApprovedScore> scores, BigDecimal sign) {
+        Map<List<Object>, BigDecimal[]> bumps = new LinkedHashMap<>();
+        for (ApprovedScore score : scores) {
+            BigDecimal amount = rounded(score.getScore()).multiply(sign);
+            LocalDate day = score.getApprovedAt().toLocalDate();
+            for (ScorePeriod period : ScorePeriod.values()) {
+                List<Object> key = List.of(score.getEmployeeId(), period.name(), period.startOf(day));
+                BigDecimal[] totals = bumps.computeIfAbsent(key, k -> new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+                totals[0] = totals[0].add(amount);
+                totals[1] = totals[1].add(sign);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>(bumps.size());
+        bumps.forEach((key, totals) -> rows.add(new Object[]{
+            key.get(0), key.get(1), Date.valueOf((LocalDate) key.get(2)), totals[0], totals[1].intValue()}));
+        return rows;
+    }
+
+    private static BigDecimal rounded(double score) {
+        return BigDecimal.valueOf(score).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Scores of sub-tickets approved before employee_scores was written: copy them over
+     * and recompute the aggregates. Returns the number of scores copied.
+     */
+    @Transactional
+    public int backfillFromSubTickets() {
+        int copied = jdbcTemplate.update(
+            "INSERT INTO employee_scores (employee_id, main_ticket_id, sub_ticket_id, weight, score, approved_by, approved_at) " +
+                "SELECT st.employee_id, st.main_ticket_id, st.id, CAST(mt.weight AS varchar), " +
+                "ROUND(CAST(st.score AS numeric), 2), st.approved_by, " +
+                "COALESCE(st.approved_at, st.updated_at, st.created_at) " +
+                "FROM sub_tickets st JOIN main_tickets mt ON mt.id = st.main_ticket_id " +
+                "WHERE st.status = 'APPROVED' AND st.score IS NOT NULL AND st.approved_by IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM employee_scores es WHERE es.sub_ticket_id = st.id)");
+
+        if (copied > 0) {
+            rebuildAggregates();
+        }
+        return copied;
+    }
+
+    private void rebuildAggregates() {
+        jdbcTemplate.update("DELETE FROM employee_score_aggregates");
+        for (ScorePeriod period : ScorePeriod.values()) {
+            String start = switch (period) {
+                case DAY -> "CAST(approved_at AS date)";
+                case WEEK -> "CAST(date_trunc('week', approved_at) AS date)";
+                case MONTH -> "CAST(date_trunc('month', approved_at) AS date)";
+            };
+            jdbcTemplate.update(
+                "INSERT INTO employee_score_aggregates (employee_id, period, period_start, total_score, approved_count) " +
+                    "SELECT employee_id, ?, " + start + ", SUM(score), COUNT(*) FROM employee_scores " +
+                    "GROUP BY employee_id, " + start,
+                period.name());
+        }
+    }
+}
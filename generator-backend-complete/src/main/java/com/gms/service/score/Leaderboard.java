@@ -0,0 +1,188 @@
+package com.gms.service.score;
+
+import com.gms.dto.response.LeaderboardEntry;
+import com.gms.enums.ScorePeriod;
+import com.gms.event.EmployeeScoresRecordedEvent;
+import com.gms.event.EmployeeScoresRemovedEvent;
+import com.gms.repository.EmployeeScoreAggregateRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current day, week and month rankings held in memory.
+ *
+ * Each board is loaded from employee_score_aggregates and then kept up to date with the
+ * approvals (and removed scores) this node commits. Boards are reloaded on a fixed interval, which picks up
+ * approvals made on other nodes and starts the next period after a rollover.
+ */
+@Component
+public class Leaderboard {
+
+    private static final Comparator<Standing> RANKING = Comparator
+        .comparing(Standing::getTotalScore).reversed()
+        .thenComparing(Standing::getApprovedCount, Comparator.reverseOrder())
+        .thenComparing(Standing::getEmployeeId);
+
+    private final EmployeeScoreAggregateRepository aggregateRepository;
+    private final Clock clock;
+    private final Map<ScorePeriod, Board> boards = new ConcurrentHashMap<>();
+
+    @Autowired
+    public Leaderboard(EmployeeScoreAggregateRepository aggregateRepository,
+                       @Value("${app.timezone:Asia/Colombo}") String timezone) {
+        this(aggregateRepository, Clock.system(ZoneId.of(timezone)));
+    }
+
+    Leaderboard(EmployeeScoreAggregateRepository aggregateRepository, Clock clock) {
+        this.aggregateRepository = aggregateRepository;
+        this.clock = clock;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${leaderboard.refresh-interval-ms:60000}",
+               initialDelayString = "${leaderboard.refresh-interval-ms:60000}")
+    public void reload() {
+        LocalDate today = LocalDate.now(clock);
+        for (ScorePeriod period : ScorePeriod.values()) {
+            boards.put(period, load(period, period.startOf(today)));
+        }
+    }
+
+    /**
+     * Highest totals of the current period, best first
+     */
+    public List<LeaderboardEntry> top(ScorePeriod period, int limit) {
+        LocalDate periodStart = period.startOf(LocalDate.now(clock));
+        Board board = boards.get(period);
+        if (board == null || !board.periodStart.equals(periodStart)) {
+            board = load(period, periodStart);
+            boards.put(period, board);
+        }
+        return board.top(limit);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresRecorded(EmployeeScoresRecordedEvent event) {
+        for (ApprovedScore score : event.getScores()) {
+            LocalDate day = score.getApprovedAt().toLocalDate();
+            for (ScorePeriod period : ScorePeriod.values()) {
+                Board board = boards.get(period);
+                if (board != null && board.periodStart.equals(period.startOf(day))) {
+                    board.add(score);
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onScoresRemoved(EmployeeScoresRemovedEvent event) {
+        for (ApprovedScore score : event.getScores()) {
+            LocalDate day = score.getApprovedAt().toLocalDate();
+            for (ScorePeriod period : ScorePeriod.values()) {
+                Board board = boards.get(period);
+                if (board != null && board.periodStart.equals(period.startOf(day))) {
+                    board.remove(score);
+                }
+            }
+        }
+    }
+
+    private Board load(ScorePeriod period, LocalDate periodStart) {
+        Board board = new Board(periodStart);
+        for (LeaderboardEntry entry : aggregateRepository.findEntries(period, periodStart)) {
+            board.put(new Standing(entry.getEmployeeId(), entry.getEmployeeName(),
+                entry.getTotalScore(), entry.getApprovedCount()));
+        }
+        return board;
+    }
+
+    /**
+     * One period's standings, kept both by employee and in rank order
+     */
+    private static class Board {
+
+        private final LocalDate periodStart;
+        private final Map<Long, Standing> byEmployee = new HashMap<>();
+        private final TreeSet<Standing> ranked = new TreeSet<>(RANKING);
+
+        Board(LocalDate periodStart) {
+            this.periodStart = periodStart;
+        }
+
+        synchronized void add(ApprovedScore score) {
+            Standing current = byEmployee.get(score.getEmployeeId());
+            BigDecimal total = BigDecimal.valueOf(score.getScore()).setScale(2, RoundingMode.HALF_UP);
+            int count = 1;
+            if (current != null) {
+                total = total.add(current.getTotalScore());
+                count += current.getApprovedCount();
+            }
+            put(new Standing(score.getEmployeeId(), score.getEmployeeName(), total, count));
+        }
+
+        synchronized void remove(ApprovedScore score) {
+            Standing current = byEmployee.get(score.getEmployeeId());
+            if (current == null) {
+                return;
+            }
+            BigDecimal total = current.getTotalScore()
+                .subtract(BigDecimal.valueOf(score.getScore()).setScale(2, RoundingMode.HALF_UP));
+            int count = current.getApprovedCount() - 1;
+            if (count <= 0) {
+                byEmployee.remove(current.getEmployeeId());
+                ranked.remove(current);
+                return;
+            }
+            put(new Standing(current.getEmployeeId(), current.getEmployeeName(), total, count));
+        }
+
+        synchronized void put(Standing standing) {
+            Standing previous = byEmployee.put(standing.getEmployeeId(), standing);
+            if (previous != null) {
+                ranked.remove(previous);
+            }
+            ranked.add(standing);
+        }
+
+        synchronized List<LeaderboardEntry> top(int limit) {
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, ranked.size()));
+            for (Standing standing : ranked) {
+                if (entries.size() >= limit) {
+                    break;
+                }
+                entries.add(new LeaderboardEntry(entries.size() + 1, standing.getEmployeeId(),
+                    standing.getEmployeeName(), standing.getTotalScore(), standing.getApprovedCount()));
+            }
+            return entries;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Standing {
+        private final Long employeeId;
+        private final String employeeName;
+        private final BigDecimal totalScore;
+        private final Integer approvedCount;
+    }
+}
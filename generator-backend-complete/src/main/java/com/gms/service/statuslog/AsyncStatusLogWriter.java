@@ -0,0 +1,484 @@
+package com.gms.service.statuslog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gms.entity.JobStatusLog;
+import com.gms.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Takes status log rows off the request path and inserts them in multi-row batches.
+ *
+ * append() reserves a slot in a bounded queue inside the caller's transaction; when the
+ * queue is full it fails with TooManyRequestsException (HTTP 429), which rolls the card
+ * update back with it. After commit the entry joins the open WAL group and the request
+ * waits for that group to be fsynced: a single WAL thread writes each group with one fsync,
+ * while the next group gathers, then hands its entries to the insert queue. A single
+ * flusher thread inserts whatever has queued up once batch-size entries are waiting
+ * or flush-interval-ms has passed. Entries that reached the WAL but were not checkpointed
+ * are inserted again on startup, so a crash may duplicate a few rows; only the short gap
+ * between the database commit and the WAL fsync is unprotected.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.status-log.mode", havingValue = "async")
+public class AsyncStatusLogWriter implements StatusLogWriter, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncStatusLogWriter.class);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO job_status_logs (id, mini_job_card_id, generator, employee_email, pass_status, " +
+        "new_status, latitude, longitude, logged_at, updated_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int ID_BLOCK = JobStatusLog.ID_ALLOCATION_SIZE;
+
+    // How long a committed request waits for its WAL group before answering anyway
+    private static final long WAL_WAIT_MILLIS = 5_000;
+
+    private static final long INITIAL_RETRY_DELAY_MILLIS = 500;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StatusLogWal wal;
+    private final Semaphore permits;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long acquireTimeoutMillis;
+
+    private final Timer flushTimer;
+    private final Counter flushedCounter;
+    private final Counter rejectedCounter;
+    private final Counter walSyncCounter;
+
+    // Entries committed since the WAL thread took the last group; guarded by walLock
+    private final Object walLock = new Object();
+    private WalGroup openGroup = new WalGroup();
+
+    private volatile boolean running;
+    private volatile boolean walRunning;
+    private Thread walWriter;
+    private Thread flusher;
+
+    public AsyncStatusLogWriter(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${audit.status-log.wal-dir:./data/wal}") String walDir,
+                                @Value("${audit.status-log.queue-capacity:10000}") int queueCapacity,
+                                @Value("${audit.status-log.batch-size:500}") int batchSize,
+                                @Value("${audit.status-log.flush-interval-ms:200}") long flushIntervalMillis,
+                                @Value("${audit.status-log.acquire-timeout-ms:100}") long acquireTimeoutMillis)
+            throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wal = new StatusLogWal(Paths.get(walDir), objectMapper);
+        this.permits = new Semaphore(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+
+        this.flushTimer = Timer.builder("audit.status-log.flush")
+            .description("Time to insert one batch of status log rows")
+            .register(meterRegistry);
+        this.flushedCounter = Counter.builder("audit.status-log.flushed")
+            .description("Status log rows inserted by the batch writer")
+            .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("audit.status-log.rejected")
+            .description("Status changes refused because the status log queue was full")
+            .register(meterRegistry);
+        this.walSyncCounter = Counter.builder("audit.status-log.wal.syncs")
+            .description("WAL fsyncs, each covering a group of committed status changes")
+            .register(meterRegistry);
+        Gauge.builder("audit.status-log.queue.depth", queue, BlockingQueue::size)
+            .description("Status log rows waiting to be inserted")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void append(StatusLogEntry entry) {
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment();
+                throw new TooManyRequestsException("Too many status updates in progress, please retry");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new TooManyRequestsException("Interrupted while waiting for the status log queue");
+        }
+
+        if (entry.getLoggedAt() == null) {
+            entry.setLoggedAt(LocalDateTime.now());
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+
+        // Only committed changes are logged; a rollback just gives the slot back
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    enqueue(entry);
+                } else {
+                    permits.release();
+                }
+            }
+        });
+    }
+
+    /**
+     * Join the open WAL group and wait until it is on disk
+     */
+    private void enqueue(StatusLogEntry entry) {
+        WalGroup group;
+        synchronized (walLock) {
+            group = openGroup;
+            group.entries.add(entry);
+            walLock.notifyAll();
+        }
+
+        try {
+            group.written.get(WAL_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            log.warn("Status log entry for job card {} not confirmed in the WAL yet", entry.getJobCardId());
+        }
+    }
+
+    private void runWalWriter() {
+        while (true) {
+            WalGroup group;
+            synchronized (walLock) {
+                while (openGroup.entries.isEmpty() && walRunning) {
+                    try {
+                        walLock.wait();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (openGroup.entries.isEmpty()) {
+                    return;
+                }
+                group = openGroup;
+                openGroup = new WalGroup();
+            }
+            writeGroup(group);
+        }
+    }
+
+    /**
+     * One fsync for the whole group; the entries then go to the insert queue in WAL order,
+     * so the checkpoint only ever moves forward
+     */
+    private void writeGroup(WalGroup group) {
+        try {
+            long last = -1;
+            try {
+                last = wal.appendAll(group.entries);
+                walSyncCounter.increment();
+            } catch (IOException ex) {
+                // The card changes are committed already; keep the rows in memory rather than drop them
+                log.error("Could not write status log WAL, {} entries are not crash-safe", group.entries.size(), ex);
+            }
+            long sequence = last < 0 ? -1 : last - group.entries.size() + 1;
+            for (StatusLogEntry entry : group.entries) {
+                queue.add(new Pending(sequence, entry, true));
+                if (sequence > 0) {
+                    sequence++;
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.error("Status log WAL writer failed on a group of {} entries", group.entries.size(), ex);
+        } finally {
+            group.written.complete(null);
+        }
+    }
+
+    @Override
+    public void start() {
+        try {
+            List<StatusLogWal.Record> recovered = wal.recover();
+            for (StatusLogWal.Record record : recovered) {
+                // Replayed rows take a slot when one is free but are never refused
+                queue.add(new Pending(record.getSequence(), record.getEntry(), permits.tryAcquire()));
+            }
+            if (!recovered.isEmpty()) {
+                log.info("Replaying {} status log entries from the WAL", recovered.size());
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not recover the status log WAL", ex);
+        }
+
+        running = true;
+        walRunning = true;
+        walWriter = new Thread(this::runWalWriter, "status-log-wal");
+        walWriter.setDaemon(true);
+        walWriter.start();
+        flusher = new Thread(this::runFlusher, "status-log-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void stop() {
+        // The WAL thread writes the last open group first, so the flusher sees every entry
+        synchronized (walLock) {
+            walRunning = false;
+            walLock.notifyAll();
+        }
+        try {
+            walWriter.join(TimeUnit.SECONDS.toMillis(10));
+            running = false;
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            wal.close();
+        } catch (IOException ex) {
+            log.warn("Could not close status log WAL: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the web server (WebServerApplicationContext's start/stop
+        // phase is DEFAULT_PHASE - 2048), so no request finds the writer stopped
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void runFlusher() {
+        while (running || !queue.isEmpty()) {
+            try {
+                List<Pending> batch = nextBatch();
+                if (!batch.isEmpty() && !flush(batch)) {
+                    // Shutting down with the database unavailable: the WAL keeps the rest
+                    break;
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException ex) {
+                // Never let the thread die: a dead flusher would hold every permit and refuse all updates
+                log.error("Status log flusher failed, continuing with the next batch", ex);
+            }
+        }
+    }
+
+    /**
+     * Wait for a first entry, then collect more until the batch is full or the interval has passed
+     */
+    private List<Pending> nextBatch() throws InterruptedException {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        Pending first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return batch;
+        }
+        batch.add(first);
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * Insert the batch, retrying with backoff while the database is unavailable.
+     * Returns false only when giving up because the application is stopping.
+     * The batch's queue slots are given back however it ends.
+     */
+    private boolean flush(List<Pending> batch) throws InterruptedException {
+        try {
+            if (!insertWithRetry(batch)) {
+                return false;
+            }
+
+            long lastSequence = batch.stream().mapToLong(pending -> pending.sequence).max().orElse(-1);
+            if (lastSequence > 0) {
+                try {
+                    wal.checkpoint(lastSequence);
+                } catch (IOException ex) {
+                    log.warn("Could not checkpoint status log WAL at {}: {}", lastSequence, ex.getMessage());
+                }
+            }
+            return true;
+        } finally {
+            int held = (int) batch.stream().filter(pending -> pending.holdsPermit).count();
+            permits.release(held);
+        }
+    }
+
+    private boolean insertWithRetry(List<Pending> batch) throws InterruptedException {
+        long retryDelay = INITIAL_RETRY_DELAY_MILLIS;
+        while (true) {
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> insert(batch)));
+                flushedCounter.increment(batch.size());
+                return true;
+            } catch (DataIntegrityViolationException ex) {
+                // Retrying cannot fix a bad row; insert one by one so only that row is dropped
+                return insertIndividually(batch);
+            } catch (DataAccessException ex) {
+                if (!running) {
+                    log.warn("Status log flush failed during shutdown, {} entries left in the WAL", batch.size());
+                    return false;
+                }
+                log.warn("Status log flush of {} entries failed, retrying in {} ms: {}",
+                    batch.size(), retryDelay, ex.getMessage());
+                retryDelay = pause(retryDelay);
+            } catch (RuntimeException ex) {
+                // Not a database error (e.g. a row that cannot be bound): find and drop the bad rows
+                log.warn("Status log flush of {} entries failed, inserting one by one: {}", batch.size(), ex.toString());
+                return insertIndividually(batch);
+            }
+        }
+    }
+
+    /**
+     * Rows that cannot be inserted are dropped; database outages are retried like a whole batch
+     */
+    private boolean insertIndividually(List<Pending> batch) throws InterruptedException {
+        for (Pending pending : batch) {
+            long retryDelay = INITIAL_RETRY_DELAY_MILLIS;
+            while (true) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insert(List.of(pending)));
+                    flushedCounter.increment();
+                    break;
+                } catch (DataIntegrityViolationException ex) {
+                    log.error("Dropping status log entry for job card {}: {}",
+                        pending.entry.getJobCardId(), ex.getMostSpecificCause().getMessage());
+                    break;
+                } catch (DataAccessException ex) {
+                    if (!running) {
+                        log.warn("Status log flush failed during shutdown, remaining entries left in the WAL");
+                        return false;
+                    }
+                    log.warn("Status log insert for job card {} failed, retrying in {} ms: {}",
+                        pending.entry.getJobCardId(), retryDelay, ex.getMessage());
+                    retryDelay = pause(retryDelay);
+                } catch (RuntimeException ex) {
+                    log.error("Dropping status log entry for job card {}", pending.entry.getJobCardId(), ex);
+                    break;
+                }
+            }
+        }
+        return true;
+    }
+
+    private long pause(long retryDelay) throws InterruptedException {
+        Thread.sleep(retryDelay);
+        return Math.min(retryDelay * 2, MAX_RETRY_DELAY_MILLIS);
+    }
+
+    private void insert(List<Pending> batch) {
+        Iterator<Long> ids = allocateIds(batch.size()).iterator();
+
+        // One statement per batch: the driver rewrites it into a multi-row INSERT (reWriteBatchedInserts)
+        jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, pending) -> {
+            StatusLogEntry entry = pending.entry;
+            ps.setLong(1, ids.next());
+            ps.setLong(2, entry.getJobCardId());
+            ps.setString(3, entry.getGenerator());
+            ps.setString(4, entry.getEmployeeEmail());
+            ps.setString(5, entry.getPassStatus() != null ? entry.getPassStatus().name() : null);
+            ps.setString(6, entry.getNewStatus().name());
+            ps.setBigDecimal(7, entry.getLatitude());
+            ps.setBigDecimal(8, entry.getLongitude());
+            ps.setTimestamp(9, Timestamp.valueOf(entry.getLoggedAt()));
+            if (entry.getUpdatedById() != null) {
+                ps.setLong(10, entry.getUpdatedById());
+            } else {
+                ps.setNull(10, Types.BIGINT);
+            }
+        });
+    }
+
+    /**
+     * Reserve ids the way Hibernate's pooled optimizer does: each nextval of job_status_logs_seq
+     * (INCREMENT BY ID_BLOCK) owns the ID_BLOCK values ending at it, so neither side can collide
+     */
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_BLOCK - 1) / ID_BLOCK;
+            List<Long> highs = jdbcTemplate.queryForList(
+                "SELECT nextval('job_status_logs_seq') FROM generate_series(1, ?)", Long.class, blocks);
+            for (Long high : highs) {
+                for (long id = Math.max(1, high - ID_BLOCK + 1); id <= high && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static class WalGroup {
+        private final List<StatusLogEntry> entries = new ArrayList<>();
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+    }
+
+    private static class Pending {
+        private final long sequence;
+        private final StatusLogEntry entry;
+        private final boolean holdsPermit;
+
+        Pending(long sequence, StatusLogEntry entry, boolean holdsPermit) {
+            this.sequence = sequence;
+            this.entry = entry;
+            this.holdsPermit = holdsPermit;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.gms.service.statuslog;
+
+import com.gms.entity.JobStatusLog;
+import com.gms.entity.MiniJobCard;
+import com.gms.entity.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Inserts the log row in the caller's transaction, next to the card update
+ */
+@Component
+@ConditionalOnProperty(name = "audit.status-log.mode", havingValue = "sync", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaStatusLogWriter implements StatusLogWriter {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public void append(StatusLogEntry entry) {
+        JobStatusLog log = JobStatusLog.builder()
+            .miniJobCard(entityManager.getReference(MiniJobCard.class, entry.getJobCardId()))
+            .generator(entry.getGenerator())
+            .employeeEmail(entry.getEmployeeEmail())
+            .passStatus(entry.getPassStatus())
+            .newStatus(entry.getNewStatus())
+            .latitude(entry.getLatitude())
+            .longitude(entry.getLongitude())
+            .updatedBy(entityManager.getReference(User.class, entry.getUpdatedById()))
+            .build();
+
+        entityManager.persist(log);
+    }
+}
@@ -0,0 +1,30 @@
+package com.gms.service.statuslog;
+
+import com.gms.enums.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One job card status change, as handed to a StatusLogWriter.
+ * References are plain ids so an entry can be queued and written to the WAL as-is.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusLogEntry {
+    private Long jobCardId;
+    private String generator;
+    private String employeeEmail;
+    private JobStatus passStatus;
+    private JobStatus newStatus;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+    private Long updatedById;
+    private LocalDateTime loggedAt;
+}
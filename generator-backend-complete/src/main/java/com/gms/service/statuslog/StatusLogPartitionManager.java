@@ -0,0 +1,256 @@
+package com.gms.service.statuslog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps job_status_logs range-partitioned by month on logged_at.
+ *
+ * On first run the plain table ddl-auto created is swapped for a partitioned one; existing
+ * rows stay where they are and become a single "legacy" partition. A daily job creates the
+ * partitions for the coming months and retires partitions older than the retention period
+ * by detaching (and, in drop mode, dropping) them, instead of deleting rows.
+ */
+@Component
+public class StatusLogPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusLogPartitionManager.class);
+
+    private static final String TABLE = "job_status_logs";
+    private static final String LEGACY_TABLE = TABLE + "_legacy";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // pg_get_expr(relpartbound): FOR VALUES FROM ('2026-10-01 00:00:00') TO ('2026-11-01 00:00:00')
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ZoneId zone;
+    private final int monthsAhead;
+    private final int retentionMonths;
+    private final boolean dropRetired;
+
+    public StatusLogPartitionManager(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${app.timezone:Asia/Colombo}") String timezone,
+                                     @Value("${audit.status-log.partitions.months-ahead:3}") int monthsAhead,
+                                     @Value("${audit.status-log.partitions.retention-months:24}") int retentionMonths,
+                                     @Value("${audit.status-log.partitions.retired:detach}") String retired) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.zone = ZoneId.of(timezone);
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+        this.dropRetired = "drop".equalsIgnoreCase(retired);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        try {
+            maintainPartitions();
+        } catch (DataAccessException ex) {
+            // Everything ran in one transaction, so the table is unchanged and still usable
+            log.error("Status log partition maintenance failed, will retry on schedule", ex);
+        }
+    }
+
+    @Scheduled(cron = "${audit.status-log.partitions.cron:0 15 1 * * *}", zone = "${app.timezone:Asia/Colombo}")
+    public void maintainPartitions() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Only one instance maintains partitions at a time; the lock ends with the transaction
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(hashtext(?))", Object.class, TABLE);
+
+            if (!isPartitioned()) {
+                convertToPartitioned();
+            }
+            createUpcomingPartitions();
+            retireOldPartitions();
+        });
+    }
+
+    private boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+            "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, TABLE);
+        return "p".equals(kind);
+    }
+
+    private void convertToPartitioned() {
+        log.info("Converting {} to a partitioned table", TABLE);
+        YearMonth current = YearMonth.now(zone);
+
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+        // Partitions cannot have identity columns; ids now come from job_status_logs_seq
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+
+        // The partition gets the parent's (id, logged_at) key when attached
+        jdbcTemplate.execute("ALTER TABLE " + LEGACY_TABLE + " DROP CONSTRAINT IF EXISTS " + TABLE + "_pkey");
+
+        // Index names are schema-wide: move the old ones out of the way of the parent's
+        List<String> indexes = jdbcTemplate.queryForList(
+            "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema() AND tablename = ?",
+            String.class, LEGACY_TABLE);
+        for (String index : indexes) {
+            jdbcTemplate.execute("ALTER INDEX " + index + " RENAME TO " + index + "_legacy");
+        }
+
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_TABLE
+            + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (logged_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('job_status_logs_seq')");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, logged_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_statuslog_jobcard_logged ON " + TABLE + " (mini_job_card_id, logged_at)");
+        jdbcTemplate.execute("CREATE INDEX idx_statuslog_logged_at ON " + TABLE + " (logged_at)");
+
+        List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+            "SELECT conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint " +
+                "WHERE conrelid = to_regclass(?) AND contype = 'f'",
+            LEGACY_TABLE);
+        for (Map<String, Object> foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + foreignKey.get("conname")
+                + " " + foreignKey.get("definition"));
+        }
+
+        Boolean hasRows = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + LEGACY_TABLE + ")", Boolean.class);
+        if (Boolean.TRUE.equals(hasRows)) {
+            // Everything logged so far, up to the end of this month, stays in one partition
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_TABLE
+                + " FOR VALUES FROM (MINVALUE) TO ('" + bound(current.plusMonths(1)) + "')");
+        } else {
+            jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        }
+
+        // Catches rows outside every monthly range (e.g. a skewed clock) instead of failing the insert
+        jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+    }
+
+    private void createUpcomingPartitions() {
+        List<Map<String, Object>> partitions = listPartitions();
+        YearMonth current = YearMonth.now(zone);
+
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (overlapsExisting(partitions, month)) {
+                continue;
+            }
+            if (defaultPartitionHasRows(month)) {
+                // Postgres refuses the new partition while the default one holds rows for it
+                log.warn("Rows for {} are in {}; move them before its partition can be created", month, DEFAULT_PARTITION);
+                continue;
+            }
+
+            String name = TABLE + month.format(PARTITION_SUFFIX);
+            jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + bound(month) + "') TO ('" + bound(month.plusMonths(1)) + "')");
+            log.info("Created partition {}", name);
+        }
+    }
+
+    private void retireOldPartitions() {
+        if (retentionMonths <= 0) {
+            return;
+        }
+
+        // A partition goes once every row it can hold is older than the retention period
+        LocalDateTime cutoff = YearMonth.now(zone).minusMonths(retentionMonths).atDay(1).atStartOfDay();
+
+        for (Map<String, Object> partition : listPartitions()) {
+            Matcher matcher = RANGE_BOUND.matcher((String) partition.get("bound"));
+            if (!matcher.find()) {
+                continue; // the default partition
+            }
+
+            LocalDateTime upper = parseBound(matcher.group(2));
+            if (upper == null || upper.isAfter(cutoff)) {
+                continue;
+            }
+
+            String name = (String) partition.get("name");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + name);
+            if (dropRetired) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+                log.info("Dropped partition {} (older than {} months)", name, retentionMonths);
+            } else {
+                log.info("Detached partition {} (older than {} months); archive or drop it manually",
+                    name, retentionMonths);
+            }
+        }
+    }
+
+    private boolean defaultPartitionHasRows(YearMonth month) {
+        String defaultPartition = jdbcTemplate.queryForObject(
+            "SELECT to_regclass(?)::text", String.class, DEFAULT_PARTITION);
+        if (defaultPartition == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION + " WHERE logged_at >= ?::timestamp AND logged_at < ?::timestamp)",
+            Boolean.class, bound(month), bound(month.plusMonths(1))));
+    }
+
+    private List<Map<String, Object>> listPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound " +
+                "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = to_regclass(?)",
+            TABLE);
+    }
+
+    private boolean overlapsExisting(List<Map<String, Object>> partitions, YearMonth month) {
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        for (Map<String, Object> partition : partitions) {
+            Matcher matcher = RANGE_BOUND.matcher((String) partition.get("bound"));
+            if (!matcher.find()) {
+                continue;
+            }
+            LocalDateTime lower = parseBound(matcher.group(1));
+            LocalDateTime upper = parseBound(matcher.group(2));
+            boolean startsBeforeEnd = lower == null || lower.isBefore(to);
+            boolean endsAfterStart = upper == null || upper.isAfter(from);
+            if (startsBeforeEnd && endsAfterStart) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bound value from pg_get_expr; null for MINVALUE / MAXVALUE
+     */
+    private LocalDateTime parseBound(String value) {
+        String trimmed = value.trim();
+        if (!trimmed.startsWith("'")) {
+            return null;
+        }
+        String timestamp = trimmed.substring(1, trimmed.indexOf('\'', 1));
+        return LocalDateTime.parse(timestamp.substring(0, 19), BOUND_FORMAT);
+    }
+
+    private String bound(YearMonth month) {
+        LocalDate firstDay = month.atDay(1);
+        return firstDay.atStartOfDay().format(BOUND_FORMAT);
+    }
+}
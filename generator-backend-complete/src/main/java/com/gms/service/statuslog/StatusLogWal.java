@@ -0,0 +1,152 @@
+package com.gms.service.statuslog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Local write-ahead file for status log entries that are not in Postgres yet.
+ *
+ * Each entry is one JSON line with an increasing sequence number; entries are appended
+ * in groups with a single fsync per group. A separate
+ * checkpoint file holds the highest sequence already inserted; once everything up to
+ * the last append is checkpointed the log file is truncated.
+ */
+class StatusLogWal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusLogWal.class);
+
+    private final Path walFile;
+    private final Path checkpointFile;
+    private final ObjectMapper objectMapper;
+
+    private FileChannel channel;
+    private long lastSequence;
+
+    StatusLogWal(Path directory, ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory);
+        this.walFile = directory.resolve("status-log.wal");
+        this.checkpointFile = directory.resolve("status-log.checkpoint");
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Read back entries appended but never checkpointed, oldest first, and open the log for appends.
+     * The file is rewritten with just those entries, which also drops a line torn by a crash.
+     */
+    synchronized List<Record> recover() throws IOException {
+        long checkpoint = readCheckpoint();
+        List<Record> pending = new ArrayList<>();
+        lastSequence = checkpoint;
+
+        if (Files.exists(walFile)) {
+            try (BufferedReader reader = Files.newBufferedReader(walFile, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        Record record = objectMapper.readValue(line, Record.class);
+                        if (record.getSequence() > checkpoint) {
+                            pending.add(record);
+                        }
+                        lastSequence = Math.max(lastSequence, record.getSequence());
+                    } catch (JsonProcessingException ex) {
+                        // Only the last line can be partial: it was never acknowledged
+                        log.warn("Ignoring unreadable status log WAL line: {}", ex.getOriginalMessage());
+                        break;
+                    }
+                }
+            }
+        }
+
+        Path compacted = Files.createTempFile(walFile.getParent(), "status-log", ".wal.tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (Record record : pending) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.newLine();
+            }
+        }
+        Files.move(compacted, walFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        channel = FileChannel.open(walFile, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return pending;
+    }
+
+    /**
+     * Durably append the entries with one fsync; they get consecutive sequence numbers
+     * ending at the one returned
+     */
+    synchronized long appendAll(List<StatusLogEntry> entries) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        long sequence = lastSequence;
+        for (StatusLogEntry entry : entries) {
+            lines.append(objectMapper.writeValueAsString(new Record(++sequence, entry))).append('\n');
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Mark every entry up to the sequence as inserted
+     */
+    synchronized void checkpoint(long sequence) throws IOException {
+        Path temp = Files.createTempFile(checkpointFile.getParent(), "status-log", ".checkpoint.tmp");
+        Files.writeString(temp, Long.toString(sequence), StandardCharsets.UTF_8);
+        Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        // Nothing left to replay: start the file over instead of letting it grow
+        if (sequence >= lastSequence) {
+            channel.truncate(0);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (!Files.exists(checkpointFile)) {
+            return 0;
+        }
+        String value = Files.readString(checkpointFile, StandardCharsets.UTF_8).trim();
+        return value.isEmpty() ? 0 : Long.parseLong(value);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Record {
+        private long sequence;
+        private StatusLogEntry entry;
+    }
+}
@@ -0,0 +1,14 @@
+package com.gms.service.statuslog;
+
+/**
+ * Records job card status changes in job_status_logs.
+ * Selected with audit.status-log.mode: sync (default, same transaction) or async (batched).
+ */
+public interface StatusLogWriter {
+
+    /**
+     * Record the entry as part of the caller's transaction: it is written
+     * if and only if that transaction commits
+     */
+    void append(StatusLogEntry entry);
+}
@@ -0,0 +1,76 @@
+package com.gms.statemachine;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves many rows to one status with a single conditional UPDATE.
+ *
+ * The table gives the states allowed to reach the target; the statement only touches rows
+ * currently in one of them and returns the ids it changed. Every other id was either
+ * missing or in a state the transition is not allowed from.
+ */
+public final class BulkTransition {
+
+    /**
+     * One conditional update: UPDATE ... SET status = :to WHERE id IN (:ids) AND status IN (:from) RETURNING id
+     */
+    @FunctionalInterface
+    public interface Statement {
+        List<Long> execute(Collection<Long> ids, Collection<String> fromStatuses, String toStatus);
+    }
+
+    /**
+     * The Statement for a table with id, status and version columns. It runs through JDBC
+     * because UPDATE ... RETURNING is a query to the driver: a Spring Data @Modifying query
+     * cannot read the ids back, and one without it is not run as an update.
+     */
+    public static Statement update(NamedParameterJdbcOperations jdbcTemplate, String table) {
+        String sql = "UPDATE " + table + " SET status = :toStatus, version = version + 1 " +
+                     "WHERE id IN (:ids) AND status IN (:fromStatuses) RETURNING id";
+        return (ids, fromStatuses, toStatus) -> jdbcTemplate.queryForList(sql, new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("fromStatuses", fromStatuses)
+            .addValue("toStatus", toStatus), Long.class);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Result<S> {
+        private final S status;
+        private final List<Long> updatedIds;
+        private final List<Long> rejectedIds;
+    }
+
+    public static <S extends Enum<S>> Result<S> apply(TransitionTable<S> table, Collection<Long> ids, S to,
+                                                      Statement statement) {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        List<String> sources = table.sourceNamesOf(to);
+
+        // Nothing may move to this state: "status IN ()" would not even parse
+        List<Long> updated = requested.isEmpty() || sources.isEmpty()
+            ? List.of()
+            : statement.execute(requested, sources, to.name());
+
+        Set<Long> updatedSet = new HashSet<>(updated);
+        List<Long> rejected = new ArrayList<>();
+        for (Long id : requested) {
+            if (!updatedSet.contains(id)) {
+                rejected.add(id);
+            }
+        }
+        return new Result<>(to, updated, rejected);
+    }
+
+    private BulkTransition() {
+    }
+}
@@ -0,0 +1,41 @@
+package com.gms.statemachine;
+
+import com.gms.enums.JobStatus;
+import com.gms.enums.TicketStatus;
+
+/**
+ * Lifecycles of job cards, main tickets and sub-tickets
+ */
+public final class StatusTransitions {
+
+    public static final TransitionTable<JobStatus> JOB_CARD = TransitionTable.builder(JobStatus.class)
+        .allow(JobStatus.PENDING, JobStatus.TRAVELING, JobStatus.CANCEL)
+        .allow(JobStatus.TRAVELING, JobStatus.STARTED, JobStatus.ON_HOLD, JobStatus.CANCEL)
+        .allow(JobStatus.STARTED, JobStatus.ON_HOLD, JobStatus.COMPLETED, JobStatus.CANCEL)
+        .allow(JobStatus.ON_HOLD, JobStatus.STARTED, JobStatus.CANCEL)
+        .build();
+
+    // Set by admins; CLOSED is final and reachable from every open state
+    public static final TransitionTable<TicketStatus> MAIN_TICKET = TransitionTable.builder(TicketStatus.class)
+        .allow(TicketStatus.CREATED, TicketStatus.ASSIGNED, TicketStatus.CLOSED)
+        .allow(TicketStatus.ASSIGNED, TicketStatus.IN_PROGRESS, TicketStatus.COMPLETED, TicketStatus.CLOSED)
+        .allow(TicketStatus.IN_PROGRESS, TicketStatus.COMPLETED, TicketStatus.CLOSED)
+        .allow(TicketStatus.COMPLETED, TicketStatus.IN_PROGRESS, TicketStatus.PENDING_APPROVAL,
+               TicketStatus.APPROVED, TicketStatus.REJECTED, TicketStatus.CLOSED)
+        .allow(TicketStatus.PENDING_APPROVAL, TicketStatus.APPROVED, TicketStatus.REJECTED, TicketStatus.CLOSED)
+        .allow(TicketStatus.APPROVED, TicketStatus.CLOSED)
+        .allow(TicketStatus.REJECTED, TicketStatus.IN_PROGRESS, TicketStatus.CLOSED)
+        .build();
+
+    // Employees move their own sub-ticket to IN_PROGRESS / COMPLETED; admins approve or reject
+    // completed work, after which it is final
+    public static final TransitionTable<TicketStatus> SUB_TICKET = TransitionTable.builder(TicketStatus.class)
+        .allow(TicketStatus.ASSIGNED, TicketStatus.IN_PROGRESS, TicketStatus.COMPLETED)
+        .allow(TicketStatus.IN_PROGRESS, TicketStatus.COMPLETED)
+        .allow(TicketStatus.COMPLETED, TicketStatus.IN_PROGRESS, TicketStatus.APPROVED, TicketStatus.REJECTED)
+        .allow(TicketStatus.PENDING_APPROVAL, TicketStatus.IN_PROGRESS, TicketStatus.APPROVED, TicketStatus.REJECTED)
+        .build();
+
+    private StatusTransitions() {
+    }
+}
@@ -0,0 +1,108 @@
+package com.gms.statemachine;
+
+import com.gms.exception.InvalidStatusTransitionException;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Allowed status transitions of one lifecycle, fixed at build time.
+ *
+ * Targets and sources are kept as EnumSets in EnumMaps (arrays indexed by ordinal), so a
+ * check is an array read and a bit test with no allocation. The table is immutable and
+ * safe to share.
+ */
+public final class TransitionTable<S extends Enum<S>> {
+
+    private final Map<S, Set<S>> targets;
+    private final Map<S, Set<S>> sources;
+    private final Map<S, List<String>> sourceNames;
+
+    private TransitionTable(Class<S> type, Map<S, EnumSet<S>> allowed) {
+        this.targets = new EnumMap<>(type);
+        this.sources = new EnumMap<>(type);
+        this.sourceNames = new EnumMap<>(type);
+
+        S[] states = type.getEnumConstants();
+        for (S state : states) {
+            targets.put(state, Collections.unmodifiableSet(EnumSet.copyOf(allowed.get(state))));
+
+            EnumSet<S> from = EnumSet.noneOf(type);
+            for (S source : states) {
+                if (allowed.get(source).contains(state)) {
+                    from.add(source);
+                }
+            }
+            sources.put(state, Collections.unmodifiableSet(from));
+            sourceNames.put(state, from.stream().map(Enum::name).toList());
+        }
+    }
+
+    public static <S extends Enum<S>> Builder<S> builder(Class<S> type) {
+        return new Builder<>(type);
+    }
+
+    public boolean canTransition(S from, S to) {
+        return targets.get(from).contains(to);
+    }
+
+    /**
+     * Throw InvalidStatusTransitionException unless the transition is allowed
+     */
+    public void check(S from, S to) {
+        if (!canTransition(from, to)) {
+            throw new InvalidStatusTransitionException(
+                String.format("Cannot transition from %s to %s", from, to));
+        }
+    }
+
+    /**
+     * States reachable from the given one
+     */
+    public Set<S> targetsOf(S from) {
+        return targets.get(from);
+    }
+
+    /**
+     * States that may move to the given one
+     */
+    public Set<S> sourcesOf(S to) {
+        return sources.get(to);
+    }
+
+    /**
+     * Names of sourcesOf(to), for the status IN (...) filter of native bulk updates
+     */
+    public List<String> sourceNamesOf(S to) {
+        return sourceNames.get(to);
+    }
+
+    public static final class Builder<S extends Enum<S>> {
+
+        private final Class<S> type;
+        private final Map<S, EnumSet<S>> allowed;
+
+        private Builder(Class<S> type) {
+            this.type = type;
+            this.allowed = new EnumMap<>(type);
+            for (S state : type.getEnumConstants()) {
+                allowed.put(state, EnumSet.noneOf(type));
+            }
+        }
+
+        // Only reads the array, so the generic varargs are safe
+        @SafeVarargs
+        public final Builder<S> allow(S from, S... to) {
+            Collections.addAll(allowed.get(from), to);
+            return this;
+        }
+
+        public TransitionTable<S> build() {
+            return new TransitionTable<>(type, allowed);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.gms.storage;
+
+import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Binary object storage addressed by slash-separated keys (e.g. job-cards/42/&lt;uuid&gt;).
+ * Metadata such as content type and size is kept by the caller, next to the key.
+ */
+public interface ObjectStore {
+
+    /**
+     * Copy the source channel into the object, replacing it atomically.
+     * Returns the number of bytes stored.
+     */
+    long put(String key, ReadableByteChannel source) throws IOException;
+
+    /**
+     * Open the object for reading; throws NoSuchFileException when it does not exist
+     */
+    SeekableByteChannel open(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    long size(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    /**
+     * Local file backing the object, when there is one. Lets downloads hand the file
+     * to the container's sendfile support instead of copying it through the JVM.
+     */
+    default Optional<Path> localPath(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,71 @@
+package com.gms.util;
+
+import com.gms.dto.response.CursorPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for keyset pagination on id DESC.
+ *
+ * Queries select rows with id below the cursor, ordered by id descending, and fetch
+ * one row more than the page size to tell whether another page follows. No OFFSET
+ * and no COUNT(*), so deep pages cost the same as the first.
+ */
+@Component
+public class CursorPaging {
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    @Value("${pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    public int limit(int size) {
+        return Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    public Pageable request(int size) {
+        return PageRequest.of(0, limit(size) + 1);
+    }
+
+    /**
+     * Id to continue below; a missing cursor starts from the newest row
+     */
+    public long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public <E, T> CursorPage<T> page(List<E> rows, int size, Function<E, Long> idOf, Function<E, T> mapper) {
+        int limit = limit(size);
+        boolean hasNext = rows.size() > limit;
+        List<E> pageRows = hasNext ? rows.subList(0, limit) : rows;
+
+        String nextCursor = hasNext ? encode(idOf.apply(pageRows.get(pageRows.size() - 1))) : null;
+        List<T> content = pageRows.stream().map(mapper).collect(Collectors.toList());
+
+        return new CursorPage<>(content, nextCursor, hasNext, content.size());
+    }
+
+    private static String encode(Long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
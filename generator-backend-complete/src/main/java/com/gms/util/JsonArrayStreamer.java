@@ -0,0 +1,63 @@
+package com.gms.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes query results as a JSON array while they come off the JDBC cursor.
+ *
+ * The repository stream is opened in a read-only transaction (so Postgres uses a
+ * server-side cursor with the query's fetch size) and the persistence context is
+ * cleared every few rows, so heap use does not grow with the result size.
+ */
+@Component
+@RequiredArgsConstructor
+public class JsonArrayStreamer {
+
+    private static final int CLEAR_INTERVAL = 500;
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public <E, T> StreamingResponseBody stream(Supplier<Stream<E>> rows, Function<E, T> mapper) {
+        return outputStream -> {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(true);
+
+            transaction.executeWithoutResult(status -> {
+                try (Stream<E> stream = rows.get();
+                     JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    generator.writeStartArray();
+
+                    int written = 0;
+                    Iterator<E> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        generator.writeObject(mapper.apply(iterator.next()));
+                        if (++written % CLEAR_INTERVAL == 0) {
+                            generator.flush();
+                            entityManager.clear();
+                        }
+                    }
+
+                    generator.writeEndArray();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,87 @@
+package com.gms.controller.admin;
+
+import com.gms.dto.response.MainTicketResponse;
+import com.gms.entity.Generator;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The admin ticket listing must not issue one sub-ticket query per ticket (N+1):
+ * the number of statements per page stays the same however large the page is.
+ */
+class AdminTicketListingStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int TICKETS = 30;
+
+    @Autowired
+    private AdminTicketController controller;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void createTickets() {
+        User admin = testData.user(Role.ADMIN);
+        List<User> employees = List.of(testData.user(Role.EMPLOYEE), testData.user(Role.EMPLOYEE));
+        Generator generator = testData.generator();
+        for (int i = 0; i < TICKETS; i++) {
+            testData.ticket(generator, admin, employees);
+        }
+    }
+
+    @Test
+    void listingStatementCountDoesNotGrowWithPageSize() {
+        long small = statements(() -> controller.getAllTickets(0, 5, null, null).getBody());
+        long large = statements(() -> controller.getAllTickets(0, TICKETS, null, null).getBody());
+
+        // Page of tickets, total count, and one IN query for all their sub-tickets
+        assertThat(small).isLessThanOrEqualTo(3);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void filteredListingStatementCountDoesNotGrowWithPageSize() {
+        long small = statements(() -> controller.getAllTickets(0, 5, TicketStatus.ASSIGNED, null).getBody());
+        long large = statements(() -> controller.getAllTickets(0, TICKETS, TicketStatus.ASSIGNED, null).getBody());
+
+        assertThat(small).isLessThanOrEqualTo(3);
+        assertThat(large).isEqualTo(small);
+    }
+
+    @Test
+    void listingStillReturnsEachTicketsSubTickets() {
+        Page<MainTicketResponse> page = controller.getAllTickets(0, TICKETS, null, null).getBody();
+
+        assertThat(page).isNotNull();
+        assertThat(page.getContent()).hasSize(TICKETS);
+        assertThat(page.getContent()).allSatisfy(ticket -> assertThat(ticket.getSubTickets()).hasSize(2));
+    }
+
+    private long statements(Supplier<Page<MainTicketResponse>> listing) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<MainTicketResponse> page = listing.get();
+
+        assertThat(page.getContent()).isNotEmpty();
+        return statistics.getPrepareStatementCount();
+    }
+}
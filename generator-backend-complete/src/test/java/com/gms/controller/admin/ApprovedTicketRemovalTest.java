@@ -0,0 +1,140 @@
+package com.gms.controller.admin;
+
+import com.gms.dto.request.ApprovalRequest;
+import com.gms.dto.request.MainTicketRequest;
+import com.gms.dto.response.LeaderboardEntry;
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.ScorePeriod;
+import com.gms.enums.TicketStatus;
+import com.gms.repository.MainTicketRepository;
+import com.gms.repository.SubTicketRepository;
+import com.gms.service.score.Leaderboard;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A ticket with approved work can still be deleted or reassigned: its scores go with its
+ * sub-tickets and come off the totals and the leaderboard.
+ */
+class ApprovedTicketRemovalTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AdminTicketController adminController;
+
+    @Autowired
+    private MainTicketRepository ticketRepository;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private Leaderboard leaderboard;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private User employee;
+    private User otherEmployee;
+
+    @BeforeEach
+    void createUsers() {
+        admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        otherEmployee = testData.user(Role.EMPLOYEE);
+        TestData.signIn(admin);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void deletingAnApprovedTicketRemovesItsScores() {
+        MainTicket ticket = approvedTicket();
+        assertThat(dayTotal()).isEqualByComparingTo("3.00");
+
+        assertThat(adminController.deleteTicket(ticket.getId()).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(ticketRepository.existsById(ticket.getId())).isFalse();
+        assertThat(scoreCount(ticket)).isZero();
+        assertThat(aggregateCount()).isZero();
+        assertThat(dayTotal()).isNull();
+    }
+
+    @Test
+    void reassigningAnApprovedTicketRemovesOnlyItsScores() {
+        approvedTicket();
+        MainTicket ticket = approvedTicket();
+        assertThat(dayTotal()).isEqualByComparingTo("6.00");
+
+        MainTicketRequest edit = new MainTicketRequest();
+        edit.setGeneratorId(ticket.getGenerator().getId());
+        edit.setTitle(ticket.getTitle());
+        edit.setWeight(ticket.getWeight());
+        edit.setScheduledDate(ticket.getScheduledDate());
+        edit.setScheduledTime(ticket.getScheduledTime());
+        edit.setEmployeeIds(List.of(otherEmployee.getId()));
+        assertThat(adminController.updateTicket(ticket.getId(), null, edit).getStatusCode()).isEqualTo(HttpStatus.OK);
+
+        assertThat(subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED))
+            .extracting(subTicket -> subTicket.getEmployee().getId())
+            .containsExactly(otherEmployee.getId());
+        assertThat(scoreCount(ticket)).isZero();
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT approved_count FROM employee_score_aggregates WHERE employee_id = ? AND period = 'DAY'",
+            Integer.class, employee.getId())).isEqualTo(1);
+        assertThat(dayTotal()).isEqualByComparingTo("3.00");
+    }
+
+    /**
+     * A ticket whose only sub-ticket, the employee's, was completed and approved
+     */
+    private MainTicket approvedTicket() {
+        MainTicket ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        SubTicket subTicket = subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).get(0);
+        jdbcTemplate.update("UPDATE sub_tickets SET status = 'COMPLETED' WHERE id = ?", subTicket.getId());
+
+        ApprovalRequest approval = new ApprovalRequest();
+        approval.setApproved(true);
+        adminController.approveSubTicket(subTicket.getId(), null, approval);
+        return ticket;
+    }
+
+    private int scoreCount(MainTicket ticket) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee_scores WHERE main_ticket_id = ?",
+            Integer.class, ticket.getId());
+    }
+
+    private int aggregateCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM employee_score_aggregates WHERE employee_id = ?",
+            Integer.class, employee.getId());
+    }
+
+    private BigDecimal dayTotal() {
+        return leaderboard.top(ScorePeriod.DAY, 500).stream()
+            .filter(entry -> entry.getEmployeeId().equals(employee.getId()))
+            .map(LeaderboardEntry::getTotalScore)
+            .findFirst()
+            .orElse(null);
+    }
+}
@@ -0,0 +1,57 @@
+package com.gms.controller.admin;
+
+import com.gms.dto.request.BulkStatusUpdateRequest;
+import com.gms.entity.Generator;
+import com.gms.entity.MainTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.repository.MainTicketRepository;
+import com.gms.statemachine.BulkTransition;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The bulk status change moves only tickets whose status allows it, in one UPDATE ... RETURNING.
+ */
+class BulkTicketStatusUpdateTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AdminTicketController controller;
+
+    @Autowired
+    private MainTicketRepository ticketRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void onlyTicketsAllowedToMoveAreUpdated() {
+        User admin = testData.user(Role.ADMIN);
+        Generator generator = testData.generator();
+        MainTicket assigned = testData.ticket(generator, admin, List.of());
+        MainTicket approved = testData.ticket(generator, admin, List.of());
+        approved.setStatus(TicketStatus.APPROVED);
+        approved = ticketRepository.save(approved);
+        long missing = Long.MAX_VALUE;
+
+        BulkStatusUpdateRequest request = new BulkStatusUpdateRequest();
+        request.setIds(List.of(assigned.getId(), approved.getId(), missing));
+        request.setStatus(TicketStatus.IN_PROGRESS);
+        BulkTransition.Result<TicketStatus> result = controller.updateTicketStatuses(request).getBody();
+
+        assertThat(result.getUpdatedIds()).containsExactly(assigned.getId());
+        assertThat(result.getRejectedIds()).containsExactly(approved.getId(), missing);
+
+        MainTicket reloaded = ticketRepository.findById(assigned.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(TicketStatus.IN_PROGRESS);
+        assertThat(reloaded.getVersion()).isEqualTo(assigned.getVersion() + 1);
+        assertThat(ticketRepository.findById(approved.getId()).orElseThrow().getStatus()).isEqualTo(TicketStatus.APPROVED);
+    }
+}
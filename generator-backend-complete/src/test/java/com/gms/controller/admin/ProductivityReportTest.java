@@ -0,0 +1,147 @@
+package com.gms.controller.admin;
+
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.ExportFormat;
+import com.gms.enums.JobStatus;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.exception.InvalidDateRangeException;
+import com.gms.repository.SubTicketRepository;
+import com.gms.repository.UserRepository;
+import com.gms.service.score.ApprovedScore;
+import com.gms.service.score.EmployeeScoreService;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The productivity export: day logs, job cards and scores totalled per employee over the range,
+ * cells a spreadsheet would run as a formula kept as text, and the range limit.
+ */
+class ProductivityReportTest extends PostgresIntegrationTest {
+
+    private static final LocalDate FROM = LocalDate.of(2030, 3, 1);
+    private static final LocalDate TO = LocalDate.of(2030, 3, 31);
+
+    @Autowired
+    private AdminReportController reportController;
+
+    @Autowired
+    private EmployeeScoreService employeeScoreService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private User employee;
+
+    @BeforeEach
+    void createUsers() {
+        admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        employee.setFullName("=1+2, Ada");
+        employee = userRepository.save(employee);
+    }
+
+    @Test
+    void csvTotalsDaysJobCardsAndScoresInTheRange() throws IOException {
+        insertDay(FROM.minusDays(1), 480, 0, 0);
+        insertDay(FROM.plusDays(1), 570, 30, 0);
+        insertDay(FROM.plusDays(2), 600, 0, 60);
+        // Started and not ended yet: a day worked with no minutes
+        insertDay(TO, 0, 0, 0);
+
+        insertJobCard(JobStatus.COMPLETED, FROM.plusDays(1).atTime(9, 0), FROM.plusDays(1).atTime(11, 0), 45);
+        insertJobCard(JobStatus.STARTED, FROM.plusDays(2).atTime(9, 0), null, 0);
+        // Assigned before the range, completed in it
+        insertJobCard(JobStatus.COMPLETED, FROM.minusDays(2).atTime(9, 0), FROM.atTime(9, 0), 30);
+        insertJobCard(JobStatus.COMPLETED, FROM.minusDays(9).atTime(9, 0), FROM.minusDays(8).atTime(9, 0), 99);
+
+        employeeScoreService.recordApprovals(List.of(
+            approval(1.5, FROM.plusDays(1).atTime(12, 0)),
+            approval(2.25, TO.atTime(23, 59)),
+            approval(5.0, TO.plusDays(1).atStartOfDay())));
+
+        List<String> lines = csv(reportController.getProductivity(FROM, TO, employee.getId(), ExportFormat.CSV));
+
+        assertThat(lines).hasSize(2);
+        assertThat(lines.get(0)).startsWith("employee_id,employee_name,days_worked,");
+        String prefix = employee.getId() + ",\"'=1+2, Ada\",";
+        assertThat(lines.get(1)).startsWith(prefix);
+        String[] totals = lines.get(1).substring(prefix.length()).split(",");
+        // days_worked, work_minutes, morning_ot, evening_ot, jobs_assigned, jobs_completed, job_work_minutes, approved
+        assertThat(List.of(totals).subList(0, 8)).containsExactly("3", "1170", "30", "60", "2", "2", "75", "2");
+        assertThat(new BigDecimal(totals[8])).isEqualByComparingTo("3.75");
+    }
+
+    @Test
+    void rangesOverTheLimitAreRejected() {
+        assertThatThrownBy(() -> reportController.getProductivity(FROM, FROM.plusDays(90), employee.getId(), ExportFormat.CSV))
+            .isInstanceOf(InvalidDateRangeException.class)
+            .hasMessage("Report range is limited to 90 days");
+        assertThatThrownBy(() -> reportController.getProductivity(TO, FROM, employee.getId(), ExportFormat.CSV))
+            .isInstanceOf(InvalidDateRangeException.class);
+
+        assertThat(reportController.getProductivity(FROM, FROM.plusDays(89), employee.getId(), ExportFormat.CSV)
+            .getStatusCode().is2xxSuccessful()).isTrue();
+    }
+
+    private List<String> csv(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return List.of(out.toString(StandardCharsets.UTF_8).split("\r\n"));
+    }
+
+    private void insertDay(LocalDate day, int workMinutes, int morningOt, int eveningOt) {
+        jdbcTemplate.update("INSERT INTO employee_day_logs (employee_id, day_date, day_start_time, day_end_time, " +
+                "morning_ot_minutes, evening_ot_minutes, total_work_minutes, auto_closed, version) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, false, 0)",
+            employee.getId(), Date.valueOf(day), Timestamp.valueOf(day.atTime(8, 0)),
+            workMinutes > 0 ? Timestamp.valueOf(day.atTime(8, 0).plusMinutes(workMinutes)) : null,
+            morningOt, eveningOt, workMinutes);
+    }
+
+    private void insertJobCard(JobStatus status, LocalDateTime createdAt, LocalDateTime endTime, int workMinutes) {
+        MainTicket ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        jdbcTemplate.update("INSERT INTO mini_job_cards (main_ticket_id, employee_id, status, end_time, approved, " +
+                "work_minutes, created_at, version) VALUES (?, ?, ?, ?, false, ?, ?, 0)",
+            ticket.getId(), employee.getId(), status.name(), endTime != null ? Timestamp.valueOf(endTime) : null,
+            workMinutes, Timestamp.valueOf(createdAt));
+    }
+
+    private ApprovedScore approval(double score, LocalDateTime approvedAt) {
+        MainTicket ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        SubTicket subTicket = subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).get(0);
+        return new ApprovedScore(employee.getId(), employee.getFullName(), ticket.getId(),
+            subTicket.getId(), 3, score, admin.getId(), approvedAt);
+    }
+}
@@ -0,0 +1,91 @@
+package com.gms.controller.admin;
+
+import com.gms.controller.employee.EmployeeTicketController;
+import com.gms.dto.response.MainTicketResponse;
+import com.gms.dto.response.SubTicketResponse;
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.exception.InvalidStatusTransitionException;
+import com.gms.repository.SubTicketRepository;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Sending a status the ticket already has succeeds and changes nothing, so clients and
+ * the conflict retry may repeat a status update safely.
+ */
+class RepeatedStatusUpdateTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AdminTicketController adminController;
+
+    @Autowired
+    private EmployeeTicketController employeeController;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private User employee;
+    private MainTicket ticket;
+    private SubTicket subTicket;
+
+    @BeforeEach
+    void createTicket() {
+        admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        subTicket = subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).get(0);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void markingCompletedTwiceReturnsTheCompletedTicket() {
+        TestData.signIn(employee);
+        SubTicketResponse first = employeeController.updateTicketStatus(subTicket.getId(), TicketStatus.COMPLETED).getBody();
+        SubTicketResponse again = employeeController.updateTicketStatus(subTicket.getId(), TicketStatus.COMPLETED).getBody();
+
+        assertThat(again.getStatus()).isEqualTo(TicketStatus.COMPLETED);
+        assertThat(again.getVersion()).isEqualTo(first.getVersion());
+        // As stored: Postgres keeps microseconds
+        assertThat(again.getCompletedAt()).isCloseTo(first.getCompletedAt(), within(1, ChronoUnit.MICROS));
+    }
+
+    @Test
+    void adminSettingTheCurrentStatusChangesNothing() {
+        TestData.signIn(admin);
+        MainTicketResponse again = adminController.updateTicketStatus(ticket.getId(), TicketStatus.ASSIGNED).getBody();
+
+        assertThat(again.getStatus()).isEqualTo(TicketStatus.ASSIGNED);
+        assertThat(again.getVersion()).isEqualTo(ticket.getVersion());
+    }
+
+    @Test
+    void otherDisallowedMovesAreStillRejected() {
+        TestData.signIn(admin);
+        assertThatThrownBy(() -> adminController.updateTicketStatus(ticket.getId(), TicketStatus.CREATED))
+            .isInstanceOf(InvalidStatusTransitionException.class);
+    }
+}
@@ -0,0 +1,134 @@
+package com.gms.controller.admin;
+
+import com.gms.controller.employee.EmployeeTicketController;
+import com.gms.dto.request.ApprovalRequest;
+import com.gms.dto.request.BulkApprovalRequest;
+import com.gms.dto.request.MainTicketRequest;
+import com.gms.dto.response.BulkApprovalResponse;
+import com.gms.dto.response.MainTicketResponse;
+import com.gms.dto.response.SubTicketResponse;
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.exception.ConcurrentUpdateException;
+import com.gms.repository.SubTicketRepository;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Edits, notes and reviews made from a version that has since changed are rejected
+ * instead of silently overwriting the newer data.
+ */
+class StaleVersionTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private AdminTicketController adminController;
+
+    @Autowired
+    private EmployeeTicketController employeeController;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private User employee;
+    private MainTicket ticket;
+    private SubTicket subTicket;
+
+    @BeforeEach
+    void createTicket() {
+        admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        subTicket = subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).get(0);
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void ticketEditFromAnOlderVersionIsRejected() {
+        TestData.signIn(admin);
+        long readVersion = ticket.getVersion();
+
+        MainTicketResponse first = adminController.updateTicket(ticket.getId(), null, edit("First edit", readVersion)).getBody();
+        assertThat(first.getVersion()).isGreaterThan(readVersion);
+
+        assertThatThrownBy(() -> adminController.updateTicket(ticket.getId(), null, edit("Second edit", readVersion)))
+            .isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(adminController.updateTicket(ticket.getId(), "\"" + first.getVersion() + "\"", edit("Second edit", null))
+            .getBody().getTitle()).isEqualTo("Second edit");
+    }
+
+    @Test
+    void notesFromAnOlderVersionAreRejected() {
+        TestData.signIn(employee);
+        String readVersion = "\"" + subTicket.getVersion() + "\"";
+
+        SubTicketResponse first = employeeController.updateNotes(subTicket.getId(), readVersion, "Replaced the filter").getBody();
+        assertThat(first.getVersion()).isGreaterThan(subTicket.getVersion());
+
+        assertThatThrownBy(() -> employeeController.updateNotes(subTicket.getId(), readVersion, "Checked the oil"))
+            .isInstanceOf(ConcurrentUpdateException.class);
+        assertThat(subTicketRepository.findById(subTicket.getId()).orElseThrow().getNotes()).isEqualTo("Replaced the filter");
+    }
+
+    @Test
+    void reviewOfAnOlderVersionIsRejected() {
+        long readVersion = complete();
+        TestData.signIn(employee);
+        employeeController.updateNotes(subTicket.getId(), null, "Found one more fault");
+
+        TestData.signIn(admin);
+        ApprovalRequest review = new ApprovalRequest();
+        review.setApproved(true);
+        review.setVersion(readVersion);
+        assertThatThrownBy(() -> adminController.approveSubTicket(subTicket.getId(), null, review))
+            .isInstanceOf(ConcurrentUpdateException.class);
+
+        BulkApprovalRequest.Item item = new BulkApprovalRequest.Item();
+        item.setSubTicketId(subTicket.getId());
+        item.setApproved(true);
+        item.setVersion(readVersion);
+        BulkApprovalRequest bulk = new BulkApprovalRequest();
+        bulk.setItems(List.of(item));
+        BulkApprovalResponse result = adminController.approveSubTickets(bulk).getBody();
+
+        assertThat(result.getFailed()).isEqualTo(1);
+        assertThat(subTicketRepository.findById(subTicket.getId()).orElseThrow().getStatus())
+            .isEqualTo(TicketStatus.COMPLETED);
+    }
+
+    private long complete() {
+        TestData.signIn(employee);
+        return employeeController.updateTicketStatus(subTicket.getId(), TicketStatus.COMPLETED).getBody().getVersion();
+    }
+
+    private MainTicketRequest edit(String title, Long version) {
+        MainTicketRequest request = new MainTicketRequest();
+        request.setGeneratorId(ticket.getGenerator().getId());
+        request.setTitle(title);
+        request.setWeight(ticket.getWeight());
+        request.setScheduledDate(ticket.getScheduledDate());
+        request.setScheduledTime(ticket.getScheduledTime());
+        request.setVersion(version);
+        return request;
+    }
+}
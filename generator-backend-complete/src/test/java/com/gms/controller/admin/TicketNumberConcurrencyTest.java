@@ -0,0 +1,195 @@
+package com.gms.controller.admin;
+
+import com.gms.dto.request.MainTicketRequest;
+import com.gms.dto.response.MainTicketResponse;
+import com.gms.entity.Generator;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.service.TicketNumberAllocator;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ticket creates from more threads than the connection pool has connections must all
+ * succeed on the first attempt, with distinct numbers for the day, and must not queue
+ * on the day's counter row.
+ */
+class TicketNumberConcurrencyTest extends PostgresIntegrationTest {
+
+    // More than spring.datasource.hikari.maximum-pool-size (10)
+    private static final int THREADS = 24;
+    private static final int CREATES_PER_THREAD = 5;
+
+    private static final String ZONE = "Asia/Colombo";
+    private static final int BLOCK_SIZE = 10;
+
+    @Autowired
+    private AdminTicketController controller;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private TicketNumberAllocator allocator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentCreatesGetDistinctNumbersWithoutRetries() throws Exception {
+        User admin = testData.user(Role.ADMIN);
+        User employee = testData.user(Role.EMPLOYEE);
+        Generator generator = testData.generator();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    TestData.signIn(admin);
+                    try {
+                        start.await();
+                        List<String> numbers = new ArrayList<>();
+                        for (int i = 0; i < CREATES_PER_THREAD; i++) {
+                            // Any exception fails the test: nothing here is retried
+                            MainTicketResponse created = controller.createTicket(request(generator, employee)).getBody();
+                            numbers.add(created.getTicketNumber());
+                        }
+                        return numbers;
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                    }
+                }));
+            }
+            start.countDown();
+
+            List<String> numbers = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                numbers.addAll(result.get(60, TimeUnit.SECONDS));
+            }
+
+            Set<String> distinct = new HashSet<>(numbers);
+            assertThat(numbers).hasSize(THREADS * CREATES_PER_THREAD);
+            assertThat(distinct).hasSameSizeAs(numbers);
+            assertThat(numbers).allMatch(number -> number.matches("TKT-\\d{8}-\\d{4}"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodesReserveSeparateBlocks() {
+        TicketNumberAllocator nodeA = new TicketNumberAllocator(jdbcTemplate, transactionManager, ZONE, BLOCK_SIZE);
+        TicketNumberAllocator nodeB = new TicketNumberAllocator(jdbcTemplate, transactionManager, ZONE, BLOCK_SIZE);
+
+        int a1 = sequence(nodeA.nextTicketNumber());
+        int b1 = sequence(nodeB.nextTicketNumber());
+        int a2 = sequence(nodeA.nextTicketNumber());
+        int b2 = sequence(nodeB.nextTicketNumber());
+
+        assertThat(a2).isEqualTo(a1 + 1);
+        assertThat(b1).isEqualTo(a1 + BLOCK_SIZE);
+        assertThat(b2).isEqualTo(b1 + 1);
+    }
+
+    @Test
+    void createsDoNotWaitForTheCounterRow() throws Exception {
+        User admin = testData.user(Role.ADMIN);
+        User employee = testData.user(Role.EMPLOYEE);
+        Generator generator = testData.generator();
+        String day = allocator.nextTicketNumber().substring(4, 12);
+
+        // Another node holds the day's counter row, e.g. while reserving its own block
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService otherNode = Executors.newSingleThreadExecutor();
+        ExecutorService creates = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> lock = otherNode.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT last_value FROM ticket_number_counters WHERE day_key = ? FOR UPDATE",
+                    Long.class, day);
+                locked.countDown();
+                await(release);
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Served from the block reserved above, without touching the row
+            Future<List<String>> created = creates.submit(() -> {
+                TestData.signIn(admin);
+                try {
+                    List<String> numbers = new ArrayList<>();
+                    for (int i = 0; i < 3; i++) {
+                        numbers.add(controller.createTicket(request(generator, employee)).getBody().getTicketNumber());
+                    }
+                    return numbers;
+                } finally {
+                    SecurityContextHolder.clearContext();
+                }
+            });
+            assertThat(created.get(10, TimeUnit.SECONDS)).hasSize(3);
+
+            release.countDown();
+            lock.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            otherNode.shutdownNow();
+            creates.shutdownNow();
+        }
+    }
+
+    @Test
+    void allocationInsideATransactionIsRefused() {
+        // It would need a second pooled connection while the caller holds one
+        assertThatThrownBy(() -> new TransactionTemplate(transactionManager).execute(status -> allocator.nextTicketNumber()))
+            .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    private static int sequence(String ticketNumber) {
+        return Integer.parseInt(ticketNumber.substring(13));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static MainTicketRequest request(Generator generator, User employee) {
+        MainTicketRequest request = new MainTicketRequest();
+        request.setGeneratorId(generator.getId());
+        request.setTitle("Concurrent create");
+        request.setWeight(2);
+        request.setScheduledDate(LocalDate.now());
+        request.setScheduledTime(LocalTime.of(10, 0));
+        request.setEmployeeIds(List.of(employee.getId()));
+        return request;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gms.repository;
+
+import com.gms.controller.admin.AdminJobCardController;
+import com.gms.controller.admin.AdminReportController;
+import com.gms.dto.projection.StatusLogRow;
+import com.gms.entity.MainTicket;
+import com.gms.entity.MiniJobCard;
+import com.gms.entity.User;
+import com.gms.enums.JobStatus;
+import com.gms.enums.Role;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Status history reads are bounded by logged_at, so Postgres only scans the monthly
+ * partitions of job_status_logs that can hold matching rows.
+ */
+class StatusHistoryPartitionPruningTest extends PostgresIntegrationTest {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+
+    @Autowired
+    private AdminJobCardController jobCardController;
+
+    @Autowired
+    private AdminReportController reportController;
+
+    @Autowired
+    private MiniJobCardRepository jobCardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Value("${app.timezone:Asia/Colombo}")
+    private String timezone;
+
+    private User employee;
+    private MiniJobCard jobCard;
+
+    @BeforeEach
+    void createJobCard() {
+        User admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        MainTicket ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        jobCard = jobCardRepository.save(MiniJobCard.builder()
+            .mainTicket(ticket)
+            .employee(employee)
+            .build());
+    }
+
+    @Test
+    void jobCardHistoryReturnsTheCardsChangesInOrder() {
+        LocalDateTime created = jobCard.getCreatedAt();
+        log(JobStatus.TRAVELING, created.plusSeconds(1));
+        log(JobStatus.STARTED, created.plusSeconds(2));
+
+        List<StatusLogRow> history = jobCardController.getStatusHistory(jobCard.getId()).getBody();
+
+        assertThat(history).extracting(StatusLogRow::getNewStatus)
+            .containsExactly(JobStatus.TRAVELING, JobStatus.STARTED);
+        assertThat(history).allSatisfy(row -> assertThat(row.getUpdatedById()).isEqualTo(employee.getId()));
+    }
+
+    @Test
+    void employeeHistoryOnlyReturnsTheRequestedDays() {
+        LocalDateTime created = jobCard.getCreatedAt();
+        log(JobStatus.TRAVELING, created.plusSeconds(1));
+        log(JobStatus.STARTED, created.plusDays(40));
+
+        List<StatusLogRow> history = reportController
+            .getStatusHistory(created.toLocalDate(), created.toLocalDate(), employee.getId()).getBody();
+
+        assertThat(history).extracting(StatusLogRow::getNewStatus).containsExactly(JobStatus.TRAVELING);
+    }
+
+    @Test
+    void boundedHistoryQueryScansOnlyThatMonthsPartition() {
+        YearMonth month = YearMonth.now(ZoneId.of(timezone));
+        String partition = "job_status_logs" + month.format(PARTITION_SUFFIX);
+        String nextPartition = "job_status_logs" + month.plusMonths(1).format(PARTITION_SUFFIX);
+
+        // The statement the repository's JPQL translates to
+        List<String> plan = jdbcTemplate.queryForList(
+            "EXPLAIN SELECT l.id, l.new_status, l.logged_at FROM job_status_logs l " +
+                "WHERE l.mini_job_card_id = ? AND l.logged_at >= ? AND l.logged_at < ? ORDER BY l.logged_at",
+            String.class,
+            jobCard.getId(),
+            Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+            Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay()));
+
+        String text = String.join("\n", plan);
+        assertThat(text).contains(partition);
+        assertThat(text).doesNotContain(nextPartition).doesNotContain("job_status_logs_default");
+    }
+
+    private void log(JobStatus status, LocalDateTime loggedAt) {
+        jdbcTemplate.update(
+            "INSERT INTO job_status_logs (mini_job_card_id, new_status, logged_at, updated_by) VALUES (?, ?, ?, ?)",
+            jobCard.getId(), status.name(), Timestamp.valueOf(loggedAt), employee.getId());
+    }
+}
@@ -0,0 +1,140 @@
+package com.gms.repository;
+
+import com.gms.dto.response.SubTicketResponse;
+import com.gms.entity.Generator;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Heap allocated per "my tickets" request: entities mapped to SubTicketResponse (as before
+ * the projections) against the JPQL constructor projection in a read-only transaction.
+ */
+class SubTicketResponseAllocationTest extends PostgresIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SubTicketResponseAllocationTest.class);
+
+    private static final int SUB_TICKETS = 50;
+    private static final int WARMUP_REQUESTS = 300;
+    private static final int MEASURED_REQUESTS = 300;
+
+    // The query the employee listing ran before it selected projections
+    private static final String ENTITY_QUERY =
+        "SELECT st FROM SubTicket st " +
+        "LEFT JOIN FETCH st.mainTicket mt " +
+        "LEFT JOIN FETCH mt.generator " +
+        "LEFT JOIN FETCH st.employee " +
+        "WHERE st.employee.id = :employeeId";
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    private User employee;
+
+    @BeforeEach
+    void createTickets() {
+        User admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        Generator generator = testData.generator();
+        for (int i = 0; i < SUB_TICKETS; i++) {
+            testData.ticket(generator, admin, List.of(employee));
+        }
+    }
+
+    @Test
+    void projectionAllocatesLessThanEntitiesPerRequest() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Supplier<List<SubTicketResponse>> entities = () -> readWrite.execute(status -> entityManager
+            .createQuery(ENTITY_QUERY, SubTicket.class)
+            .setParameter("employeeId", employee.getId())
+            .getResultList().stream()
+            .map(SubTicketResponseAllocationTest::toResponse)
+            .collect(Collectors.toList()));
+        Supplier<List<SubTicketResponse>> projection = () -> readOnly.execute(status ->
+            subTicketRepository.findResponsesByEmployeeId(employee.getId()));
+
+        assertThat(entities.get()).hasSize(SUB_TICKETS);
+        assertThat(projection.get()).usingRecursiveFieldByFieldElementComparator()
+            .containsExactlyInAnyOrderElementsOf(entities.get());
+
+        long entityBytes = bytesPerRequest(entities);
+        long projectionBytes = bytesPerRequest(projection);
+        log.info("Heap allocated per request of {} sub-tickets: entities {} bytes, projection {} bytes",
+            SUB_TICKETS, entityBytes, projectionBytes);
+
+        assertThat(projectionBytes).isLessThan(entityBytes);
+    }
+
+    private static long bytesPerRequest(Supplier<List<SubTicketResponse>> request) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            request.get();
+        }
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            request.get();
+        }
+        return (threads.getThreadAllocatedBytes(thread) - before) / MEASURED_REQUESTS;
+    }
+
+    private static SubTicketResponse toResponse(SubTicket subTicket) {
+        SubTicketResponse.SubTicketResponseBuilder builder = SubTicketResponse.builder()
+            .id(subTicket.getId())
+            .ticketNumber(subTicket.getTicketNumber())
+            .mainTicketId(subTicket.getMainTicket().getId())
+            .mainTicketNumber(subTicket.getMainTicket().getTicketNumber())
+            .mainTicketWeight(subTicket.getMainTicket().getWeight())
+            .employeeId(subTicket.getEmployee().getId())
+            .employeeName(subTicket.getEmployee().getFullName())
+            .employeeEmail(subTicket.getEmployee().getEmail())
+            .status(subTicket.getStatus())
+            .notes(subTicket.getNotes())
+            .completionFactor(subTicket.getCompletionFactor())
+            .qualityFactor(subTicket.getQualityFactor())
+            .score(subTicket.getScore())
+            .approved(subTicket.getApproved())
+            .approvedAt(subTicket.getApprovedAt())
+            .adminReviewNotes(subTicket.getAdminReviewNotes())
+            .createdAt(subTicket.getCreatedAt())
+            .updatedAt(subTicket.getUpdatedAt())
+            .completedAt(subTicket.getCompletedAt())
+            .version(subTicket.getVersion());
+
+        if (subTicket.getApprovedBy() != null) {
+            builder.approvedById(subTicket.getApprovedBy().getId())
+                .approvedByName(subTicket.getApprovedBy().getFullName());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.gms.security;
+
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access tokens verified per second by JwtAuthenticationFilter, before and after the
+ * signing key and parser were built once at startup.
+ *
+ * before: a new key and parser per call, token parsed twice (validateToken, then getUserIdFromJWT).
+ * after:  the shared parser, one validateAndGetClaims per request.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark=JwtValidationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET =
+        "aVeryLongSecretKeyThatIsAtLeast64CharactersLongForHS512AlgorithmSecurityPurposes123456789";
+
+    private JwtTokenProvider tokenProvider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(tokenProvider, "accessTokenExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "refreshTokenExpiration", TimeUnit.DAYS.toMillis(7));
+        tokenProvider.init();
+
+        User user = User.builder().id(42L).username("bench").password("x").fullName("Bench")
+            .role(Role.EMPLOYEE).active(true).tokenVersion(0).build();
+        UserPrincipal principal = UserPrincipal.create(user);
+        token = tokenProvider.generateAccessToken(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Benchmark
+    public long before() {
+        // What validateToken and getUserIdFromJWT each did before the change
+        SecretKey validateKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Jwts.parserBuilder().setSigningKey(validateKey).build().parseClaimsJws(token);
+
+        SecretKey readKey = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        Claims claims = Jwts.parserBuilder().setSigningKey(readKey).build().parseClaimsJws(token).getBody();
+        return Long.parseLong(claims.getSubject());
+    }
+
+    @Benchmark
+    public long after() {
+        Optional<Claims> claims = tokenProvider.validateAndGetClaims(token);
+        return Long.parseLong(claims.orElseThrow().getSubject());
+    }
+}
@@ -0,0 +1,259 @@
+package com.gms.service;
+
+import com.gms.dto.response.DayStatusResponse;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.event.EmployeeDayChangedEvent;
+import com.gms.repository.EmployeeDayLogRepository;
+import com.gms.repository.UserRepository;
+import com.gms.service.DayStatusCache.DayState;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.SettableClock;
+import com.gms.support.TestData;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The day status cache against a real database: this node writes its own changes through,
+ * another node's changes arrive by NOTIFY, and nothing goes stale while that channel is down.
+ *
+ * "Another node" is a second cache with its own DayChangeChannel, next to the application's.
+ */
+class DayStatusCacheTest extends PostgresIntegrationTest {
+
+    private static final long WAIT_MILLIS = 10_000;
+    private static final Duration MAX_SHIFT = Duration.ofHours(16);
+
+    @Autowired
+    private DayManagementService dayManagementService;
+
+    @Autowired
+    private DayStatusCache dayStatusCache;
+
+    @Autowired
+    private EmployeeDayLogRepository dayLogRepository;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private WorkHours workHours;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Value("${app.timezone:Asia/Colombo}")
+    private String timezone;
+
+    private User employee;
+    private DayChangeChannel otherChannel;
+
+    @BeforeEach
+    void createEmployee() {
+        employee = testData.user(Role.EMPLOYEE);
+    }
+
+    @AfterEach
+    void stopOtherNode() {
+        if (otherChannel != null) {
+            otherChannel.stop();
+        }
+    }
+
+    @Test
+    void startAndEndOfDayAreWrittenThrough() {
+        LocalDate today = dayStatusCache.today();
+        DayStatusResponse started = dayManagementService.startDay(employee.getId());
+
+        // Moved behind the cache's back: a cache that re-read the row would see this
+        jdbcTemplate.update("UPDATE employee_day_logs SET day_start_time = day_start_time - INTERVAL '1 hour' " +
+            "WHERE employee_id = ?", employee.getId());
+        DayStatusCache.Day day = dayStatusCache.getDay(employee.getId(), today);
+        assertThat(day.getState()).isEqualTo(DayState.STARTED);
+        assertThat(day.getStartTime()).isEqualTo(started.getDayStartTime());
+
+        DayStatusResponse ended = dayManagementService.endDay(employee.getId());
+
+        jdbcTemplate.update("UPDATE employee_day_logs SET day_end_time = NULL WHERE employee_id = ?", employee.getId());
+        day = dayStatusCache.getDay(employee.getId(), today);
+        assertThat(day.getState()).isEqualTo(DayState.ENDED);
+        assertThat(day.getEndTime()).isEqualTo(ended.getDayEndTime());
+    }
+
+    @Test
+    void notificationFromAnotherNodeDropsTheCachedDay() {
+        DayStatusCache otherNode = startOtherNode();
+        LocalDate today = otherNode.today();
+        assertThat(otherNode.getState(employee.getId(), today)).isEqualTo(DayState.NOT_STARTED);
+
+        // Without a notification the cached "not started" stands
+        insertStartedDay(employee, today);
+        assertThat(otherNode.getState(employee.getId(), today)).isEqualTo(DayState.NOT_STARTED);
+
+        jdbcTemplate.queryForList("SELECT pg_notify('employee_day_changed', ?)",
+            "some-other-node|" + employee.getId() + "|" + today);
+        assertThat(await(() -> otherNode.getState(employee.getId(), today) == DayState.STARTED)).isTrue();
+    }
+
+    @Test
+    void startingADayHereReachesTheOtherNode() {
+        DayStatusCache otherNode = startOtherNode();
+        LocalDate today = otherNode.today();
+        assertThat(otherNode.getState(employee.getId(), today)).isEqualTo(DayState.NOT_STARTED);
+
+        dayManagementService.startDay(employee.getId());
+
+        assertThat(await(() -> otherNode.getState(employee.getId(), today) == DayState.STARTED)).isTrue();
+    }
+
+    @Test
+    void notStartedIsNotCachedWhileTheChannelIsDown() {
+        DayStatusCache otherNode = startOtherNode();
+        otherChannel.stop();
+        assertThat(await(() -> !otherChannel.isListening())).isTrue();
+
+        LocalDate today = otherNode.today();
+        assertThat(otherNode.getState(employee.getId(), today)).isEqualTo(DayState.NOT_STARTED);
+
+        // Started on a node whose notification this one cannot hear
+        insertStartedDay(employee, today);
+        assertThat(otherNode.getState(employee.getId(), today)).isEqualTo(DayState.STARTED);
+    }
+
+    @Test
+    void dayRollsOverAtMidnightInTheAppTimezone() {
+        ZoneId zone = ZoneId.of(timezone);
+        SettableClock clock = new SettableClock(zone);
+        DayStatusCache cache = cache(clock);
+
+        LocalDate lastDay = LocalDate.of(2031, 8, 31);
+        clock.set(lastDay.atTime(23, 59, 59));
+        assertThat(cache.today()).isEqualTo(lastDay);
+        cache.onDayChanged(new EmployeeDayChangedEvent(employee.getId(), lastDay, lastDay.atTime(8, 0), null));
+
+        cache.evictPastDays();
+        assertThat(cache.getState(employee.getId(), lastDay)).isEqualTo(DayState.STARTED);
+
+        clock.set(lastDay.plusDays(1).atStartOfDay().plusSeconds(1));
+        assertThat(cache.today()).isEqualTo(lastDay.plusDays(1));
+        // Still the previous day in UTC; the date follows app.timezone
+        assertThat(clock.instant().atOffset(ZoneOffset.UTC).toLocalDate()).isEqualTo(lastDay);
+
+        // Yesterday stays cached for shifts running past midnight
+        cache.evictPastDays();
+        assertThat(cache.getState(employee.getId(), lastDay)).isEqualTo(DayState.STARTED);
+
+        // Evicted a day later, so the day is read again: there is no row for it
+        clock.set(lastDay.plusDays(2).atStartOfDay());
+        cache.evictPastDays();
+        assertThat(cache.getState(employee.getId(), lastDay)).isEqualTo(DayState.NOT_STARTED);
+    }
+
+    @Test
+    void shiftPastMidnightStaysTheCurrentDayUntilTheMaximumShift() {
+        SettableClock clock = new SettableClock(ZoneId.of(timezone));
+        DayStatusCache cache = cache(clock);
+        LocalDate lastDay = LocalDate.of(2031, 8, 31);
+        cache.onDayChanged(new EmployeeDayChangedEvent(employee.getId(), lastDay, lastDay.atTime(22, 0), null));
+
+        clock.set(lastDay.plusDays(1).atTime(1, 0));
+        assertThat(cache.currentDay(employee.getId())).isEqualTo(lastDay);
+
+        // Forgotten rather than running: the next day is the current one
+        clock.set(lastDay.plusDays(1).atTime(14, 0));
+        assertThat(cache.currentDay(employee.getId())).isEqualTo(lastDay.plusDays(1));
+
+        // Ended, or a new day started: today
+        clock.set(lastDay.plusDays(1).atTime(1, 0));
+        cache.onDayChanged(new EmployeeDayChangedEvent(employee.getId(), lastDay, lastDay.atTime(22, 0),
+            lastDay.plusDays(1).atTime(0, 45)));
+        assertThat(cache.currentDay(employee.getId())).isEqualTo(lastDay.plusDays(1));
+    }
+
+    @Test
+    void shiftEndedAfterMidnightEndsTheDayItStarted() {
+        SettableClock clock = new SettableClock(ZoneId.of(timezone));
+        LocalDate today = LocalDate.now(clock);
+        clock.set(today.atTime(1, 0));
+        DayManagementService days = new DayManagementService(dayLogRepository, userRepository, eventPublisher,
+            cache(clock), workHours);
+        insertDay(employee, today.minusDays(1), today.minusDays(1).atTime(23, 0));
+
+        assertThatThrownBy(() -> days.startDay(employee.getId()))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Day already started");
+
+        assertThat(days.endDay(employee.getId()).isDayEnded()).isTrue();
+        assertThat(dayLogRepository.findByEmployeeIdAndDayDate(employee.getId(), today.minusDays(1)).orElseThrow()
+            .getDayEndTime()).isNotNull();
+        assertThat(dayLogRepository.findByEmployeeIdAndDayDate(employee.getId(), today)).isEmpty();
+    }
+
+    private DayStatusCache startOtherNode() {
+        DayStatusCache cache = cache(Clock.system(ZoneId.of(timezone)));
+        otherChannel = new DayChangeChannel(cache, jdbcTemplate, dataSourceProperties, true, 100, 100);
+        otherChannel.start();
+        assertThat(await(otherChannel::isListening)).isTrue();
+        return cache;
+    }
+
+    private DayStatusCache cache(Clock clock) {
+        return new DayStatusCache(dayLogRepository, new SimpleMeterRegistry(), clock, 100, 60, MAX_SHIFT);
+    }
+
+    private void insertStartedDay(User employee, LocalDate day) {
+        insertDay(employee, day, LocalDateTime.now());
+    }
+
+    private void insertDay(User employee, LocalDate day, LocalDateTime start) {
+        jdbcTemplate.update("INSERT INTO employee_day_logs (employee_id, day_date, day_start_time, " +
+                "morning_ot_minutes, evening_ot_minutes, total_work_minutes, auto_closed, version) " +
+                "VALUES (?, ?, ?, 0, 0, 0, false, 0)",
+            employee.getId(), Date.valueOf(day), Timestamp.valueOf(start));
+    }
+
+    private static boolean await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+}
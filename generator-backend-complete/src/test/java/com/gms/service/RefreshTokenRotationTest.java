@@ -0,0 +1,198 @@
+package com.gms.service;
+
+import com.gms.entity.RefreshToken;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.exception.UnauthorizedException;
+import com.gms.security.JwtTokenProvider;
+import com.gms.security.TokenRevocationService;
+import com.gms.security.UserPrincipal;
+import com.gms.security.token.RefreshTokenStore;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Refreshing at the same moment from several requests or tabs must not end the session,
+ * while replaying a rotated token later still revokes its whole family.
+ */
+class RefreshTokenRotationTest extends PostgresIntegrationTest {
+
+    private static final int CONCURRENT_REFRESHES = 8;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private RefreshTokenStore refreshTokenStore;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TestData testData;
+
+    private User user;
+    private UserPrincipal principal;
+
+    @BeforeEach
+    void createUser() {
+        user = testData.user(Role.EMPLOYEE);
+        principal = UserPrincipal.create(user);
+    }
+
+    @Test
+    void tokenPresentedAgainWithinTheGraceWindowGetsTheSameSuccessor() {
+        String token = refreshTokenService.issue(principal, user.getFullName(), "laptop");
+
+        String successor = refreshTokenService.rotate(token).getRefreshToken();
+
+        assertThat(refreshTokenService.rotate(token).getRefreshToken()).isEqualTo(successor);
+        assertThat(refreshTokenService.rotate(successor).getRefreshToken()).isNotEqualTo(successor);
+    }
+
+    @Test
+    void concurrentRefreshesDoNotRevokeTheFamily() throws Exception {
+        String token = refreshTokenService.issue(principal, user.getFullName(), "laptop");
+
+        ExecutorService pool = Executors.newFixedThreadPool(CONCURRENT_REFRESHES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < CONCURRENT_REFRESHES; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    try {
+                        return refreshTokenService.rotate(token).getRefreshToken();
+                    } catch (UnauthorizedException ex) {
+                        // Allowed only in the moment before the winner's successor is remembered
+                        assertThat(ex.getMessage()).isEqualTo("Refresh token was just rotated");
+                        return null;
+                    }
+                }));
+            }
+            start.countDown();
+
+            Set<String> successors = new HashSet<>();
+            for (Future<String> result : results) {
+                String successor = result.get(30, TimeUnit.SECONDS);
+                if (successor != null) {
+                    successors.add(successor);
+                }
+            }
+
+            assertThat(successors).hasSize(1);
+            // The session survives: the one successor still rotates
+            assertThat(refreshTokenService.rotate(successors.iterator().next()).getRefreshToken()).isNotNull();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void replayAfterTheGraceWindowRevokesTheFamily() {
+        RefreshTokenService noGrace = new RefreshTokenService(refreshTokenStore, tokenProvider, tokenRevocationService,
+            0, 100, 1000);
+        String token = noGrace.issue(principal, user.getFullName(), "phone");
+        String successor = noGrace.rotate(token).getRefreshToken();
+
+        assertThatThrownBy(() -> noGrace.rotate(token)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> noGrace.rotate(successor))
+            .isInstanceOf(UnauthorizedException.class)
+            .hasMessage("Refresh token has been revoked");
+    }
+
+    @Test
+    void failedRotationLeavesThePresentedTokenUsable() {
+        RefreshTokenService failing = new RefreshTokenService(new FailingSaveStore(refreshTokenStore), tokenProvider,
+            tokenRevocationService, 10, 100, 1000);
+        String token = refreshTokenService.issue(principal, user.getFullName(), "tablet");
+
+        // As the @Transactional proxy of the service bean runs it
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> transaction.execute(status -> failing.rotate(token)))
+            .isInstanceOf(IllegalStateException.class);
+
+        assertThat(refreshTokenService.rotate(token).getRefreshToken()).isNotNull();
+    }
+
+    @Test
+    void devicesKeepSeparateSessions() {
+        String laptop = refreshTokenService.issue(principal, user.getFullName(), "laptop");
+        String phone = refreshTokenService.issue(principal, user.getFullName(), "phone");
+
+        assertThat(refreshTokenService.rotate(laptop).getRefreshToken()).isNotNull();
+        assertThat(refreshTokenService.rotate(phone).getRefreshToken()).isNotNull();
+    }
+
+    /**
+     * Fails to store the successor after the presented token was revoked
+     */
+    private record FailingSaveStore(RefreshTokenStore delegate) implements RefreshTokenStore {
+
+        @Override
+        public RefreshToken save(RefreshToken token) {
+            throw new IllegalStateException("Lost the connection");
+        }
+
+        @Override
+        public Optional<RefreshToken> findByTokenHash(String tokenHash) {
+            return delegate.findByTokenHash(tokenHash);
+        }
+
+        @Override
+        public boolean revokeIfActive(RefreshToken token, LocalDateTime now) {
+            return delegate.revokeIfActive(token, now);
+        }
+
+        @Override
+        public boolean hasSuccessorSince(RefreshToken token, LocalDateTime since) {
+            return delegate.hasSuccessorSince(token, since);
+        }
+
+        @Override
+        public void revokeFamily(String familyId, LocalDateTime now) {
+            delegate.revokeFamily(familyId, now);
+        }
+
+        @Override
+        public void revokeDevice(Long userId, String deviceId, LocalDateTime now) {
+            delegate.revokeDevice(userId, deviceId, now);
+        }
+
+        @Override
+        public void revokeAllForUser(Long userId, LocalDateTime now) {
+            delegate.revokeAllForUser(userId, now);
+        }
+
+        @Override
+        public int purgeExpired(LocalDateTime now, int batchSize) {
+            return delegate.purgeExpired(now, batchSize);
+        }
+    }
+}
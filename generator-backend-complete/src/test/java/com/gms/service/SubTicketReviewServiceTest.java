@@ -0,0 +1,153 @@
+package com.gms.service;
+
+import com.gms.dto.request.BulkApprovalRequest;
+import com.gms.dto.response.BulkApprovalResponse;
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.repository.SubTicketRepository;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * One bulk review with every kind of item: each result lands on its own item, and only
+ * the approvals that were written add employee scores.
+ */
+class SubTicketReviewServiceTest extends PostgresIntegrationTest {
+
+    private static final String CHANGED = "Sub-ticket was changed by another request; reload it and review again";
+
+    @Autowired
+    private SubTicketReviewService reviewService;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @SpyBean
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private List<SubTicket> subTickets;
+
+    @BeforeEach
+    void createTicket() {
+        admin = testData.user(Role.ADMIN);
+        List<User> employees = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            employees.add(testData.user(Role.EMPLOYEE));
+        }
+        MainTicket ticket = testData.ticket(testData.generator(), admin, employees);
+        subTickets = subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).stream()
+            .sorted(Comparator.comparing(SubTicket::getTicketNumber))
+            .toList();
+        // All but the last are waiting for review
+        for (SubTicket subTicket : subTickets.subList(0, 5)) {
+            jdbcTemplate.update("UPDATE sub_tickets SET status = 'COMPLETED' WHERE id = ?", subTicket.getId());
+        }
+    }
+
+    @Test
+    void mixedBatchReportsEachItemOnItsOwn() {
+        SubTicket approved = subTickets.get(0);
+        SubTicket rejected = subTickets.get(1);
+        SubTicket staleInRequest = subTickets.get(2);
+        SubTicket changedDuringReview = subTickets.get(3);
+        SubTicket alsoApproved = subTickets.get(4);
+        SubTicket notCompleted = subTickets.get(5);
+
+        // Another request bumps this one between the review's read and its batch update
+        doAnswer(invocation -> {
+            jdbcTemplate.update("UPDATE sub_tickets SET version = version + 1 WHERE id = ?", changedDuringReview.getId());
+            return invocation.callRealMethod();
+        }).when(jdbcTemplate).batchUpdate(startsWith("UPDATE sub_tickets"), anyList(), any(int[].class));
+
+        List<BulkApprovalRequest.Item> items = List.of(
+            item(approved.getId(), true, 0.5, 0.8, null),
+            item(rejected.getId(), false, null, null, null),
+            item(approved.getId(), true, null, null, null),
+            item(-1L, true, null, null, null),
+            item(staleInRequest.getId(), true, null, null, staleInRequest.getVersion() - 1),
+            item(changedDuringReview.getId(), true, null, null, null),
+            item(notCompleted.getId(), true, null, null, null),
+            item(alsoApproved.getId(), true, null, null, null));
+
+        BulkApprovalResponse response = reviewService.reviewAll(admin.getId(), items);
+        List<BulkApprovalResponse.ItemResult> results = response.getResults();
+
+        assertThat(response.getSucceeded()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(5);
+        assertThat(results).extracting(BulkApprovalResponse.ItemResult::getSubTicketId)
+            .containsExactlyElementsOf(items.stream().map(BulkApprovalRequest.Item::getSubTicketId).toList());
+        assertThat(results).extracting(BulkApprovalResponse.ItemResult::isSuccess)
+            .containsExactly(true, true, false, false, false, false, false, true);
+
+        assertThat(results.get(0).getStatus()).isEqualTo(TicketStatus.APPROVED);
+        assertThat(results.get(0).getScore()).isEqualTo(3 * 0.5 * 0.8);
+        assertThat(results.get(1).getStatus()).isEqualTo(TicketStatus.REJECTED);
+        assertThat(results.get(2).getError()).contains("more than once");
+        assertThat(results.get(3).getError()).isEqualTo("Sub-ticket not found");
+        assertThat(results.get(4).getError()).isEqualTo(CHANGED);
+        // The zero update count of the third batched row maps back to the sixth item
+        assertThat(results.get(5).getError()).isEqualTo(CHANGED);
+        assertThat(results.get(6).getError()).contains("Cannot transition from ASSIGNED to APPROVED");
+        assertThat(results.get(7).getScore()).isEqualTo(3.0);
+
+        assertThat(status(approved)).isEqualTo("APPROVED");
+        assertThat(status(rejected)).isEqualTo("REJECTED");
+        assertThat(status(staleInRequest)).isEqualTo("COMPLETED");
+        assertThat(status(changedDuringReview)).isEqualTo("COMPLETED");
+        assertThat(status(alsoApproved)).isEqualTo("APPROVED");
+
+        List<Map<String, Object>> scores = jdbcTemplate.queryForList(
+            "SELECT sub_ticket_id, employee_id, score, approved_by FROM employee_scores " +
+                "WHERE sub_ticket_id IN (?, ?, ?, ?, ?, ?) ORDER BY sub_ticket_id",
+            approved.getId(), rejected.getId(), staleInRequest.getId(), changedDuringReview.getId(),
+            alsoApproved.getId(), notCompleted.getId());
+        assertThat(scores).extracting(row -> row.get("sub_ticket_id"))
+            .containsExactly(approved.getId(), alsoApproved.getId());
+        assertThat(scores.get(0).get("employee_id")).isEqualTo(approved.getEmployee().getId());
+        assertThat((BigDecimal) scores.get(0).get("score")).isEqualByComparingTo("1.20");
+        assertThat(scores.get(0).get("approved_by")).isEqualTo(admin.getId());
+
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT total_score FROM employee_score_aggregates WHERE employee_id = ? AND period = 'DAY'",
+            BigDecimal.class, alsoApproved.getEmployee().getId())).isEqualByComparingTo("3.00");
+    }
+
+    private String status(SubTicket subTicket) {
+        return jdbcTemplate.queryForObject("SELECT status FROM sub_tickets WHERE id = ?", String.class, subTicket.getId());
+    }
+
+    private static BulkApprovalRequest.Item item(Long subTicketId, boolean approved, Double completionFactor,
+                                                 Double qualityFactor, Long version) {
+        BulkApprovalRequest.Item item = new BulkApprovalRequest.Item();
+        item.setSubTicketId(subTicketId);
+        item.setApproved(approved);
+        item.setCompletionFactor(completionFactor);
+        item.setQualityFactor(qualityFactor);
+        item.setVersion(version);
+        return item;
+    }
+}
@@ -0,0 +1,71 @@
+package com.gms.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Overtime is only the time actually worked outside 08:30-17:30, wherever the shift falls.
+ */
+class WorkHoursTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 11);
+
+    private final WorkHours workHours = new WorkHours("08:30:00", "17:30:00");
+
+    @Test
+    void shiftAroundTheWorkingDayHasOvertimeOnBothEnds() {
+        LocalDateTime start = DAY.atTime(7, 0);
+        LocalDateTime end = DAY.atTime(19, 0);
+
+        assertThat(workHours.morningOtMinutes(start)).isEqualTo(90);
+        assertThat(workHours.morningOtMinutes(start, end)).isEqualTo(90);
+        assertThat(workHours.eveningOtMinutes(start, end)).isEqualTo(90);
+        assertThat(workHours.totalWorkMinutes(start, end)).isEqualTo(720);
+    }
+
+    @Test
+    void shiftEndingBeforeTheWorkStartIsAllMorningOvertime() {
+        LocalDateTime start = DAY.atTime(6, 0);
+        LocalDateTime end = DAY.atTime(8, 0);
+
+        // Known at the start as 150 minutes, but only 120 were worked
+        assertThat(workHours.morningOtMinutes(start)).isEqualTo(150);
+        assertThat(workHours.morningOtMinutes(start, end)).isEqualTo(120);
+        assertThat(workHours.eveningOtMinutes(start, end)).isZero();
+        assertThat(workHours.totalWorkMinutes(start, end)).isEqualTo(120);
+    }
+
+    @Test
+    void shiftStartingAfterTheWorkEndIsAllEveningOvertime() {
+        LocalDateTime start = DAY.atTime(18, 0);
+        LocalDateTime end = DAY.atTime(20, 30);
+
+        assertThat(workHours.morningOtMinutes(start)).isZero();
+        assertThat(workHours.morningOtMinutes(start, end)).isZero();
+        assertThat(workHours.eveningOtMinutes(start, end)).isEqualTo(150);
+        assertThat(workHours.totalWorkMinutes(start, end)).isEqualTo(150);
+    }
+
+    @Test
+    void shiftWithinTheWorkingDayHasNoOvertime() {
+        LocalDateTime start = DAY.atTime(9, 0);
+        LocalDateTime end = DAY.atTime(17, 0);
+
+        assertThat(workHours.morningOtMinutes(start, end)).isZero();
+        assertThat(workHours.eveningOtMinutes(start, end)).isZero();
+    }
+
+    @Test
+    void shiftPastMidnightCountsInFullOnTheDayItStarted() {
+        LocalDateTime start = DAY.atTime(16, 0);
+        LocalDateTime end = DAY.plusDays(1).atTime(1, 0);
+
+        assertThat(workHours.morningOtMinutes(start, end)).isZero();
+        assertThat(workHours.eveningOtMinutes(start, end)).isEqualTo(450);
+        assertThat(workHours.totalWorkMinutes(start, end)).isEqualTo(540);
+    }
+}
@@ -0,0 +1,73 @@
+package com.gms.service.duration;
+
+import com.gms.enums.JobStatus;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Intervals are split at midnight, and the per-day parts always add up to the card total.
+ */
+class DurationIncrementsTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    private final DurationIncrements increments = new DurationIncrements();
+
+    @Test
+    void intervalCrossingMidnightIsSplitBetweenTheDays() {
+        increments.add(1L, 7L, JobStatus.STARTED, DAY.atTime(23, 30), DAY.plusDays(1).atTime(1, 15));
+
+        assertThat(increments.cardRows()).containsExactly(new Object[]{1L, "STARTED", 6300L});
+        assertThat(increments.employeeDayRows()).containsExactly(
+            new Object[]{7L, Date.valueOf(DAY), "STARTED", 1800L},
+            new Object[]{7L, Date.valueOf(DAY.plusDays(1)), "STARTED", 4500L});
+    }
+
+    @Test
+    void intervalSpanningWholeDaysGetsADayRowEach() {
+        increments.add(1L, 7L, JobStatus.ON_HOLD, DAY.atTime(12, 0), DAY.plusDays(2).atTime(6, 0));
+
+        assertThat(increments.employeeDayRows()).containsExactly(
+            new Object[]{7L, Date.valueOf(DAY), "ON_HOLD", 43_200L},
+            new Object[]{7L, Date.valueOf(DAY.plusDays(1)), "ON_HOLD", 86_400L},
+            new Object[]{7L, Date.valueOf(DAY.plusDays(2)), "ON_HOLD", 21_600L});
+        assertThat(increments.cardRows()).containsExactly(new Object[]{1L, "ON_HOLD", 151_200L});
+    }
+
+    @Test
+    void intervalEndingAtMidnightStaysOnItsDay() {
+        increments.add(1L, 7L, JobStatus.TRAVELING, DAY.atTime(23, 0), DAY.plusDays(1).atStartOfDay());
+
+        assertThat(increments.employeeDayRows()).containsExactly(
+            new Object[]{7L, Date.valueOf(DAY), "TRAVELING", 3600L});
+    }
+
+    @Test
+    void fractionsOfASecondAreDroppedOnBothEnds() {
+        LocalDateTime from = DAY.atTime(23, 59, 59, 900_000_000);
+        LocalDateTime to = DAY.plusDays(1).atTime(0, 0, 1, 100_000_000);
+        increments.add(1L, 7L, JobStatus.STARTED, from, to);
+
+        assertThat(increments.cardRows()).containsExactly(new Object[]{1L, "STARTED", 2L});
+        assertThat(increments.employeeDayRows()).containsExactly(
+            new Object[]{7L, Date.valueOf(DAY), "STARTED", 1L},
+            new Object[]{7L, Date.valueOf(DAY.plusDays(1)), "STARTED", 1L});
+    }
+
+    @Test
+    void repeatedKeysAreMergedIntoOneRow() {
+        increments.add(1L, 7L, JobStatus.STARTED, DAY.atTime(9, 0), DAY.atTime(10, 0));
+        increments.add(1L, 7L, JobStatus.STARTED, DAY.atTime(11, 0), DAY.atTime(11, 30));
+        increments.add(1L, 7L, JobStatus.STARTED, DAY.atTime(12, 0), DAY.atTime(12, 0));
+
+        assertThat(increments.cardRows()).containsExactly(new Object[]{1L, "STARTED", 5400L});
+        assertThat(increments.employeeDayRows()).containsExactly(
+            new Object[]{7L, Date.valueOf(DAY), "STARTED", 5400L});
+        assertThat(increments.size()).isEqualTo(2);
+    }
+}
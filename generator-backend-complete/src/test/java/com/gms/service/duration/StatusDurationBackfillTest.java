@@ -0,0 +1,146 @@
+package com.gms.service.duration;
+
+import com.gms.entity.MainTicket;
+import com.gms.entity.MiniJobCard;
+import com.gms.entity.User;
+import com.gms.enums.JobStatus;
+import com.gms.enums.Role;
+import com.gms.repository.MiniJobCardRepository;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A rebuild from job_status_logs lands on the same totals the live transitions wrote,
+ * and gives cards from before the duration tables the start of their current interval.
+ */
+class StatusDurationBackfillTest extends PostgresIntegrationTest {
+
+    @Autowired
+    private StatusDurationBackfill backfill;
+
+    @Autowired
+    private StatusDurationService statusDurationService;
+
+    @Autowired
+    private MiniJobCardRepository jobCardRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private User employee;
+    private MainTicket ticket;
+
+    @BeforeEach
+    void createTicket() {
+        employee = testData.user(Role.EMPLOYEE);
+        ticket = testData.ticket(testData.generator(), testData.user(Role.ADMIN), List.of(employee));
+    }
+
+    @Test
+    void rebuildAgreesWithLiveTransitions() {
+        MiniJobCard jobCard = jobCard(null);
+        LocalDateTime evening = LocalDate.now().minusDays(3).atTime(22, 0);
+        transition(jobCard, JobStatus.PENDING, null, JobStatus.TRAVELING, evening);
+        transition(jobCard, JobStatus.TRAVELING, evening, JobStatus.STARTED, evening.plusMinutes(40));
+        transition(jobCard, JobStatus.STARTED, evening.plusMinutes(40), JobStatus.ON_HOLD, evening.plusMinutes(110));
+        transition(jobCard, JobStatus.ON_HOLD, evening.plusMinutes(110), JobStatus.STARTED, evening.plusMinutes(140));
+        transition(jobCard, JobStatus.STARTED, evening.plusMinutes(140), JobStatus.COMPLETED, evening.plusMinutes(240));
+
+        List<Map<String, Object>> cardTotals = cardTotals(jobCard);
+        List<Map<String, Object>> dayTotals = dayTotals();
+        assertThat(cardTotals).hasSize(3);
+        // STARTED 22:40-23:50 and 00:20-02:00 of the next day, split at midnight
+        assertThat(dayTotals).extracting(row -> row.get("status") + "@" + row.get("day_date") + "=" + row.get("total_seconds"))
+            .contains("STARTED@" + evening.toLocalDate() + "=4200",
+                "STARTED@" + evening.toLocalDate().plusDays(1) + "=6000");
+
+        // Drift the rollups away from the log; the rebuild must put them back
+        jdbcTemplate.update("UPDATE job_status_durations SET total_seconds = 1 WHERE mini_job_card_id = ?", jobCard.getId());
+        jdbcTemplate.update("DELETE FROM employee_status_durations WHERE employee_id = ? AND status = 'ON_HOLD'",
+            employee.getId());
+        jdbcTemplate.update("INSERT INTO employee_status_durations (employee_id, day_date, status, total_seconds) " +
+            "VALUES (?, ?, 'TRAVELING', 99)", employee.getId(), Date.valueOf(evening.toLocalDate().minusDays(5)));
+
+        backfill.rebuild();
+
+        assertThat(cardTotals(jobCard)).isEqualTo(cardTotals);
+        assertThat(dayTotals()).isEqualTo(dayTotals);
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT to_regclass('job_status_durations_rebuild') IS NULL", Boolean.class)).isTrue();
+    }
+
+    @Test
+    void rebuildSetsStatusChangedAtOnCardsFromBeforeTheDurationTables() {
+        LocalDateTime morning = LocalDate.now().minusDays(1).atTime(9, 0);
+        MiniJobCard oldCard = jobCard(null);
+        log(oldCard, JobStatus.TRAVELING, morning);
+        log(oldCard, JobStatus.STARTED, morning.plusMinutes(30));
+
+        LocalDateTime liveChange = morning.plusHours(2);
+        MiniJobCard liveCard = jobCard(liveChange);
+        log(liveCard, JobStatus.TRAVELING, morning);
+
+        backfill.rebuild();
+
+        assertThat(statusChangedAt(oldCard)).isEqualTo(morning.plusMinutes(30));
+        assertThat(statusChangedAt(liveCard)).isEqualTo(liveChange);
+        // The old card's TRAVELING interval is counted, so its next live transition can continue from here
+        assertThat(cardTotals(oldCard)).extracting(row -> row.get("total_seconds")).containsExactly(1800L);
+    }
+
+    private MiniJobCard jobCard(LocalDateTime statusChangedAt) {
+        return jobCardRepository.save(MiniJobCard.builder()
+            .mainTicket(ticket)
+            .employee(employee)
+            .statusChangedAt(statusChangedAt)
+            .build());
+    }
+
+    /**
+     * What JobCardService.updateStatus writes for one transition, with its log row already flushed
+     */
+    private void transition(MiniJobCard jobCard, JobStatus from, LocalDateTime enteredAt, JobStatus to, LocalDateTime at) {
+        statusDurationService.recordTransition(jobCard.getId(), employee.getId(), from, enteredAt, at);
+        log(jobCard, to, at);
+    }
+
+    private void log(MiniJobCard jobCard, JobStatus status, LocalDateTime loggedAt) {
+        jdbcTemplate.update(
+            "INSERT INTO job_status_logs (mini_job_card_id, new_status, logged_at, updated_by) VALUES (?, ?, ?, ?)",
+            jobCard.getId(), status.name(), Timestamp.valueOf(loggedAt), employee.getId());
+    }
+
+    private List<Map<String, Object>> cardTotals(MiniJobCard jobCard) {
+        return jdbcTemplate.queryForList(
+            "SELECT status, total_seconds FROM job_status_durations WHERE mini_job_card_id = ? ORDER BY status",
+            jobCard.getId());
+    }
+
+    private List<Map<String, Object>> dayTotals() {
+        return jdbcTemplate.queryForList(
+            "SELECT day_date, status, total_seconds FROM employee_status_durations " +
+                "WHERE employee_id = ? ORDER BY day_date, status",
+            employee.getId());
+    }
+
+    private LocalDateTime statusChangedAt(MiniJobCard jobCard) {
+        return jdbcTemplate.queryForObject("SELECT status_changed_at FROM mini_job_cards WHERE id = ?",
+            LocalDateTime.class, jobCard.getId());
+    }
+}
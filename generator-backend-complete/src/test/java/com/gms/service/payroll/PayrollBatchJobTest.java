@@ -0,0 +1,222 @@
+package com.gms.service.payroll;
+
+import com.gms.entity.User;
+import com.gms.enums.OpenDayPolicy;
+import com.gms.enums.Role;
+import com.gms.service.WorkHours;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.SettableClock;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The nightly payroll batch against a real database: how open days are closed, which days it
+ * leaves alone, and a restart from batch_checkpoints in the middle of a day.
+ *
+ * Each test points the checkpoint at its own past dates, and only looks at its own employees.
+ */
+class PayrollBatchJobTest extends PostgresIntegrationTest {
+
+    private static final Duration MAX_SHIFT = Duration.ofHours(16);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WorkHours workHours;
+
+    @Autowired
+    private TestData testData;
+
+    @Value("${app.timezone:Asia/Colombo}")
+    private String timezone;
+
+    private SettableClock clock;
+    private LocalDate today;
+
+    @BeforeEach
+    void runAtHalfPastMidnight() {
+        clock = new SettableClock(ZoneId.of(timezone));
+        today = LocalDate.now(clock);
+        clock.set(today.atTime(0, 30));
+    }
+
+    @Test
+    void openDaysAreClosedAtTheWorkEnd() {
+        LocalDate day = today.minusDays(5);
+        User early = testData.user(Role.EMPLOYEE);
+        User late = testData.user(Role.EMPLOYEE);
+        User ended = testData.user(Role.EMPLOYEE);
+        insertDay(early, day.atTime(7, 0), null);
+        insertDay(late, day.atTime(19, 0), null);
+        insertDay(ended, day.atTime(8, 30), day.atTime(18, 0));
+        startAt(day);
+
+        job(OpenDayPolicy.CLOSE_AT_WORK_END, 500).run();
+
+        assertThat(dayLog(early)).containsEntry("day_end_time", Timestamp.valueOf(day.atTime(17, 30)))
+            .containsEntry("auto_closed", true)
+            .containsEntry("morning_ot_minutes", 90)
+            .containsEntry("total_work_minutes", 630);
+        // Started after the work end: closed where it started
+        assertThat(dayLog(late)).containsEntry("day_end_time", Timestamp.valueOf(day.atTime(19, 0)))
+            .containsEntry("total_work_minutes", 0);
+        assertThat(dayLog(ended)).containsEntry("auto_closed", false);
+
+        assertThat(summary(early, day)).containsExactly(1, 630L, 90L, 0L, 1);
+        assertThat(summary(late, day)).containsExactly(1, 0L, 0L, 0L, 1);
+        assertThat(summary(ended, day)).containsExactly(1, 570L, 0L, 30L, 0);
+    }
+
+    @Test
+    void openDaysAreClosedAtTheirStart() {
+        LocalDate day = today.minusDays(6);
+        User employee = testData.user(Role.EMPLOYEE);
+        insertDay(employee, day.atTime(7, 0), null);
+        startAt(day);
+
+        job(OpenDayPolicy.CLOSE_AT_START, 500).run();
+
+        assertThat(dayLog(employee)).containsEntry("day_end_time", Timestamp.valueOf(day.atTime(7, 0)))
+            .containsEntry("auto_closed", true)
+            .containsEntry("morning_ot_minutes", 0)
+            .containsEntry("total_work_minutes", 0);
+        assertThat(summary(employee, day)).containsExactly(1, 0L, 0L, 0L, 1);
+    }
+
+    @Test
+    void shiftRunningPastMidnightIsLeftToItsEmployee() {
+        LocalDate yesterday = today.minusDays(1);
+        User nightShift = testData.user(Role.EMPLOYEE);
+        User dayShift = testData.user(Role.EMPLOYEE);
+        insertDay(nightShift, yesterday.atTime(23, 0), null);
+        insertDay(dayShift, today.minusDays(2).atTime(8, 30), today.minusDays(2).atTime(17, 30));
+        startAt(today.minusDays(2));
+
+        job(OpenDayPolicy.CLOSE_AT_WORK_END, 500).run();
+
+        assertThat(summary(dayShift, today.minusDays(2))).containsExactly(1, 540L, 0L, 0L, 0);
+        assertThat(dayLog(nightShift)).containsEntry("day_end_time", null);
+        assertThat(summary(nightShift, yesterday)).isEmpty();
+
+        // Ended by the employee at 01:30; the next night's run counts all of its overtime
+        jdbcTemplate.update("UPDATE employee_day_logs SET day_end_time = ? WHERE employee_id = ?",
+            Timestamp.valueOf(today.atTime(1, 30)), nightShift.getId());
+        clock.set(today.plusDays(1).atTime(0, 30));
+        job(OpenDayPolicy.CLOSE_AT_WORK_END, 500).run();
+
+        assertThat(dayLog(nightShift)).containsEntry("auto_closed", false)
+            .containsEntry("evening_ot_minutes", 150);
+        assertThat(summary(nightShift, yesterday)).containsExactly(1, 150L, 0L, 150L, 0);
+    }
+
+    @Test
+    void restartInTheMiddleOfADayDoesNotCountRowsTwice() {
+        LocalDate day = today.minusDays(7);
+        List<User> employees = new ArrayList<>();
+        List<Long> rowIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User employee = testData.user(Role.EMPLOYEE);
+            employees.add(employee);
+            // The last one never ended its day
+            rowIds.add(insertDay(employee, day.atTime(8, 30), i < 4 ? day.atTime(17, 30) : null));
+        }
+        startAt(day);
+
+        // Chunks of two; the node dies while writing the second chunk's totals
+        PayrollBatchJob dying = new PayrollBatchJob(failingOnSecondSummary(), transactionManager, workHours, clock,
+            OpenDayPolicy.CLOSE_AT_WORK_END, 2, MAX_SHIFT);
+        assertThatThrownBy(dying::run).isInstanceOf(DataAccessResourceFailureException.class);
+
+        Map<String, Object> checkpoint = jdbcTemplate.queryForMap(
+            "SELECT next_date, last_id FROM batch_checkpoints WHERE job_name = 'payroll'");
+        assertThat(checkpoint.get("next_date")).isEqualTo(Date.valueOf(day));
+        assertThat(checkpoint.get("last_id")).isEqualTo(rowIds.get(1));
+        assertThat(summary(employees.get(0), day)).isNotEmpty();
+        assertThat(summary(employees.get(2), day)).isEmpty();
+
+        PayrollBatchJob restarted = job(OpenDayPolicy.CLOSE_AT_WORK_END, 2);
+        restarted.run();
+        restarted.run();
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(summary(employees.get(i), day)).as("employee %d", i)
+                .containsExactly(1, 540L, 0L, 0L, i < 4 ? 0 : 1);
+        }
+    }
+
+    private PayrollBatchJob job(OpenDayPolicy policy, int chunkSize) {
+        return new PayrollBatchJob(jdbcTemplate, transactionManager, workHours, clock, policy, chunkSize, MAX_SHIFT);
+    }
+
+    private JdbcTemplate failingOnSecondSummary() {
+        return new JdbcTemplate(dataSource) {
+            private int summaries;
+
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (sql.startsWith("INSERT INTO payroll_summaries") && ++summaries == 2) {
+                    throw new DataAccessResourceFailureException("Node stopped");
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+    }
+
+    private void startAt(LocalDate day) {
+        jdbcTemplate.update("INSERT INTO batch_checkpoints (job_name, next_date, last_id, updated_at) " +
+                "VALUES ('payroll', ?, 0, now()) " +
+                "ON CONFLICT (job_name) DO UPDATE SET next_date = EXCLUDED.next_date, last_id = 0",
+            Date.valueOf(day));
+    }
+
+    private long insertDay(User employee, LocalDateTime start, LocalDateTime end) {
+        return jdbcTemplate.queryForObject("INSERT INTO employee_day_logs (employee_id, day_date, day_start_time, " +
+                "day_end_time, morning_ot_minutes, evening_ot_minutes, total_work_minutes, auto_closed, version) " +
+                "VALUES (?, ?, ?, ?, 0, 0, 0, false, 0) RETURNING id",
+            Long.class, employee.getId(), Date.valueOf(start.toLocalDate()), Timestamp.valueOf(start),
+            end != null ? Timestamp.valueOf(end) : null);
+    }
+
+    private Map<String, Object> dayLog(User employee) {
+        return jdbcTemplate.queryForMap("SELECT day_end_time, auto_closed, morning_ot_minutes, evening_ot_minutes, " +
+            "total_work_minutes FROM employee_day_logs WHERE employee_id = ?", employee.getId());
+    }
+
+    /**
+     * days_worked, total_work_minutes, morning_ot_minutes, evening_ot_minutes, auto_closed_days
+     */
+    private List<Object> summary(User employee, LocalDate day) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+            "SELECT days_worked, total_work_minutes, morning_ot_minutes, evening_ot_minutes, auto_closed_days " +
+                "FROM payroll_summaries WHERE employee_id = ? AND period_start = ?",
+            employee.getId(), Date.valueOf(day.withDayOfMonth(1)));
+        return rows.isEmpty() ? List.of() : new ArrayList<>(rows.get(0).values());
+    }
+}
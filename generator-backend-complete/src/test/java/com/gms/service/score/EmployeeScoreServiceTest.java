@@ -0,0 +1,145 @@
+package com.gms.service.score;
+
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.ScorePeriod;
+import com.gms.enums.TicketStatus;
+import com.gms.repository.SubTicketRepository;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Approvals land in employee_scores and in the day, week and month totals; removing a
+ * ticket's scores takes them off the totals again; the backfill copies older approvals.
+ */
+class EmployeeScoreServiceTest extends PostgresIntegrationTest {
+
+    // A Friday; the next day is in the same week but the next month
+    private static final LocalDate FRIDAY = LocalDate.of(2031, 1, 31);
+
+    @Autowired
+    private EmployeeScoreService employeeScoreService;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private User admin;
+    private User employee;
+
+    @BeforeEach
+    void createUsers() {
+        admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+    }
+
+    @Test
+    void approvalsAddToEveryPeriodTheyFallIn() {
+        SubTicket first = subTicket();
+        SubTicket second = subTicket();
+        SubTicket third = subTicket();
+
+        employeeScoreService.recordApprovals(List.of(
+            approval(first, 1.5, FRIDAY.atTime(9, 0)),
+            approval(second, 2.25, FRIDAY.atTime(17, 30))));
+        employeeScoreService.recordApprovals(List.of(approval(third, 3.0, FRIDAY.plusDays(1).atTime(10, 0))));
+
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT sub_ticket_id FROM employee_scores WHERE employee_id = ? ORDER BY sub_ticket_id",
+            Long.class, employee.getId()))
+            .containsExactly(first.getId(), second.getId(), third.getId());
+
+        assertThat(aggregates()).containsExactly(
+            "DAY " + FRIDAY + " 3.75 x2",
+            "DAY " + FRIDAY.plusDays(1) + " 3.00 x1",
+            "MONTH " + ScorePeriod.MONTH.startOf(FRIDAY) + " 3.75 x2",
+            "MONTH " + FRIDAY.plusDays(1) + " 3.00 x1",
+            "WEEK " + ScorePeriod.WEEK.startOf(FRIDAY) + " 6.75 x3");
+    }
+
+    @Test
+    void removedScoresAreTakenOffTheTotals() {
+        SubTicket kept = subTicket();
+        SubTicket removed = subTicket();
+        employeeScoreService.recordApprovals(List.of(
+            approval(kept, 1.0, FRIDAY.atTime(9, 0)),
+            approval(removed, 2.0, FRIDAY.atTime(10, 0))));
+
+        assertThat(employeeScoreService.removeTicketScores(removed.getMainTicket().getId())).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("SELECT sub_ticket_id FROM employee_scores WHERE employee_id = ?",
+            Long.class, employee.getId())).containsExactly(kept.getId());
+        assertThat(aggregates()).containsExactly(
+            "DAY " + FRIDAY + " 1.00 x1",
+            "MONTH " + ScorePeriod.MONTH.startOf(FRIDAY) + " 1.00 x1",
+            "WEEK " + ScorePeriod.WEEK.startOf(FRIDAY) + " 1.00 x1");
+
+        // The last score of a period removes its row, so it no longer ranks with zero
+        employeeScoreService.removeTicketScores(kept.getMainTicket().getId());
+        assertThat(aggregates()).isEmpty();
+    }
+
+    @Test
+    void backfillCopiesApprovalsMadeBeforeScoresWereRecorded() {
+        SubTicket subTicket = subTicket();
+        jdbcTemplate.update("UPDATE sub_tickets SET status = 'APPROVED', approved = true, score = 2.5, " +
+                "approved_by = ?, approved_at = ? WHERE id = ?",
+            admin.getId(), Timestamp.valueOf(FRIDAY.atTime(11, 0)), subTicket.getId());
+
+        assertThat(employeeScoreService.backfillFromSubTickets()).isGreaterThanOrEqualTo(1);
+        assertThat(employeeScoreService.backfillFromSubTickets()).isZero();
+
+        Map<String, Object> score = jdbcTemplate.queryForMap(
+            "SELECT employee_id, main_ticket_id, weight, score, approved_by FROM employee_scores WHERE sub_ticket_id = ?",
+            subTicket.getId());
+        assertThat(score.get("employee_id")).isEqualTo(employee.getId());
+        assertThat(score.get("main_ticket_id")).isEqualTo(subTicket.getMainTicket().getId());
+        assertThat(score.get("weight")).isEqualTo("3");
+        assertThat((BigDecimal) score.get("score")).isEqualByComparingTo("2.50");
+        assertThat(score.get("approved_by")).isEqualTo(admin.getId());
+
+        assertThat(aggregates()).containsExactly(
+            "DAY " + FRIDAY + " 2.50 x1",
+            "MONTH " + ScorePeriod.MONTH.startOf(FRIDAY) + " 2.50 x1",
+            "WEEK " + ScorePeriod.WEEK.startOf(FRIDAY) + " 2.50 x1");
+    }
+
+    private SubTicket subTicket() {
+        MainTicket ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        return subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).get(0);
+    }
+
+    private ApprovedScore approval(SubTicket subTicket, double score, LocalDateTime approvedAt) {
+        return new ApprovedScore(employee.getId(), employee.getFullName(), subTicket.getMainTicket().getId(),
+            subTicket.getId(), 3, score, admin.getId(), approvedAt);
+    }
+
+    private List<String> aggregates() {
+        return jdbcTemplate.query(
+            "SELECT period, period_start, total_score, approved_count FROM employee_score_aggregates " +
+                "WHERE employee_id = ? ORDER BY period, period_start",
+            (rs, rowNum) -> rs.getString("period") + " " + rs.getObject("period_start", LocalDate.class) + " " +
+                rs.getBigDecimal("total_score").setScale(2) + " x" + rs.getInt("approved_count"),
+            employee.getId());
+    }
+}
@@ -0,0 +1,113 @@
+package com.gms.service.score;
+
+import com.gms.dto.response.LeaderboardEntry;
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.ScorePeriod;
+import com.gms.enums.TicketStatus;
+import com.gms.event.EmployeeScoresRecordedEvent;
+import com.gms.repository.EmployeeScoreAggregateRepository;
+import com.gms.repository.SubTicketRepository;
+import com.gms.support.PostgresIntegrationTest;
+import com.gms.support.SettableClock;
+import com.gms.support.TestData;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boards follow the clock into the next day, week and month: the new period starts from
+ * its own totals, and scores of the period that just ended do not leak into it.
+ */
+class LeaderboardTest extends PostgresIntegrationTest {
+
+    // The last day of a month and a Sunday, so every period rolls over at once
+    private static final LocalDate LAST_DAY = LocalDate.of(2031, 8, 31);
+
+    @Autowired
+    private EmployeeScoreAggregateRepository aggregateRepository;
+
+    @Autowired
+    private EmployeeScoreService employeeScoreService;
+
+    @Autowired
+    private SubTicketRepository subTicketRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Value("${app.timezone:Asia/Colombo}")
+    private String timezone;
+
+    private User admin;
+    private User employee;
+    private SettableClock clock;
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void createLeaderboard() {
+        admin = testData.user(Role.ADMIN);
+        employee = testData.user(Role.EMPLOYEE);
+        clock = new SettableClock(ZoneId.of(timezone));
+        leaderboard = new Leaderboard(aggregateRepository, clock);
+    }
+
+    @Test
+    void boardsStartOverWhenThePeriodRollsOver() {
+        clock.set(LAST_DAY.atTime(23, 30));
+        leaderboard.reload();
+        record(2.0, LAST_DAY.atTime(23, 0));
+        for (ScorePeriod period : ScorePeriod.values()) {
+            assertThat(standing(period)).as(period.name()).isEqualByComparingTo("2.00");
+        }
+
+        clock.set(LAST_DAY.plusDays(1).atTime(0, 5));
+        for (ScorePeriod period : ScorePeriod.values()) {
+            assertThat(standing(period)).as(period.name()).isNull();
+        }
+
+        // An approval stamped before midnight but committed after it stays out of the new boards
+        record(1.0, LAST_DAY.atTime(23, 59));
+        record(0.5, LAST_DAY.plusDays(1).atTime(0, 10));
+        for (ScorePeriod period : ScorePeriod.values()) {
+            assertThat(standing(period)).as(period.name()).isEqualByComparingTo("0.50");
+        }
+
+        // A node starting now loads the same standings from the aggregates
+        Leaderboard restarted = new Leaderboard(aggregateRepository, clock);
+        assertThat(restarted.top(ScorePeriod.DAY, 500)).filteredOn(entry -> entry.getEmployeeId().equals(employee.getId()))
+            .extracting(LeaderboardEntry::getTotalScore).singleElement()
+            .satisfies(total -> assertThat(total).isEqualByComparingTo("0.50"));
+    }
+
+    /**
+     * Record an approval and deliver its event to the board under test, as the commit would
+     */
+    private void record(double score, LocalDateTime approvedAt) {
+        MainTicket ticket = testData.ticket(testData.generator(), admin, List.of(employee));
+        SubTicket subTicket = subTicketRepository.findByMainTicketIdAndStatus(ticket.getId(), TicketStatus.ASSIGNED).get(0);
+        List<ApprovedScore> scores = List.of(new ApprovedScore(employee.getId(), employee.getFullName(),
+            ticket.getId(), subTicket.getId(), ticket.getWeight(), score, admin.getId(), approvedAt));
+        employeeScoreService.recordApprovals(scores);
+        leaderboard.onScoresRecorded(new EmployeeScoresRecordedEvent(scores));
+    }
+
+    private BigDecimal standing(ScorePeriod period) {
+        return leaderboard.top(period, 500).stream()
+            .filter(entry -> entry.getEmployeeId().equals(employee.getId()))
+            .map(LeaderboardEntry::getTotalScore)
+            .findFirst()
+            .orElse(null);
+    }
+}
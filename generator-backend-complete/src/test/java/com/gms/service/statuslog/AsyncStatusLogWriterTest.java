@@ -0,0 +1,167 @@
+package com.gms.service.statuslog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gms.enums.JobStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The flusher must survive every kind of insert failure and always give the queue slots back,
+ * or the full queue would answer 429 to every status update until restart. Concurrent
+ * updates must share WAL fsyncs rather than queue for one each.
+ */
+class AsyncStatusLogWriterTest {
+
+    private static final int CAPACITY = 2;
+    private static final int GROUP_THREADS = 16;
+    private static final int GROUP_APPENDS = 20;
+
+    @TempDir
+    Path walDir;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncStatusLogWriter writer;
+
+    @AfterEach
+    void stopWriter() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void connectionErrorDuringOneByOneFallbackIsRetried() throws Exception {
+        when(batchInsert())
+            .thenThrow(new DataIntegrityViolationException("bad row"))
+            .thenThrow(new TransientDataAccessResourceException("connection reset"))
+            .thenReturn(new int[][]{{1}});
+        startWriter();
+
+        fillQueue();
+        // Both slots come back: the retried row was inserted and the flusher is still running
+        assertThatCode(this::fillQueue).doesNotThrowAnyException();
+        verify(jdbcTemplate, timeout(5000).atLeast(5)).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+    }
+
+    @Test
+    void unexpectedErrorDoesNotStopTheFlusher() throws Exception {
+        when(batchInsert())
+            .thenThrow(new IllegalStateException("cannot bind row"))
+            .thenThrow(new IllegalStateException("cannot bind row"))
+            .thenThrow(new IllegalStateException("cannot bind row"))
+            .thenReturn(new int[][]{{1, 1}});
+        startWriter();
+
+        fillQueue();
+        assertThatCode(this::fillQueue).doesNotThrowAnyException();
+        verify(jdbcTemplate, timeout(5000).atLeast(4)).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+    }
+
+    @Test
+    void concurrentUpdatesShareWalSyncs() throws Exception {
+        when(batchInsert()).thenReturn(new int[][]{{1}});
+        startWriter(GROUP_THREADS * GROUP_APPENDS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(GROUP_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int t = 0; t < GROUP_THREADS; t++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < GROUP_APPENDS; i++) {
+                        writer.append(entry());
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double syncs = meterRegistry.get("audit.status-log.wal.syncs").counter().count();
+        assertThat(syncs).isGreaterThan(0).isLessThan(GROUP_THREADS * GROUP_APPENDS);
+
+        // Every entry still reaches the insert queue
+        writer.stop();
+        writer = null;
+        ArgumentCaptor<Collection<?>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate, atLeastOnce()).batchUpdate(anyString(), batches.capture(), anyInt(), any());
+        assertThat(batches.getAllValues().stream().mapToInt(Collection::size).sum())
+            .isEqualTo(GROUP_THREADS * GROUP_APPENDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int[][] batchInsert() {
+        return jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private void startWriter() throws Exception {
+        startWriter(CAPACITY);
+    }
+
+    private void startWriter(int capacity) throws Exception {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenReturn(List.of(1000L));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        writer = new AsyncStatusLogWriter(jdbcTemplate, transactionManager, new ObjectMapper().findAndRegisterModules(),
+            meterRegistry, walDir.toString(), capacity, 10, 20, 5000);
+        writer.start();
+    }
+
+    private void fillQueue() {
+        for (int i = 0; i < CAPACITY; i++) {
+            writer.append(entry());
+        }
+    }
+
+    private static StatusLogEntry entry() {
+        return StatusLogEntry.builder()
+            .jobCardId(1L)
+            .generator("GX-1")
+            .employeeEmail("employee@example.com")
+            .passStatus(JobStatus.PENDING)
+            .newStatus(JobStatus.TRAVELING)
+            .build();
+    }
+}
@@ -0,0 +1,71 @@
+package com.gms.statemachine;
+
+import com.gms.enums.JobStatus;
+import com.gms.enums.TicketStatus;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Transition checks run on every status update and must not allocate; TransitionValidationBenchmark
+ * measures the same with the JMH gc profiler.
+ */
+class TransitionTableAllocationTest {
+
+    private static final int ROUNDS = 200_000;
+
+    // values() clones its array on every call
+    private static final JobStatus[] JOB_STATUSES = JobStatus.values();
+    private static final TicketStatus[] TICKET_STATUSES = TicketStatus.values();
+
+    @Test
+    void checksDoNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        int allowed = checkAll();
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ROUNDS; i++) {
+            allowed += checkAll();
+        }
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertThat(allowed).isPositive();
+        // Millions of checks: anything per check would show up as megabytes
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+
+    @Test
+    void sourcesAreTheInverseOfTargets() {
+        for (TicketStatus to : TicketStatus.values()) {
+            for (TicketStatus from : TicketStatus.values()) {
+                assertThat(StatusTransitions.MAIN_TICKET.sourcesOf(to).contains(from))
+                    .isEqualTo(StatusTransitions.MAIN_TICKET.canTransition(from, to));
+            }
+            assertThat(StatusTransitions.MAIN_TICKET.sourceNamesOf(to))
+                .containsExactlyElementsOf(StatusTransitions.MAIN_TICKET.sourcesOf(to).stream().map(Enum::name).toList());
+        }
+    }
+
+    private static int checkAll() {
+        int allowed = 0;
+        for (JobStatus from : JOB_STATUSES) {
+            for (JobStatus to : JOB_STATUSES) {
+                if (StatusTransitions.JOB_CARD.canTransition(from, to)) {
+                    allowed++;
+                }
+            }
+        }
+        for (TicketStatus from : TICKET_STATUSES) {
+            for (TicketStatus to : TICKET_STATUSES) {
+                if (StatusTransitions.SUB_TICKET.canTransition(from, to)) {
+                    allowed++;
+                }
+            }
+        }
+        StatusTransitions.MAIN_TICKET.check(TicketStatus.ASSIGNED, TicketStatus.IN_PROGRESS);
+        return allowed;
+    }
+}
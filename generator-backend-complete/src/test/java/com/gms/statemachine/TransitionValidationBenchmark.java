@@ -0,0 +1,65 @@
+package com.gms.statemachine;
+
+import com.gms.enums.JobStatus;
+import com.gms.enums.TicketStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transition checks on the hot status-update paths. Every benchmark should report
+ * gc.alloc.rate.norm of about 0 B/op: a check is an EnumMap read and an EnumSet bit test.
+ *
+ * Run with: mvn -Pbenchmarks test-compile exec:exec -Dbenchmark="TransitionValidationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransitionValidationBenchmark {
+
+    private final JobStatus[] jobStatuses = JobStatus.values();
+    private final TicketStatus[] ticketStatuses = TicketStatus.values();
+
+    @Benchmark
+    public void jobCardCanTransition(Blackhole blackhole) {
+        for (JobStatus from : jobStatuses) {
+            for (JobStatus to : jobStatuses) {
+                blackhole.consume(StatusTransitions.JOB_CARD.canTransition(from, to));
+            }
+        }
+    }
+
+    @Benchmark
+    public void subTicketCanTransition(Blackhole blackhole) {
+        for (TicketStatus from : ticketStatuses) {
+            for (TicketStatus to : ticketStatuses) {
+                blackhole.consume(StatusTransitions.SUB_TICKET.canTransition(from, to));
+            }
+        }
+    }
+
+    @Benchmark
+    public void mainTicketAllowedCheck() {
+        // The accepted path of check(); a rejected one builds its exception message
+        StatusTransitions.MAIN_TICKET.check(TicketStatus.ASSIGNED, TicketStatus.IN_PROGRESS);
+        StatusTransitions.MAIN_TICKET.check(TicketStatus.COMPLETED, TicketStatus.APPROVED);
+    }
+
+    @Benchmark
+    public void bulkSourceNames(Blackhole blackhole) {
+        blackhole.consume(StatusTransitions.MAIN_TICKET.sourceNamesOf(TicketStatus.CLOSED));
+        blackhole.consume(StatusTransitions.MAIN_TICKET.sourcesOf(TicketStatus.IN_PROGRESS));
+    }
+}
@@ -0,0 +1,61 @@
+package com.gms.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.TimeZone;
+
+/**
+ * Base for tests against a real Postgres: the native queries (ON CONFLICT, RETURNING,
+ * partitions) do not run on an in-memory database.
+ *
+ * One embedded server is started per test JVM and shared by every subclass, so the
+ * Spring context is cached across test classes as well.
+ */
+@SpringBootTest
+public abstract class PostgresIntegrationTest {
+
+    static {
+        // As GeneratorManagementApplication.main does; tests do not go through main
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Colombo"));
+    }
+
+    private static final EmbeddedPostgres POSTGRES = start();
+    private static final Path DATA_DIR = tempDir();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+            () -> POSTGRES.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.jpa.properties.hibernate.generate_statistics", () -> "true");
+        registry.add("storage.filesystem.root", () -> DATA_DIR.resolve("objects").toString());
+        registry.add("audit.status-log.wal-dir", () -> DATA_DIR.resolve("wal").toString());
+        registry.add("logging.level.com.gms", () -> "INFO");
+        registry.add("logging.level.org.springframework.security", () -> "INFO");
+        registry.add("logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener", () -> "WARN");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not start embedded Postgres", ex);
+        }
+    }
+
+    private static Path tempDir() {
+        try {
+            return Files.createTempDirectory("gms-test");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
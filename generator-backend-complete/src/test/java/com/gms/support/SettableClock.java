@@ -0,0 +1,47 @@
+package com.gms.support;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * A clock tests move by hand, e.g. across midnight in the application's timezone
+ */
+public class SettableClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile Instant instant = Instant.now();
+
+    public SettableClock(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Move to the given wall-clock time in this clock's zone
+     */
+    public void set(LocalDateTime localTime) {
+        instant = localTime.atZone(zone).toInstant();
+    }
+
+    public void set(Instant instant) {
+        this.instant = instant;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        SettableClock clock = new SettableClock(zone);
+        clock.set(instant);
+        return clock;
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
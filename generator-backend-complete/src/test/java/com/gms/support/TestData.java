@@ -0,0 +1,94 @@
+package com.gms.support;
+
+import com.gms.entity.Generator;
+import com.gms.entity.MainTicket;
+import com.gms.entity.SubTicket;
+import com.gms.entity.User;
+import com.gms.enums.Role;
+import com.gms.enums.TicketStatus;
+import com.gms.repository.GeneratorRepository;
+import com.gms.repository.MainTicketRepository;
+import com.gms.repository.SubTicketRepository;
+import com.gms.repository.UserRepository;
+import com.gms.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fixture rows for integration tests. Names are random so tests sharing the database do not collide.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestData {
+
+    private final UserRepository userRepository;
+    private final GeneratorRepository generatorRepository;
+    private final MainTicketRepository ticketRepository;
+    private final SubTicketRepository subTicketRepository;
+
+    public User user(Role role) {
+        String name = role.name().toLowerCase() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return userRepository.save(User.builder()
+            .username(name)
+            .password("{noop}secret")
+            .fullName(name)
+            .role(role)
+            .build());
+    }
+
+    public Generator generator() {
+        return generatorRepository.save(Generator.builder()
+            .model("GX-" + UUID.randomUUID().toString().substring(0, 6))
+            .name("Test generator")
+            .capacity("100 kVA")
+            .note("A long free-text note that listing responses never need")
+            .build());
+    }
+
+    /**
+     * A main ticket with one assigned sub-ticket per employee
+     */
+    public MainTicket ticket(Generator generator, User admin, List<User> employees) {
+        String number = "TST-" + UUID.randomUUID().toString().substring(0, 12);
+        MainTicket ticket = ticketRepository.save(MainTicket.builder()
+            .ticketNumber(number)
+            .generator(generator)
+            .title("Service " + number)
+            .description("Full service and load test")
+            .weight(3)
+            .status(TicketStatus.ASSIGNED)
+            .scheduledDate(LocalDate.now())
+            .scheduledTime(LocalTime.of(9, 0))
+            .createdBy(admin)
+            .build());
+
+        List<SubTicket> subTickets = new ArrayList<>();
+        for (int i = 0; i < employees.size(); i++) {
+            subTickets.add(SubTicket.builder()
+                .ticketNumber(number + "-" + String.format("%02d", i + 1))
+                .mainTicket(ticket)
+                .employee(employees.get(i))
+                .notes("Employee notes that listing responses do not need")
+                .build());
+        }
+        subTicketRepository.saveAll(subTickets);
+        return ticket;
+    }
+
+    /**
+     * Authenticate the current thread as the given user, as the JWT filter would
+     */
+    public static void signIn(User user) {
+        UserPrincipal principal = UserPrincipal.create(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
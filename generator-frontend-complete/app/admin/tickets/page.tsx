@@ -106,7 +106,8 @@ export default function TicketsPage() {
       };
 
       if (editingTicket) {
-        await adminTicketAPI.update(editingTicket.id, submitData);
+        // The server answers 409 if the ticket changed since it was loaded
+        await adminTicketAPI.update(editingTicket.id, { ...submitData, version: editingTicket.version });
       } else {
         await adminTicketAPI.create(submitData);
       }
@@ -1,7 +1,10 @@
 import axios from 'axios';
+import { clearAuthData, getDeviceId } from './auth';
+
+const API_URL = process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api';
 
 const api = axios.create({
-  baseURL: process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api',
+  baseURL: API_URL,
   headers: { 'Content-Type': 'application/json' },
 });
 
@@ -16,27 +19,40 @@ api.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
+// One refresh at a time: requests that get 401 together wait for the same rotation,
+// since presenting an already rotated refresh token ends the session
+let refreshInFlight: Promise<string> | null = null;
+
+const refreshAccessToken = (): Promise<string> => {
+  if (!refreshInFlight) {
+    refreshInFlight = (async () => {
+      const refreshToken = localStorage.getItem('refreshToken');
+      if (!refreshToken) throw new Error('No refresh token');
+      const response = await axios.post(`${API_URL}/auth/refresh`, { refreshToken });
+      const { accessToken, refreshToken: rotatedRefreshToken } = response.data;
+      localStorage.setItem('accessToken', accessToken);
+      localStorage.setItem('refreshToken', rotatedRefreshToken);
+      return accessToken as string;
+    })().finally(() => {
+      refreshInFlight = null;
+    });
+  }
+  return refreshInFlight;
+};
+
 api.interceptors.response.use(
   (response) => response,
   async (error) => {
     const originalRequest = error.config as any;
     if (error.response?.status === 401 && !originalRequest._retry) {
       originalRequest._retry = true;
-      if (typeof window !== 'undefined') {
+      if (typeof window !== 'undefined' && localStorage.getItem('refreshToken')) {
         try {
-          const refreshToken = localStorage.getItem('refreshToken');
-          if (refreshToken) {
-            const response = await axios.post(
-              `${process.env.NEXT_PUBLIC_API_URL || 'http://localhost:8080/api'}/auth/refresh`,
-              { refreshToken }
-            );
-            const { accessToken } = response.data;
-            localStorage.setItem('accessToken', accessToken);
-            originalRequest.headers.Authorization = `Bearer ${accessToken}`;
-            return api(originalRequest);
-          }
+          const accessToken = await refreshAccessToken();
+          originalRequest.headers.Authorization = `Bearer ${accessToken}`;
+          return api(originalRequest);
         } catch (refreshError) {
-          localStorage.clear();
+          clearAuthData();
           window.location.href = '/login';
           return Promise.reject(refreshError);
         }
@@ -51,7 +67,7 @@ export default api;
 // Auth API
 export const authAPI = {
   login: (username: string, password: string) => 
-    api.post('/auth/login', { username, password }),
+    api.post('/auth/login', { username, password, deviceId: getDeviceId() }),
   logout: (userId: number) => 
     api.post(`/auth/logout?userId=${userId}`),
   refresh: (refreshToken: string) => 
@@ -44,7 +44,21 @@ export const saveAuthData = (data: LoginResponse) => {
   localStorage.setItem('fullName', data.fullName);
 };
 
+const AUTH_KEYS = ['accessToken', 'refreshToken', 'role', 'userId', 'username', 'fullName'];
+
+// Kept across logins: the server keeps one refresh token session per device
+const DEVICE_ID_KEY = 'deviceId';
+
+export const getDeviceId = (): string => {
+  let deviceId = localStorage.getItem(DEVICE_ID_KEY);
+  if (!deviceId) {
+    deviceId = crypto.randomUUID();
+    localStorage.setItem(DEVICE_ID_KEY, deviceId);
+  }
+  return deviceId;
+};
+
 export const clearAuthData = () => {
   if (typeof window === 'undefined') return;
-  localStorage.clear();
+  AUTH_KEYS.forEach((key) => localStorage.removeItem(key));
 };
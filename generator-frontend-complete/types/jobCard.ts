@@ -13,7 +13,8 @@ export interface JobCard {
   endTime?: string;
   workMinutes: number;
   approved: boolean;
-  image?: string;
+  imageUrl?: string;
+  thumbnailUrl?: string;
   createdAt: string;
 }
 
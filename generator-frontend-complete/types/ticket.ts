@@ -33,6 +33,7 @@ export interface SubTicket {
   createdAt: string;
   updatedAt: string;
   completedAt?: string;
+  version: number; // send back on notes updates and reviews
 }
 
 export interface Ticket {
@@ -54,6 +55,7 @@ export interface Ticket {
   subTickets?: SubTicket[];
   totalAssignments?: number;
   completedAssignments?: number;
+  version: number; // send back on update
 }
 
 export interface CreateTicketRequest {
@@ -71,4 +73,5 @@ export interface ApprovalRequest {
   completionFactor?: number; // 0.0 to 1.0
   qualityFactor?: number; // 0.0 to 1.0
   adminReviewNotes?: string;
+  version?: number; // version of the sub-ticket being reviewed
 }